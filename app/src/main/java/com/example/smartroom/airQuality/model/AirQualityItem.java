@@ -1,31 +0,0 @@
-package com.example.smartroom.airQuality.model;
-
-public class AirQualityItem {
-    private final String station;
-    private final String pollutant;
-    private final String value;
-    private final String timestamp;
-
-    public AirQualityItem(String station, String pollutant, String value, String timestamp) {
-        this.station = station;
-        this.pollutant = pollutant;
-        this.value = value;
-        this.timestamp = timestamp;
-    }
-
-    public String getStation() {
-        return station;
-    }
-
-    public String getPollutant() {
-        return pollutant;
-    }
-
-    public String getValue() {
-        return value;
-    }
-
-    public String getTimestamp() {
-        return timestamp;
-    }
-}
\ No newline at end of file
@@ -7,33 +7,84 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.smartroom.R;
+import com.example.smartroom.airQuality.model.AirQualityFormatter;
 import com.example.smartroom.airQuality.model.AirQualityItem;
 
-import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-
-public class AirQualityAdapter extends RecyclerView.Adapter<AirQualityAdapter.AQViewHolder> {
-
-    private final List<AirQualityItem> items = new ArrayList<>();
+import java.util.Map;
+
+/**
+ * Rows are diffed off the main thread (ListAdapter / AsyncListDiffer): a refresh
+ * only inserts, removes or rebinds the rows that actually changed.
+ */
+public class AirQualityAdapter extends ListAdapter<AirQualityItem, AirQualityAdapter.AQViewHolder> {
+
+    // Change payload: same station + pollutant, only the reading moved
+    private static final Object PAYLOAD_READING = new Object();
+
+    // One row per station + pollutant
+    private static final DiffUtil.ItemCallback<AirQualityItem> DIFF =
+            new DiffUtil.ItemCallback<AirQualityItem>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull AirQualityItem a, @NonNull AirQualityItem b) {
+                    return a.getStationId() == b.getStationId()
+                            && a.getPollutantId() == b.getPollutantId();
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull AirQualityItem a, @NonNull AirQualityItem b) {
+                    return a.equals(b);
+                }
+
+                @Override
+                public Object getChangePayload(@NonNull AirQualityItem a, @NonNull AirQualityItem b) {
+                    return PAYLOAD_READING;
+                }
+            };
+
+    // Display text per item, built the first time it is bound; equal items share it
+    private final Map<AirQualityItem, RowText> texts = new HashMap<>();
+    private final AirQualityFormatter formatter = new AirQualityFormatter();
 
     // NEW: flag to know if accessibility mode is ON
     private boolean accessibilityEnabled = false;
 
+    public AirQualityAdapter() {
+        super(DIFF);
+        setHasStableIds(true);
+    }
+
     public void setItems(List<AirQualityItem> newItems) {
-        items.clear();
-        if (newItems != null) {
-            items.addAll(newItems);
+        // The ViewModel only posts unmodifiable snapshots, safe to diff in the background
+        submitList(newItems);
+    }
+
+    @Override
+    public void onCurrentListChanged(@NonNull List<AirQualityItem> previousList,
+                                     @NonNull List<AirQualityItem> currentList) {
+        // Drop text of rows that are gone
+        if (!texts.isEmpty()) {
+            texts.keySet().retainAll(new HashSet<>(currentList));
         }
-        notifyDataSetChanged();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        AirQualityItem item = getItem(position);
+        return ((long) item.getStationId() << 32) | (item.getPollutantId() & 0xFFFFFFFFL);
     }
 
     // NEW: called from Activity when accessibility pref changes
     public void setAccessibilityEnabled(boolean enabled) {
         this.accessibilityEnabled = enabled;
-        notifyDataSetChanged(); // redraw rows with new font sizes
+        notifyItemRangeChanged(0, getItemCount()); // redraw rows with new font sizes
     }
 
     @NonNull
@@ -44,14 +95,28 @@ public class AirQualityAdapter extends RecyclerView.Adapter<AirQualityAdapter.AQ
         return new AQViewHolder(v);
     }
 
+    @Override
+    public void onBindViewHolder(@NonNull AQViewHolder holder, int position,
+                                 @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        // Only the value and time changed: station, pollutant and text sizes stay as bound
+        RowText text = textFor(getItem(position));
+        holder.txtValue.setText(text.value);
+        holder.txtTimestamp.setText(text.timestamp);
+        holder.itemView.setContentDescription(text.contentDescription);
+    }
+
     @Override
     public void onBindViewHolder(@NonNull AQViewHolder holder, int position) {
-        AirQualityItem item = items.get(position);
+        RowText text = textFor(getItem(position));
 
-        holder.txtStation.setText(item.getStation());
-        holder.txtPollutant.setText("Pollutant: " + item.getPollutant());
-        holder.txtValue.setText("Value: " + item.getValue());
-        holder.txtTimestamp.setText("Updated: " + item.getTimestamp());
+        holder.txtStation.setText(text.station);
+        holder.txtPollutant.setText(text.pollutant);
+        holder.txtValue.setText(text.value);
+        holder.txtTimestamp.setText(text.timestamp);
 
         // ---- Apply font sizes depending on accessibility mode ----
         float stationSize   = accessibilityEnabled ? 28f : 16f;  // main line
@@ -63,17 +128,41 @@ public class AirQualityAdapter extends RecyclerView.Adapter<AirQualityAdapter.AQ
         holder.txtTimestamp.setTextSize(TypedValue.COMPLEX_UNIT_SP, secondarySize);
 
         // ---- TalkBack: describe the whole card ----
-        String cd = item.getStation()
-                + ", pollutant " + item.getPollutant()
-                + ", value " + item.getValue()
-                + ", updated " + item.getTimestamp();
+        holder.itemView.setContentDescription(text.contentDescription);
+    }
 
-        holder.itemView.setContentDescription(cd);
+    private RowText textFor(AirQualityItem item) {
+        RowText text = texts.get(item);
+        if (text == null) {
+            text = new RowText(item, formatter);
+            texts.put(item, text);
+        }
+        return text;
     }
 
-    @Override
-    public int getItemCount() {
-        return items.size();
+    // Everything a row shows, formatted once from the numeric item
+    private static final class RowText {
+        final String station;
+        final String pollutant;
+        final String value;
+        final String timestamp;
+        final String contentDescription;
+
+        RowText(AirQualityItem item, AirQualityFormatter formatter) {
+            String stationName = formatter.station(item);
+            String pollutantName = formatter.pollutant(item);
+            String valueText = formatter.value(item);
+            String time = formatter.timestamp(item);
+
+            station = stationName;
+            pollutant = "Pollutant: " + pollutantName;
+            value = "Value: " + valueText;
+            timestamp = "Updated: " + time;
+            contentDescription = stationName
+                    + ", pollutant " + pollutantName
+                    + ", value " + valueText
+                    + ", updated " + time;
+        }
     }
 
     static class AQViewHolder extends RecyclerView.ViewHolder {
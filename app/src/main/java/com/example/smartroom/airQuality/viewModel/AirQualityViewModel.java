@@ -1,28 +1,32 @@
 package com.example.smartroom.airQuality.viewModel;
 
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
-import androidx.lifecycle.ViewModel;
 
+import android.app.Application;
+import android.os.SystemClock;
 import android.util.Log;
 
 import com.example.smartroom.airQuality.model.AirQualityItem;
-
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-
-import java.io.BufferedReader;
+import com.example.smartroom.airQuality.model.AirQualityRepository;
+import com.example.smartroom.airQuality.model.AirQualitySnapshotStore;
+import com.example.smartroom.airQuality.model.AirQualityStreamParser;
+import com.example.smartroom.helpers.BackgroundExecutor;
+import com.example.smartroom.helpers.CancellationToken;
+import com.example.smartroom.helpers.SingleFlight;
+
+import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.RejectedExecutionException;
 
-public class AirQualityViewModel extends ViewModel {
+public class AirQualityViewModel extends AndroidViewModel {
 
     private static final String TAG = "AirQualityViewModel";
 
@@ -30,6 +34,15 @@ public class AirQualityViewModel extends ViewModel {
     private static final String AIR_QUALITY_URL =
             "https://ciudadesabiertas.madrid.es/dynamicAPI/API/query/calair_tiemporeal.json?pageSize=5000";
 
+    // Last good result + HTTP validators, in the app cache dir
+    private static final String SNAPSHOT_FILE = "air_quality_snapshot.bin";
+
+    // Rows are published in chunks while the response is still downloading
+    private static final int CHUNK_SIZE = 50;
+    private static final long CHUNK_INTERVAL_MS = 100;
+
+    // Each posted list is an immutable snapshot; while loading, every new
+    // snapshot starts with the previous one so the adapter can append the tail.
     private final MutableLiveData<List<AirQualityItem>> airQualityItems =
             new MutableLiveData<>(new ArrayList<>());
 
@@ -39,6 +52,20 @@ public class AirQualityViewModel extends ViewModel {
     private final MutableLiveData<String> errorMessage =
             new MutableLiveData<>(null);
 
+    private final AirQualityRepository repository;
+
+    // At most one load in flight, on the app-wide background executor
+    private final SingleFlight loadFlight =
+            new SingleFlight(BackgroundExecutor.shared(), "air-quality-load");
+
+    public AirQualityViewModel(@NonNull Application application) {
+        super(application);
+        repository = new AirQualityRepository(
+                AIR_QUALITY_URL,
+                new AirQualitySnapshotStore(new File(application.getCacheDir(), SNAPSHOT_FILE))
+        );
+    }
+
     public LiveData<List<AirQualityItem>> getAirQualityItems() {
         return airQualityItems;
     }
@@ -51,193 +78,138 @@ public class AirQualityViewModel extends ViewModel {
         return errorMessage;
     }
 
+    @MainThread
     public void loadAirQuality() {
-        // Avoid parallel loads if already loading
-        Boolean loading = isLoading.getValue();
-        if (loading != null && loading) return;
-
-        isLoading.postValue(true);
-        errorMessage.postValue(null);
-
-        new Thread(new Runnable() {
-            @Override
-            public void run() {
-                HttpURLConnection connection = null;
-                try {
-                    URL url = new URL(AIR_QUALITY_URL);
-                    connection = (HttpURLConnection) url.openConnection();
-                    connection.setRequestMethod("GET");
-                    connection.setConnectTimeout(10000);
-                    connection.setReadTimeout(15000);
-
-                    int responseCode = connection.getResponseCode();
-                    if (responseCode == HttpURLConnection.HTTP_OK) {
-                        InputStream inputStream = connection.getInputStream();
-                        String json = readStream(inputStream);
-                        List<AirQualityItem> items = parseJson(json);
-
-                        airQualityItems.postValue(items);
-                        isLoading.postValue(false);
-                        errorMessage.postValue(null);
-
-                    } else {
-                        Log.e(TAG, "HTTP error: " + responseCode);
-                        isLoading.postValue(false);
-                        errorMessage.postValue("HTTP error: " + responseCode);
-                    }
-                } catch (IOException | JSONException e) {
-                    Log.e(TAG, "Error fetching air quality", e);
-                    isLoading.postValue(false);
-                    errorMessage.postValue("Error: " + e.getMessage());
-                } finally {
-                    if (connection != null) {
-                        connection.disconnect();
-                    }
-                }
-            }
-        }).start();
-    }
-
-    // ------------------- HELPERS -------------------
-
-    private String readStream(InputStream inputStream) throws IOException {
-        StringBuilder sb = new StringBuilder();
-        BufferedReader reader = new BufferedReader(
-                new InputStreamReader(inputStream, StandardCharsets.UTF_8)
-        );
-        String line;
-        while ((line = reader.readLine()) != null) {
-            sb.append(line);
+        // LiveData values are read on the main thread only
+        List<AirQualityItem> shown = airQualityItems.getValue();
+        boolean hasRows = shown != null && !shown.isEmpty();
+
+        // Single flight: a tap while a load is running joins that load
+        boolean started;
+        try {
+            started = loadFlight.start(token -> runLoad(token, hasRows));
+        } catch (RejectedExecutionException e) {
+            errorMessage.setValue("Busy, try again in a moment");
+            return;
         }
-        return sb.toString();
-    }
-
-    private List<AirQualityItem> parseJson(String json) throws JSONException {
-        List<AirQualityItem> list = new ArrayList<>();
-
-        JSONObject root = new JSONObject(json);
-        JSONArray records = root.getJSONArray("records");
-
-        for (int i = 0; i < records.length(); i++) {
-            JSONObject obj = records.getJSONObject(i);
-
-            String provincia = obj.optString("PROVINCIA", "");
-            String municipio = obj.optString("MUNICIPIO", "");
-            String estacion  = obj.optString("ESTACION", "");
-            String magnitudCode = obj.optString("MAGNITUD", "");
+        if (!started) return;
 
-            // ESTACION must be 3 digits (e.g. "11" -> "011")
-            String estacion3 = pad3(estacion);
+        // setValue (not postValue) so the flag is visible before the job can finish
+        isLoading.setValue(true);
+        errorMessage.setValue(null);
+    }
 
-            // Full station code like 28079011 (2 + 3 + 3 digits)
-            String fullStationCode = provincia + municipio + estacion3;
-            String stationName = mapStation(fullStationCode);
+    // Runs on the shared background executor
+    private void runLoad(CancellationToken token, boolean hasRows) {
+        try {
+            // Cold start: show the last saved rows right away, then revalidate
+            if (!hasRows) {
+                List<AirQualityItem> cached = repository.getCached();
+                if (cached != null) {
+                    airQualityItems.postValue(cached);
+                    hasRows = !cached.isEmpty();
+                }
+            }
 
-            // Skip stations that we didn't map
-            if (stationName == null) {
-                continue;
+            // Parsed while downloading; unknown stations are skipped on the fly.
+            // Over existing rows the new list is posted once, so the adapter's diff
+            // only touches rows that changed instead of shrinking and regrowing the list.
+            ChunkPublisher chunks = new ChunkPublisher(!hasRows);
+            AirQualityRepository.Outcome outcome;
+            try {
+                outcome = repository.refresh(chunks, token);
+                chunks.finish();
+            } finally {
+                // Progressive: whatever arrived is shown, even if the transfer broke off
+                if (!token.isCancelled()) chunks.flush();
             }
 
-            String pollutant = mapPollutant(magnitudCode);
+            if (outcome == AirQualityRepository.Outcome.NOT_MODIFIED) {
+                Log.d(TAG, "Air quality not modified, keeping cached rows");
+            } else if (chunks.isEmpty()) {
+                // No matching station at all: clear the old rows
+                airQualityItems.postValue(Collections.emptyList());
+            }
 
-            String year  = obj.optString("ANO", "");
-            String month = obj.optString("MES", "");
-            String day   = obj.optString("DIA", "");
+            isLoading.postValue(false);
+            errorMessage.postValue(null);
+
+        } catch (CancellationException e) {
+            // ViewModel cleared; nobody is listening any more
+            Log.d(TAG, "Air quality load cancelled");
+        } catch (AirQualityRepository.HttpStatusException e) {
+            Log.e(TAG, "HTTP error: " + e.code);
+            isLoading.postValue(false);
+            errorMessage.postValue("HTTP error: " + e.code);
+        } catch (IOException e) {
+            Log.e(TAG, "Error fetching air quality", e);
+            isLoading.postValue(false);
+            errorMessage.postValue("Error: " + e.getMessage());
+        } catch (RuntimeException e) {
+            // A bug in parsing or the snapshot store: still end the load visibly
+            Log.e(TAG, "Unexpected error loading air quality", e);
+            isLoading.postValue(false);
+            errorMessage.postValue("Error: could not load air quality");
+        } finally {
+            Log.d(TAG, "Background executor: " + BackgroundExecutor.shared().getMetrics());
+        }
+    }
 
-            String value = null;
-            String timestamp = null;
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        // Drops the HTTP connection of a running load
+        loadFlight.cancel();
+    }
 
-            // Search from last hour of the day backwards for a valid value
-            for (int h = 24; h >= 1; h--) {
-                String hKey = String.format("H%02d", h); // H01..H24
-                String vKey = String.format("V%02d", h); // V01..V24
+    // Collects parsed rows and posts a growing snapshot every CHUNK_SIZE rows
+    // or CHUNK_INTERVAL_MS, plus once for the very first row.
+    // Non-progressive: only finish() posts.
+    private class ChunkPublisher implements AirQualityStreamParser.Listener {
+        private final List<AirQualityItem> loaded = new ArrayList<>();
+        private final boolean progressive;
+        private int postedCount = 0;
+        private long lastPostAt = 0;
+
+        ChunkPublisher(boolean progressive) {
+            this.progressive = progressive;
+        }
 
-                String v = obj.optString(vKey, "N");
-                String hVal = obj.optString(hKey, "");
+        @Override
+        public void onItem(AirQualityItem item) {
+            loaded.add(item);
+            if (!progressive) return;
 
-                if ("V".equals(v) && hVal != null && !hVal.isEmpty()) {
-                    value = hVal;
-                    String hourLabel = pad2(String.valueOf(h - 1)); // 0–23 style
-                    timestamp = year + "-" + pad2(month) + "-" + pad2(day)
-                            + " " + hourLabel + ":00";
-                    break;
-                }
+            long now = SystemClock.uptimeMillis();
+            if (postedCount == 0
+                    || loaded.size() - postedCount >= CHUNK_SIZE
+                    || now - lastPostAt >= CHUNK_INTERVAL_MS) {
+                post(now);
             }
+        }
 
-            if (value == null || timestamp == null) {
-                continue;
+        // Posts the complete list, used once the body was fully read
+        void finish() {
+            if (loaded.size() > postedCount) {
+                post(SystemClock.uptimeMillis());
             }
-
-            String valueDisplay = value + " µg/m³";
-
-            AirQualityItem item = new AirQualityItem(
-                    stationName,
-                    pollutant,
-                    valueDisplay,
-                    timestamp
-            );
-            list.add(item);
         }
 
-        return list;
-    }
-
-    private String mapPollutant(String code) {
-        if (code == null) return "Magnitud " + code;
-        switch (code) {
-            case "01": return "SO₂ (Dióxido de Azufre)";
-            case "06": return "CO (Monóxido de Carbono)";
-            case "07": return "NO (Monóxido de Nitrógeno)";
-            case "08": return "NO₂ (Dióxido de Nitrógeno)";
-            case "09": return "PM2.5 (Partículas < 2.5 µm)";
-            case "10": return "PM10 (Partículas < 10 µm)";
-            case "12": return "NOx (Óxidos de Nitrógeno)";
-            case "14": return "O₃ (Ozono)";
-            default:   return "Magnitud " + code;
+        // Posts rows not shown yet; a non-progressive load keeps the old rows on failure
+        void flush() {
+            if (progressive && loaded.size() > postedCount) {
+                post(SystemClock.uptimeMillis());
+            }
         }
-    }
 
-    private String mapStation(String fullCode) {
-        if (fullCode == null) return null;
-
-        switch (fullCode) {
-            case "28079001": return "Pza. Recoletos";
-            case "28079003": return "Pza. del Carmen";
-            case "28079004": return "Pza. de España";
-            case "28079007": return "Pza. M. de Salamanca";
-            case "28079008": return "Escuelas Aguirre";
-            case "28079022": return "Pº Pontones";
-            case "28079023": return "Final C/ Alcalá";
-            case "28079026": return "Urb. Embajada (Barajas)";
-            case "28079038": return "Pza. Castilla";
-            case "28079039": return "Plaza de Fdez. Ladreda";
-            case "28079040": return "Cuatro Caminos";
-            case "28079047": return "Méndez Álvaro";
-            case "28079048": return "Pza. Castilla II";
-            case "28079049": return "Arturo Soria";
-            case "28079050": return "Barrio del Pilar";
-            case "28079054": return "Ensanche Vallecas";
-            case "28079055": return "Plaza Elíptica";
-            case "28079056": return "Moratalaz";
-            case "28079057": return "Pza. Fernández Ladreda II";
-            case "28079058": return "Sanchinarro";
-            case "28079059": return "Parque Juan Carlos I";
-            case "28079060": return "Tres Olivos";
-            // add more if you want full coverage
-            default:
-                return null; // unknown: we hide it
+        boolean isEmpty() {
+            return loaded.isEmpty();
         }
-    }
 
-    private String pad2(String s) {
-        if (s == null) return "";
-        return (s.length() == 1) ? "0" + s : s;
-    }
-
-    private String pad3(String s) {
-        if (s == null || s.isEmpty()) return "";
-        if (s.length() == 1) return "00" + s;
-        if (s.length() == 2) return "0" + s;
-        return s;
+        private void post(long now) {
+            airQualityItems.postValue(Collections.unmodifiableList(new ArrayList<>(loaded)));
+            postedCount = loaded.size();
+            lastPostAt = now;
+        }
     }
-}
\ No newline at end of file
+}
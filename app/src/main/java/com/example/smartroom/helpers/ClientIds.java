@@ -0,0 +1,33 @@
+package com.example.smartroom.helpers;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import java.util.UUID;
+
+/**
+ * MQTT client identifiers that stay the same across app restarts, so the
+ * broker can resume the persistent session of this install.
+ */
+public class ClientIds {
+
+    private static final String PREFS_NAME = "mqtt_prefs";
+    private static final String KEY_INSTALL_ID = "install_id";
+
+    /** "smartroom-&lt;role&gt;-&lt;install id&gt;", e.g. smartroom-subscriber-3f2a9c1d. */
+    public static String forRole(Context context, String role) {
+        return "smartroom-" + role + "-" + installId(context);
+    }
+
+    private static synchronized String installId(Context context) {
+        SharedPreferences prefs =
+                context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        String id = prefs.getString(KEY_INSTALL_ID, null);
+        if (id == null) {
+            // Eight hex digits are plenty to tell the installs on one broker apart
+            id = UUID.randomUUID().toString().substring(0, 8);
+            prefs.edit().putString(KEY_INSTALL_ID, id).apply();
+        }
+        return id;
+    }
+}
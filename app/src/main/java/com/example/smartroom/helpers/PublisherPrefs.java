@@ -0,0 +1,101 @@
+package com.example.smartroom.helpers;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.res.Resources;
+import android.util.Log;
+
+import com.example.smartroom.R;
+import com.example.smartroom.publisher.model.CaptureMode;
+import com.example.smartroom.publisher.model.ChannelPolicy;
+import com.example.smartroom.publisher.model.PublishMode;
+import com.example.smartroom.publisher.model.PublishPolicy;
+import com.example.smartroom.publisher.model.SensorChannel;
+import com.hivemq.client.mqtt.datatypes.MqttQos;
+
+/**
+ * How this device publishes. Modes are chosen on the settings screen; the
+ * per-channel policy is tuned per deployment in res/values/publish_policy.xml.
+ * Read by the publisher service each time publishing starts.
+ */
+public class PublisherPrefs {
+
+    private static final String TAG = "PublisherPrefs";
+
+    private static final String PREFS_NAME = "publisher_prefs";
+    private static final String KEY_PUBLISH_MODE = "publish_mode";
+    private static final String KEY_CAPTURE_MODE = "capture_mode";
+
+    // Vibration events plus a slow aggregate: the fewest messages for a quiet room
+    private static final PublishMode DEFAULT_PUBLISH_MODE = PublishMode.EVENTS;
+    // Sensors without a FIFO are captured directly anyway
+    private static final CaptureMode DEFAULT_CAPTURE_MODE = CaptureMode.HARDWARE_FIFO;
+
+    public static PublishMode getPublishMode(Context context) {
+        String name = prefs(context).getString(KEY_PUBLISH_MODE, null);
+        if (name == null) return DEFAULT_PUBLISH_MODE;
+        try {
+            return PublishMode.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            // Stored by a version that had another mode
+            return DEFAULT_PUBLISH_MODE;
+        }
+    }
+
+    public static void setPublishMode(Context context, PublishMode mode) {
+        prefs(context).edit().putString(KEY_PUBLISH_MODE, mode.name()).apply();
+    }
+
+    public static CaptureMode getCaptureMode(Context context) {
+        String name = prefs(context).getString(KEY_CAPTURE_MODE, null);
+        if (name == null) return DEFAULT_CAPTURE_MODE;
+        try {
+            return CaptureMode.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return DEFAULT_CAPTURE_MODE;
+        }
+    }
+
+    public static void setCaptureMode(Context context, CaptureMode mode) {
+        prefs(context).edit().putString(KEY_CAPTURE_MODE, mode.name()).apply();
+    }
+
+    public static PublishPolicy getPolicy(Context context) {
+        Resources res = context.getResources();
+        PublishPolicy policy = PublishPolicy.defaults();
+        policy = withChannel(res, policy, SensorChannel.LIGHT,
+                R.integer.policy_light_sample_period_ms, R.integer.policy_light_min_interval_ms,
+                R.integer.policy_light_max_interval_ms, R.string.policy_light_deadband,
+                R.integer.policy_light_qos);
+        policy = withChannel(res, policy, SensorChannel.ACCEL,
+                R.integer.policy_accel_sample_period_ms, R.integer.policy_accel_min_interval_ms,
+                R.integer.policy_accel_max_interval_ms, R.string.policy_accel_deadband,
+                R.integer.policy_accel_qos);
+        policy = withChannel(res, policy, SensorChannel.SOUND,
+                R.integer.policy_sound_sample_period_ms, R.integer.policy_sound_min_interval_ms,
+                R.integer.policy_sound_max_interval_ms, R.string.policy_sound_deadband,
+                R.integer.policy_sound_qos);
+        return policy;
+    }
+
+    // A channel that does not validate keeps its default, so one typo does not stop publishing
+    private static PublishPolicy withChannel(Resources res, PublishPolicy policy, SensorChannel channel,
+                                             int samplePeriod, int minInterval, int maxInterval,
+                                             int deadband, int qos) {
+        try {
+            return policy.with(channel, new ChannelPolicy(
+                    res.getInteger(samplePeriod),
+                    res.getInteger(minInterval),
+                    res.getInteger(maxInterval),
+                    Float.parseFloat(res.getString(deadband)),
+                    MqttQos.fromCode(res.getInteger(qos))));
+        } catch (IllegalArgumentException e) { // includes NumberFormatException
+            Log.w(TAG, "Invalid " + channel + " policy, using the default", e);
+            return policy;
+        }
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+}
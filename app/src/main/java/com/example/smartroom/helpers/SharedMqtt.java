@@ -0,0 +1,35 @@
+package com.example.smartroom.helpers;
+
+import android.content.Context;
+
+import com.example.smartroom.Constants;
+import com.example.smartroom.mqtt.MqttConnectionManager;
+import com.example.smartroom.mqtt.ReconnectBackoff;
+import com.hivemq.client.mqtt.MqttVersion;
+
+/**
+ * The process-wide {@link MqttConnectionManager}. The publisher service and
+ * the subscriber screen both go through it, so the app holds one broker
+ * connection however many screens are open.
+ */
+public class SharedMqtt {
+
+    // Long enough to cover a screen change or a rotation without a new handshake
+    private static final long LINGER_MS = 30_000;
+
+    private static MqttConnectionManager instance;
+
+    public static synchronized MqttConnectionManager get(Context context) {
+        if (instance == null) {
+            instance = new MqttConnectionManager(
+                    Constants.serverIP,
+                    Constants.serverPort,
+                    ClientIds.forRole(context.getApplicationContext(), "app"),
+                    ReconnectBackoff.defaults(),
+                    LINGER_MS,
+                    // Falls back to 3.1.1 on its own if the broker is older
+                    MqttVersion.MQTT_5_0);
+        }
+        return instance;
+    }
+}
@@ -0,0 +1,844 @@
+package com.example.smartroom.publisher.service;
+
+import android.content.Context;
+import android.hardware.Sensor;
+import android.hardware.SensorEvent;
+import android.hardware.SensorEventListener;
+import android.hardware.SensorManager;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.smartroom.Constants;
+import com.example.smartroom.audio.AcousticLevels;
+import com.example.smartroom.audio.LeqAverager;
+import com.example.smartroom.helpers.SharedMqtt;
+import com.example.smartroom.mqtt.ConnectionMetrics;
+import com.example.smartroom.mqtt.MqttConnectionManager;
+import com.example.smartroom.payload.PayloadFormat;
+import com.example.smartroom.payload.SensorBinaryCodec;
+import com.example.smartroom.payload.SensorJsonEncoder;
+import com.example.smartroom.publisher.model.AdaptiveRateController;
+import com.example.smartroom.publisher.model.CaptureMode;
+import com.example.smartroom.publisher.model.EvenResampler;
+import com.example.smartroom.publisher.model.FrameSpool;
+import com.example.smartroom.publisher.model.InFlightWindow;
+import com.example.smartroom.publisher.model.PublishMode;
+import com.example.smartroom.publisher.model.PublishPolicy;
+import com.example.smartroom.publisher.model.SampleReorderBuffer;
+import com.example.smartroom.publisher.model.SensorChannel;
+import com.example.smartroom.publisher.model.SensorSampleBuffer;
+import com.example.smartroom.publisher.model.SensorSnapshot;
+import com.example.smartroom.publisher.model.SpoolDrainer;
+import com.example.smartroom.publisher.model.SpoolPolicy;
+import com.example.smartroom.publisher.model.VibrationDetector;
+import com.example.smartroom.publisher.model.VibrationEvent;
+import com.example.smartroom.publisher.model.VibrationPolicy;
+import com.example.smartroom.publisher.model.WindowAggregator;
+import com.hivemq.client.mqtt.datatypes.MqttQos;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sensor capture, batching and publishing, owned by {@link PublisherService}
+ * so the stream keeps going through rotations and while the app is in the
+ * background. Screens only read its LiveData.
+ */
+public class PublisherEngine implements SensorEventListener {
+
+    private static final String TAG = "SmartRoomMQTT";
+
+    // ---- Periodic Publishing ----
+    // Capture -> buffer -> encode -> publish all run on this thread, so a busy
+    // UI never delays a publish. Sensor listeners are registered on it too.
+    private final HandlerThread workerThread = startWorkerThread();
+    private final Handler publishHandler = new Handler(workerThread.getLooper());
+    private static final long BATCH_INTERVAL_MS = 2000; // BATCH mode time window
+
+    // ---- Publish policy ----
+    // SNAPSHOT mode reports when any channel is due under its policy (moved past
+    // its deadband, or its heartbeat expired); sampling rates come from it too.
+    private volatile PublishPolicy policy = PublishPolicy.defaults();
+    // Worker thread only
+    private AdaptiveRateController lightRate;
+    private AdaptiveRateController accelRate;
+    private AdaptiveRateController soundRate;
+    // Frame QoS per set of reported channels (bit 0 light, 1 accel, 2 sound),
+    // worked out once per policy instead of on every frame
+    private static final int ALL_CHANNELS = (1 << 3) - 1;
+    private final MqttQos[] qosByChannels = new MqttQos[ALL_CHANNELS + 1];
+    private long lastBatchAt = 0L;
+
+    // ---- Batching ----
+    // In BATCH mode every sensor event is buffered and a frame is flushed either
+    // on the publish tick (time window) or once BATCH_MAX_SAMPLES rows are pending (size window).
+    private static final int BATCH_BUFFER_CAPACITY = 512;
+    private static final int BATCH_MAX_SAMPLES = 128;
+
+    private volatile PublishMode publishMode = PublishMode.AGGREGATE;
+    private final SensorSampleBuffer sampleBuffer = new SensorSampleBuffer(BATCH_BUFFER_CAPACITY);
+    private final SensorJsonEncoder jsonEncoder = new SensorJsonEncoder();
+    private final SensorBinaryCodec binaryCodec = new SensorBinaryCodec();
+
+    // ---- Aggregation ----
+    // In AGGREGATE mode raw values never leave the device: every event is folded
+    // into per-channel statistics and one summary frame goes out per window.
+    private static final long AGGREGATE_WINDOW_MS = 5000;
+    // EVENTS mode: routine data only needs a slow summary next to the events
+    private static final long EVENTS_AGGREGATE_WINDOW_MS = 60_000;
+    private final WindowAggregator aggregator = new WindowAggregator(); // worker thread only
+    private long aggregateWindowAt = 0L; // uptime of the window start
+    // Acoustic periods of the window, energy-averaged into its Leq (worker thread only)
+    private final LeqAverager windowLeq = new LeqAverager();
+
+    // ---- Vibration events ----
+    // In EVENTS mode the accelerometer runs at the detector's rate and door slams,
+    // footsteps and machinery go out as compact event frames the moment they end,
+    // instead of the subscriber guessing them from samples.
+    private final VibrationPolicy vibrationPolicy = VibrationPolicy.defaults();
+    private final VibrationDetector vibration =
+            new VibrationDetector(vibrationPolicy, this::publishEvent); // worker thread only
+
+    // ---- Store-and-forward ----
+    // While the broker is unreachable frames go to a memory-mapped spool in the
+    // cache dir instead of being dropped; once connected it drains in rate-limited
+    // batches. New frames queue behind the backlog so the broker sees them in order.
+    private static final String SPOOL_DIR = "publisher-spool";
+    private final SpoolPolicy spoolPolicy = SpoolPolicy.defaults();
+    private FrameSpool spool;               // worker thread; null if it could not be opened
+    private SpoolDrainer spoolDrainer;
+
+    // ---- Flow control ----
+    // At most MAX_IN_FLIGHT publishes wait for the broker. While the window is
+    // full, production backs off: batches keep filling (the ring buffer bounds
+    // them), aggregate windows stretch and snapshots are skipped. Larger than a
+    // spool drain batch, so a drain fits while live frames flow.
+    private static final int MAX_IN_FLIGHT = 64;
+    private final InFlightWindow inFlight = new InFlightWindow(MAX_IN_FLIGHT);
+
+    // Wire format of published frames; JSON stays available as a fallback
+    private volatile PayloadFormat payloadFormat = PayloadFormat.BINARY;
+
+    public PayloadFormat getPayloadFormat() { return payloadFormat; }
+
+    public void setPayloadFormat(PayloadFormat format) {
+        if (format != null) payloadFormat = format;
+    }
+
+    public PublishMode getPublishMode() { return publishMode; }
+
+    public PublishPolicy getPolicy() { return policy; }
+
+    /** New sampling periods apply from the next start; report rates right away. */
+    public void setPolicy(PublishPolicy newPolicy) {
+        if (newPolicy == null) return;
+        policy = newPolicy;
+        publishHandler.post(this::resetRateControllers);
+    }
+
+    // Worker thread
+    private void resetRateControllers() {
+        PublishPolicy p = policy;
+        lightRate = new AdaptiveRateController(p.get(SensorChannel.LIGHT));
+        accelRate = new AdaptiveRateController(p.get(SensorChannel.ACCEL));
+        soundRate = new AdaptiveRateController(p.get(SensorChannel.SOUND));
+
+        for (int due = 0; due < qosByChannels.length; due++) {
+            SensorChannel[] channels = new SensorChannel[Integer.bitCount(due)];
+            int n = 0;
+            if ((due & 1) != 0) channels[n++] = SensorChannel.LIGHT;
+            if ((due & 2) != 0) channels[n++] = SensorChannel.ACCEL;
+            if ((due & 4) != 0) channels[n] = SensorChannel.SOUND;
+            qosByChannels[due] = p.qosFor(channels);
+        }
+    }
+
+    public CaptureMode getCaptureMode() { return captureMode; }
+
+    /** Applies from the next start, like the sampling periods. */
+    public void setCaptureMode(CaptureMode mode) {
+        if (mode != null) captureMode = mode;
+    }
+
+    /** EVENTS also speeds up the accelerometer, from the next start. */
+    public void setPublishMode(PublishMode mode) {
+        if (mode == null || mode == publishMode) return;
+        publishMode = mode;
+        // The buffer and the window belong to the worker thread
+        publishHandler.post(() -> {
+            sampleBuffer.clear();
+            startAggregateWindow();
+            vibration.reset();
+        });
+    }
+
+    // MQTT config
+    private String publishingTopic = Constants.mqttTopics;
+    // Readings older than this are of no use to anyone; MQTT 5 only
+    private static final long MESSAGE_EXPIRY_S = 15 * 60;
+
+    // ---- Connection ----
+    // The broker connection is shared with the rest of the app; we hold a
+    // handle while publishing. Reconnects (with backoff) are the manager's job.
+    private final MqttConnectionManager mqtt;
+    private MqttConnectionManager.Handle mqttHandle; // main thread
+
+    public ConnectionMetrics getConnectionMetrics() { return mqtt.getMetrics(); }
+
+    // Connection state
+    private final MutableLiveData<Boolean> isConnected = new MutableLiveData<>(false);
+    private final MutableLiveData<String> statusText =
+            new MutableLiveData<>("Status: Disconnected");
+
+    // Same state as the LiveData, readable from the worker thread without lag
+    private volatile boolean connected = false;
+    private volatile boolean publishing = false;
+
+    public LiveData<Boolean> getIsConnected() { return isConnected; }
+    public LiveData<String> getStatusText() { return statusText; }
+
+    // Publishing state (should we be sensing/publishing?)
+    private final MutableLiveData<Boolean> isPublishing = new MutableLiveData<>(false);
+    public LiveData<Boolean> getIsPublishing() { return isPublishing; }
+
+    // ---- Sensors (light + accel) and sound (microphone) ----
+    private final Context context;
+    private final SensorManager sensorManager;
+    private final Sensor lightSensor;
+    private final Sensor accelerometer;
+    private boolean isSensing = false; // main thread only
+
+    // ---- Capture mode ----
+    // HARDWARE_FIFO registers with a max report latency: the sensor hub queues
+    // events and the CPU wakes once per burst, not once per event. Event
+    // timestamps, not delivery time, date every sample; accel bursts are
+    // resampled onto an even grid at the accel sample period.
+    // A burst lands seconds behind the live sound (and the other sensor's
+    // bursts), so every sample waits in a reorder buffer for the longest report
+    // latency and the pipeline, batches included, sees one ordered series.
+    private static final int ACCEL_MAX_GAP_PERIODS = 10; // longer: events were lost, don't bridge
+    private static final long HOLDBACK_MARGIN_MS = 250;  // hub delivery is not exactly on time
+    private static final int REORDER_CAPACITY = 1024;    // 5 s of 50 Hz accel plus light and sound
+    private volatile CaptureMode captureMode = CaptureMode.DIRECT;
+    private volatile long holdbackMs = 0L;                // 0 in DIRECT mode: no waiting
+    private boolean flushingHeldBack = false;             // worker thread only
+    private EvenResampler accelResampler; // worker thread; null in DIRECT mode
+    private final SampleReorderBuffer reorder =
+            new SampleReorderBuffer(REORDER_CAPACITY, this::onOrderedSample); // worker thread only
+
+    // PCM metering on its own thread; each period's level is handed to the worker
+    private final SoundMeter soundMeter = new SoundMeter(); // main thread
+    private volatile boolean isSoundSensing = false;
+    private float capturedSoundDbfs = 0f; // guarded by capturedAcoustics, like the two below
+    private long capturedSoundAt = 0L;
+    private boolean soundStatusPending = false; // worker thread: clear the status on first read
+
+    // dB(A) and octave bands: written by the capture thread under its own lock,
+    // copied into lastAcoustics by the worker. Frames carry them while the mic is on.
+    private final AcousticLevels capturedAcoustics = new AcousticLevels();
+    private final AcousticLevels lastAcoustics = new AcousticLevels();  // worker thread only
+    private final AcousticLevels frameAcoustics = new AcousticLevels(); // worker thread: encode scratch
+    private boolean hasAcoustics = false;                                // worker thread only
+
+    // null while the sound level shows normally, otherwise a status line for the UI
+    private final MutableLiveData<String> soundStatus = new MutableLiveData<>(null);
+    public LiveData<String> getSoundStatus() { return soundStatus; }
+
+    public PublisherEngine(Context context) {
+        this.context = context.getApplicationContext();
+        sensorManager = (SensorManager) this.context.getSystemService(Context.SENSOR_SERVICE);
+        lightSensor = sensorManager != null
+                ? sensorManager.getDefaultSensor(Sensor.TYPE_LIGHT) : null;
+        accelerometer = sensorManager != null
+                ? sensorManager.getDefaultSensor(Sensor.TYPE_ACCELEROMETER) : null;
+        mqtt = SharedMqtt.get(this.context);
+        mqtt.addConnectionListener(connectionListener);
+        publishHandler.post(this::resetRateControllers);
+        publishHandler.post(this::openSpool);
+    }
+
+    public boolean isPublishing() { return publishing; }
+
+    /** Starts sensing and publishing; called on the main thread by the service. */
+    public void startPublishing(boolean withSound) {
+        setPublishing(true);
+        if (mqttHandle == null) {
+            // Another screen may already have the connection up
+            mqttHandle = mqtt.acquire();
+            statusText.postValue(mqtt.isConnected()
+                    ? "MQTT connected, sensing..." : "Connecting to MQTT...");
+        }
+        publishHandler.post(this::startAggregateWindow);
+        publishHandler.post(vibration::reset);
+        // Frames are produced (and spooled) even before the connection is up
+        publishHandler.removeCallbacks(publishRunnable);
+        publishHandler.post(publishRunnable);
+
+        if (!isSensing) startSensing();
+        if (withSound && !isSoundSensing) startSoundSensing();
+    }
+
+    /** Stops sensing, flushes the last batch and lets go of the connection. */
+    public void stopPublishing() {
+        setPublishing(false);
+        stopSensing();
+        stopSoundSensing();
+
+        // --- ADDED: Stop the periodic publishing timer ---
+        publishHandler.removeCallbacks(publishRunnable);
+
+        // Send what is left of the current window, then release the connection
+        MqttConnectionManager.Handle handle = mqttHandle;
+        mqttHandle = null;
+        publishHandler.post(() -> {
+            // Whatever is still held back belongs in the last frame
+            flushingHeldBack = true;
+            reorder.flush();
+            flushingHeldBack = false;
+            if (publishMode == PublishMode.BATCH) {
+                publishBatch();
+                sampleBuffer.clear();
+            } else if (isAggregateMode()) {
+                publishAggregate();
+            }
+            if (spool != null) spool.flush();
+            if (handle != null) handle.close();
+            statusText.postValue("Status: Disconnected");
+        });
+    }
+
+    private void setPublishing(boolean value) {
+        publishing = value;
+        isPublishing.postValue(value);
+    }
+
+    private void setConnected(boolean value) {
+        connected = value;
+        isConnected.postValue(value);
+    }
+
+    // ---- Sensor values (latest of each) ----
+    // Written by the sensor callbacks, read by the publisher and the UI tick
+    private final Object sampleLock = new Object();
+    private float lastLux = 0f;
+    private float lastAx = 0f;
+    private float lastAy = 0f;
+    private float lastAz = 0f;
+    private float lastSound = 0f;
+    private long lastSampleAt = 0L;
+
+    // ---- UI snapshot ----
+    // Sensor events only mark the snapshot dirty; at most one immutable
+    // snapshot per frame reaches the main thread, however fast the sensors are.
+    private static final long UI_FRAME_MS = 16;
+    private final Handler uiHandler = new Handler(Looper.getMainLooper());
+    private final AtomicBoolean uiUpdateScheduled = new AtomicBoolean(false);
+    private long lastUiUpdateAt = 0L; // main thread only
+
+    private final MutableLiveData<SensorSnapshot> sensorSnapshot =
+            new MutableLiveData<>(SensorSnapshot.EMPTY);
+
+    public LiveData<SensorSnapshot> getSensorSnapshot() { return sensorSnapshot; }
+
+    // Called when light sensor changes (on the worker thread)
+    private void updateLight(long timestampMs, float lux) {
+        synchronized (sampleLock) {
+            lastLux = lux;
+            lastSampleAt = timestampMs;
+        }
+        lightRate.observe(lux);
+        if (isAggregating()) aggregator.add(SensorChannel.LIGHT, lux);
+        onSample();
+    }
+
+    // Called when accelerometer changes (on the worker thread)
+    private void updateAccel(long timestampMs, float ax, float ay, float az) {
+        synchronized (sampleLock) {
+            lastAx = ax;
+            lastAy = ay;
+            lastAz = az;
+            lastSampleAt = timestampMs;
+        }
+        accelRate.observe(ax, ay, az);
+        if (isAggregating()) aggregator.addAccel(ax, ay, az);
+        if (isRecording() && publishMode == PublishMode.EVENTS) vibration.add(timestampMs, ax, ay, az);
+        onSample();
+    }
+
+    // Called with each acoustic period, before its sound level (on the worker thread)
+    private void updateAcoustics() {
+        synchronized (capturedAcoustics) {
+            lastAcoustics.set(capturedAcoustics);
+        }
+        hasAcoustics = true;
+        if (isAggregating()) windowLeq.add(lastAcoustics);
+    }
+
+    // Called when sound level changes (on the worker thread)
+    private void updateSound(long timestampMs, float sound) {
+        synchronized (sampleLock) {
+            lastSound = sound;
+            lastSampleAt = timestampMs;
+        }
+        soundRate.observe(sound);
+        if (isAggregating()) aggregator.add(SensorChannel.SOUND, sound);
+        onSample();
+    }
+
+    private void onSample() {
+        recordSample();
+        scheduleUiUpdate();
+    }
+
+    private void scheduleUiUpdate() {
+        if (!uiUpdateScheduled.compareAndSet(false, true)) return; // already coming
+        uiHandler.post(uiUpdateRunnable);
+    }
+
+    private final Runnable uiUpdateRunnable = new Runnable() {
+        @Override
+        public void run() {
+            long now = SystemClock.uptimeMillis();
+            long wait = lastUiUpdateAt + UI_FRAME_MS - now;
+            if (wait > 0) {
+                // Too soon after the last frame; the flag stays set so events keep coalescing
+                uiHandler.postDelayed(this, wait);
+                return;
+            }
+            uiUpdateScheduled.set(false);
+            lastUiUpdateAt = now;
+            sensorSnapshot.setValue(currentSnapshot());
+        }
+    };
+
+    private SensorSnapshot currentSnapshot() {
+        synchronized (sampleLock) {
+            return new SensorSnapshot(lastSampleAt, lastLux, lastAx, lastAy, lastAz, lastSound);
+        }
+    }
+
+    private boolean isAggregating() {
+        return isRecording() && isAggregateMode();
+    }
+
+    // Samples count toward frames while publishing, and while the samples held
+    // back at stop are flushed into the last frame (worker thread)
+    private boolean isRecording() {
+        return publishing || flushingHeldBack;
+    }
+
+    // EVENTS mode aggregates too, on a slower window
+    private boolean isAggregateMode() {
+        return publishMode == PublishMode.AGGREGATE || publishMode == PublishMode.EVENTS;
+    }
+
+    // Worker thread
+    private void startAggregateWindow() {
+        aggregator.reset(System.currentTimeMillis());
+        windowLeq.reset();
+        aggregateWindowAt = SystemClock.uptimeMillis();
+    }
+
+    // In BATCH mode keep every event (with the current value of the other sensors).
+    // Runs on the worker thread, where the sensor listeners are registered.
+    private void recordSample() {
+        if (publishMode != PublishMode.BATCH) return;
+        if (!isRecording()) return;
+
+        synchronized (sampleLock) {
+            sampleBuffer.add(lastSampleAt, lastLux, lastAx, lastAy, lastAz, lastSound);
+        }
+
+        // Size-based window, unless the broker is behind (see Flow control)
+        if (sampleBuffer.size() >= BATCH_MAX_SAMPLES && !inFlight.isFull()) {
+            publishBatch();
+        }
+    }
+
+    // ---- Sensor capture ----
+
+    private void startSensing() {
+        if (sensorManager == null) return;
+
+        // Events are delivered on the worker thread, not the main looper.
+        // The delay argument also accepts a sampling period in microseconds.
+        PublishPolicy p = policy;
+        CaptureMode mode = captureMode;
+        long maxLatencyUs = 0L;
+        if (lightSensor != null) {
+            int periodMs = p.get(SensorChannel.LIGHT).samplePeriodMs;
+            long latencyUs = mode.reportLatencyUs(periodMs, lightSensor.getFifoReservedEventCount());
+            maxLatencyUs = latencyUs;
+            sensorManager.registerListener(this, lightSensor, periodMs * 1000,
+                    (int) latencyUs, publishHandler);
+        }
+        if (accelerometer != null) {
+            int periodMs = p.get(SensorChannel.ACCEL).samplePeriodMs;
+            if (publishMode == PublishMode.EVENTS) {
+                // Transients last tens of ms; the detector sets the rate
+                periodMs = Math.min(periodMs, vibrationPolicy.samplePeriodMs);
+            }
+            long latencyUs = mode.reportLatencyUs(periodMs, accelerometer.getFifoReservedEventCount());
+            maxLatencyUs = Math.max(maxLatencyUs, latencyUs);
+            long periodNs = periodMs * 1_000_000L;
+            // Set before the first event: both go through the worker's queue
+            publishHandler.post(() -> accelResampler = latencyUs > 0
+                    ? new EvenResampler(3, periodNs, ACCEL_MAX_GAP_PERIODS * periodNs,
+                            (t, v) -> addSample(toWallClockMs(t), SensorChannel.ACCEL, v[0], v[1], v[2]))
+                    : null);
+            sensorManager.registerListener(this, accelerometer, periodMs * 1000,
+                    (int) latencyUs, publishHandler);
+            if (mode == CaptureMode.HARDWARE_FIFO && latencyUs == 0) {
+                Log.d(TAG, "Accelerometer has no FIFO; capturing events directly");
+            }
+        }
+        holdbackMs = maxLatencyUs > 0 ? maxLatencyUs / 1000 + HOLDBACK_MARGIN_MS : 0L;
+
+        isSensing = true;
+    }
+
+    private void stopSensing() {
+        if (sensorManager != null) {
+            // Events still queued in the hub go with it: at most one report latency
+            sensorManager.unregisterListener(this);
+        }
+        publishHandler.post(() -> accelResampler = null);
+        holdbackMs = 0L;
+        isSensing = false;
+    }
+
+    @Override
+    public void onSensorChanged(SensorEvent event) {
+        int type = event.sensor.getType();
+
+        if (type == Sensor.TYPE_LIGHT) {
+            addSample(toWallClockMs(event.timestamp), SensorChannel.LIGHT, event.values[0], 0f, 0f);
+        } else if (type == Sensor.TYPE_ACCELEROMETER) {
+            if (accelResampler != null) {
+                accelResampler.add(event.timestamp, event.values);
+            } else {
+                addSample(toWallClockMs(event.timestamp), SensorChannel.ACCEL,
+                        event.values[0], event.values[1], event.values[2]);
+            }
+        }
+    }
+
+    // Worker thread: every sample goes through the reorder buffer
+    private void addSample(long timestampMs, SensorChannel channel, float x, float y, float z) {
+        reorder.add(timestampMs, channel, x, y, z);
+        reorder.drain(System.currentTimeMillis() - holdbackMs);
+    }
+
+    // Worker thread: samples in timestamp order, whichever source they came from
+    private void onOrderedSample(long timestampMs, SensorChannel channel, float x, float y, float z) {
+        switch (channel) {
+            case LIGHT:
+                updateLight(timestampMs, x);
+                break;
+            case ACCEL:
+                updateAccel(timestampMs, x, y, z);
+                break;
+            case SOUND:
+                updateSound(timestampMs, x);
+                break;
+        }
+    }
+
+    // Event timestamps count from boot (elapsedRealtimeNanos); frames carry wall clock
+    private static long toWallClockMs(long eventNanos) {
+        return System.currentTimeMillis()
+                - (SystemClock.elapsedRealtimeNanos() - eventNanos) / 1_000_000L;
+    }
+
+    @Override
+    public void onAccuracyChanged(Sensor sensor, int accuracy) {
+        // Not used
+    }
+
+    private void startSoundSensing() {
+        try {
+            // One level per sample period: RMS dBFS of everything captured in it,
+            // plus its A-weighted Leq and octave bands
+            soundMeter.start(policy.get(SensorChannel.SOUND).samplePeriodMs, soundListener);
+            isSoundSensing = true;
+            publishHandler.post(() -> soundStatusPending = true);
+
+            soundStatus.setValue("Sound: measuring...");
+
+        } catch (Exception e) {
+            Log.e(TAG, "Error starting the microphone", e);
+            isSoundSensing = false;
+
+            String msg = e.getClass().getSimpleName();
+            if (e.getMessage() != null) msg += ": " + e.getMessage();
+            soundStatus.setValue("Sound error: " + msg);
+        }
+    }
+
+    private void stopSoundSensing() {
+        isSoundSensing = false;
+        publishHandler.removeCallbacks(soundLevelRunnable);
+        soundMeter.stop();
+        // Later frames go out without acoustics again
+        publishHandler.post(() -> hasAcoustics = false);
+    }
+
+    // Capture thread
+    private final SoundMeter.Listener soundListener = new SoundMeter.Listener() {
+        @Override
+        public void onLevel(long timestampMs, float rmsDbfs, AcousticLevels acoustics) {
+            synchronized (capturedAcoustics) {
+                capturedAcoustics.set(acoustics);
+                capturedSoundDbfs = rmsDbfs;
+                capturedSoundAt = timestampMs;
+            }
+            publishHandler.post(soundLevelRunnable);
+        }
+
+        @Override
+        public void onError(String message) {
+            Log.e(TAG, message);
+            isSoundSensing = false;
+            soundStatus.postValue("Sound error: " + message);
+        }
+    };
+
+    // Runs on the worker thread
+    private final Runnable soundLevelRunnable = new Runnable() {
+        @Override
+        public void run() {
+            if (!isSoundSensing) return;
+            float level;
+            long at;
+            synchronized (capturedAcoustics) {
+                level = capturedSoundDbfs;
+                at = capturedSoundAt;
+            }
+            updateAcoustics();
+            addSample(at, SensorChannel.SOUND, level, 0f, 0f);
+            if (soundStatusPending) {
+                soundStatusPending = false;
+                soundStatus.postValue(null);
+            }
+        }
+    };
+
+    // ---- MQTT helpers ----
+
+    // MQTT client thread
+    private final MqttConnectionManager.ConnectionListener connectionListener =
+            new MqttConnectionManager.ConnectionListener() {
+        @Override
+        public void onConnected(ConnectionMetrics metrics) {
+            Log.d(TAG, "Connected to server (" + metrics.summary() + ")");
+            setConnected(true);
+            if (!publishing) return; // someone else's connection; nothing to do yet
+            statusText.postValue(metrics.getReconnectCount() > 0
+                    ? "MQTT reconnected (" + metrics.summary() + ")"
+                    : "MQTT connected, sensing...");
+
+            // The spool drains from the publish tick; make sure it runs
+            publishHandler.removeCallbacks(publishRunnable);
+            publishHandler.post(publishRunnable);
+        }
+
+        @Override
+        public void onDisconnected(Throwable cause, long retryInMs) {
+            setConnected(false);
+            if (!publishing || retryInMs < 0) return;
+
+            // Lost while still publishing: frames keep going to the spool meanwhile
+            Log.d(TAG, "Connection lost (" + cause + "), retry in " + retryInMs + " ms");
+            statusText.postValue("MQTT connection lost, spooling; retry in "
+                    + (retryInMs + 500) / 1000 + " s");
+        }
+    };
+
+    // Publish whatever the latest snapshot is
+    private void publishCurrentSnapshot(MqttQos qos) {
+        SensorSnapshot s = currentSnapshot();
+        long now = System.currentTimeMillis();
+        byte[] payload = payloadFormat == PayloadFormat.BINARY
+                ? binaryCodec.encodeSnapshot(now, s.light, s.ax, s.ay, s.az, s.sound, currentAcoustics())
+                : jsonEncoder.encodeSnapshot(now, s.light, s.ax, s.ay, s.az, s.sound, currentAcoustics());
+        sendPayload(payload, qos);
+    }
+
+    // Publish every buffered sample as one frame and start a new window
+    private void publishBatch() {
+        if (sampleBuffer.isEmpty()) return;
+
+        byte[] payload = payloadFormat == PayloadFormat.BINARY
+                ? binaryCodec.encodeBatch(sampleBuffer, currentAcoustics())
+                : jsonEncoder.encodeBatch(sampleBuffer, currentAcoustics());
+        sampleBuffer.clear();
+        // Rows carry every channel
+        sendPayload(payload, qosByChannels[ALL_CHANNELS]);
+    }
+
+    // Publish the statistics of the current window and start the next one
+    private void publishAggregate() {
+        if (aggregator.isEmpty()) return;
+
+        long windowMs = System.currentTimeMillis() - aggregator.getWindowStart();
+        AcousticLevels acoustics = null;
+        if (windowLeq.getCount() > 0) {
+            windowLeq.getAverage(frameAcoustics);
+            acoustics = frameAcoustics;
+        }
+        byte[] payload = payloadFormat == PayloadFormat.BINARY
+                ? binaryCodec.encodeAggregate(aggregator, windowMs, acoustics)
+                : jsonEncoder.encodeAggregate(aggregator, windowMs, acoustics);
+        startAggregateWindow();
+        // One summary stands for a whole window: always at-least-once
+        sendPayload(payload, MqttQos.AT_LEAST_ONCE);
+    }
+
+    // Called by the detector from updateAccel (worker thread). An event is rare
+    // and stands for itself: at-least-once, spooled while offline.
+    private void publishEvent(VibrationEvent event) {
+        byte[] payload = payloadFormat == PayloadFormat.BINARY
+                ? binaryCodec.encodeEvent(event)
+                : jsonEncoder.encodeEvent(event);
+        sendPayload(payload, MqttQos.AT_LEAST_ONCE);
+    }
+
+    // The latest acoustic period for a snapshot or batch, null while the mic is off
+    private AcousticLevels currentAcoustics() {
+        return hasAcoustics ? lastAcoustics : null;
+    }
+
+    // Worker thread. QoS 0 frames go straight out or nowhere. QoS 1 frames go straight
+    // out when online with nothing queued and a free slot, otherwise via the spool.
+    private void sendPayload(byte[] payload, MqttQos qos) {
+        if (qos == MqttQos.AT_MOST_ONCE) {
+            // Fire-and-forget: not worth a place in the spool or the backlog's order
+            if (connected) publishLive(payload, qos);
+            return;
+        }
+        if (spool != null && (!connected || !spool.isEmpty() || inFlight.isFull())) {
+            try {
+                if (!spool.append(payload)) {
+                    Log.d(TAG, "Spool full, frame dropped (" + spool.getDroppedCount() + " so far)");
+                }
+            } catch (IOException e) {
+                Log.d(TAG, "Problem spooling sensor data: " + e);
+            }
+            if (connected) spoolDrainer.drain(SystemClock.uptimeMillis());
+            return;
+        }
+        if (!connected) return; // no spool: nothing to keep it in
+
+        publishLive(payload, qos);
+    }
+
+    // Only failures are logged; a line per frame costs more than the frame at high rates
+    private void publishLive(byte[] payload, MqttQos qos) {
+        publish(payload, qos).whenComplete((publish, throwable) -> {
+            if (throwable != null) {
+                Log.d(TAG, "Problem publishing sensor data: " + throwable);
+            }
+        });
+    }
+
+    // QoS 1 frames are queued by the broker for subscribers with a persistent session.
+    // Spooled frames only leave the spool once this completes; a full window fails it
+    // right away, so they wait in the spool rather than on the heap. On MQTT 5 the frame
+    // names its format (spooled ones may predate a format switch, so ask the bytes)
+    // and expires if no subscriber picked it up in time.
+    private CompletableFuture<?> publish(byte[] payload, MqttQos qos) {
+        return inFlight.submit(() -> mqtt.publish(publishingTopic, payload, qos,
+                PayloadFormat.detect(payload).getContentType(), MESSAGE_EXPIRY_S));
+    }
+
+    // Worker thread
+    private void openSpool() {
+        try {
+            spool = new FrameSpool(new File(context.getCacheDir(), SPOOL_DIR), spoolPolicy);
+            spoolDrainer = new SpoolDrainer(spool,
+                    payload -> publish(payload, MqttQos.AT_LEAST_ONCE), spoolPolicy);
+            if (!spool.isEmpty()) {
+                Log.d(TAG, spool.size() + " frame(s) left from the last run");
+            }
+        } catch (IOException e) {
+            // Still works online; offline frames are dropped as before
+            Log.d(TAG, "Problem opening the spool: " + e);
+        }
+    }
+
+    private final Runnable publishRunnable = new Runnable() {
+        @Override
+        public void run() {
+            // Offline the frames are spooled, so keep producing them
+            if (publishing) {
+                // Held-back samples come out even while no new event arrives
+                reorder.drain(System.currentTimeMillis() - holdbackMs);
+                long now = SystemClock.uptimeMillis();
+                if (inFlight.isFull()) {
+                    // Backpressure: hold frames back until the broker catches up
+                } else if (publishMode == PublishMode.BATCH) {
+                    // Time-based window: every sample goes out, one frame per window
+                    if (now - lastBatchAt >= BATCH_INTERVAL_MS) {
+                        lastBatchAt = now;
+                        publishBatch();
+                    }
+                } else if (isAggregateMode()) {
+                    long windowMs = publishMode == PublishMode.EVENTS
+                            ? EVENTS_AGGREGATE_WINDOW_MS : AGGREGATE_WINDOW_MS;
+                    if (now - aggregateWindowAt >= windowMs) {
+                        publishAggregate();
+                    }
+                } else if (lightRate.isDue(now) || accelRate.isDue(now) || soundRate.isDue(now)) {
+                    publishCurrentSnapshot(snapshotQos(now));
+                    // The frame carries every channel, so all of them count as reported
+                    lightRate.onReported(now);
+                    accelRate.onReported(now);
+                    soundRate.onReported(now);
+                }
+                if (connected && spoolDrainer != null) spoolDrainer.drain(now);
+            }
+
+            // Schedule the next check
+            publishHandler.postDelayed(this, policy.tickMs());
+        }
+    };
+
+    // Worker thread: the QoS the channels due for a report ask for
+    private MqttQos snapshotQos(long now) {
+        int due = 0;
+        if (lightRate.isDue(now)) due |= 1;
+        if (accelRate.isDue(now)) due |= 2;
+        if (soundRate.isDue(now)) due |= 4;
+        return qosByChannels[due];
+    }
+
+    /** Called once when the service is destroyed. */
+    public void release() {
+        if (publishing) stopPublishing(); // flushes and releases the connection
+        mqtt.removeConnectionListener(connectionListener);
+
+        publishHandler.removeCallbacks(publishRunnable);
+        uiHandler.removeCallbacks(uiUpdateRunnable);
+        publishHandler.post(() -> {
+            if (spool != null) spool.close();
+        });
+        // Lets already queued work (e.g. a final batch) finish first
+        workerThread.quitSafely();
+    }
+
+    private static HandlerThread startWorkerThread() {
+        HandlerThread thread = new HandlerThread("smartroom-publisher",
+                Process.THREAD_PRIORITY_DEFAULT);
+        thread.start();
+        return thread;
+    }
+}
\ No newline at end of file
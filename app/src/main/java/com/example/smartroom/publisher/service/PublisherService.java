@@ -0,0 +1,150 @@
+package com.example.smartroom.publisher.service;
+
+import android.Manifest;
+import android.app.Notification;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.app.Service;
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.PackageManager;
+import android.content.pm.ServiceInfo;
+import android.os.Binder;
+import android.os.Build;
+import android.os.IBinder;
+
+import androidx.annotation.Nullable;
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.ServiceCompat;
+import androidx.core.content.ContextCompat;
+
+import com.example.smartroom.R;
+import com.example.smartroom.helpers.PublisherPrefs;
+import com.example.smartroom.publisher.view.PublisherActivity;
+
+/**
+ * Foreground service that keeps the {@link PublisherEngine} (sensors + MQTT)
+ * alive independently of any screen. PublisherActivity only binds to it to
+ * show values; rotating or leaving the screen does not interrupt the stream.
+ */
+public class PublisherService extends Service {
+
+    public static final String ACTION_START = "com.example.smartroom.publisher.START";
+    public static final String ACTION_STOP = "com.example.smartroom.publisher.STOP";
+
+    private static final String CHANNEL_ID = "publisher";
+    private static final int NOTIFICATION_ID = 1;
+
+    public class LocalBinder extends Binder {
+        public PublisherEngine getEngine() {
+            return engine;
+        }
+    }
+
+    private final IBinder binder = new LocalBinder();
+    private PublisherEngine engine;
+
+    public static void start(Context context) {
+        Intent intent = new Intent(context, PublisherService.class).setAction(ACTION_START);
+        ContextCompat.startForegroundService(context, intent);
+    }
+
+    public static void stop(Context context) {
+        Intent intent = new Intent(context, PublisherService.class).setAction(ACTION_STOP);
+        context.startService(intent);
+    }
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        engine = new PublisherEngine(this);
+    }
+
+    @Override
+    public int onStartCommand(Intent intent, int flags, int startId) {
+        String action = intent != null ? intent.getAction() : null;
+
+        if (ACTION_STOP.equals(action)) {
+            shutDown();
+            return START_NOT_STICKY;
+        }
+
+        // ACTION_START comes from the app in the foreground. A sticky restart
+        // (null intent) happens in the background, where a microphone-type
+        // foreground service is not allowed from API 34: come back without sound.
+        boolean withSound = intent != null
+                && ContextCompat.checkSelfPermission(this, Manifest.permission.RECORD_AUDIO)
+                        == PackageManager.PERMISSION_GRANTED;
+        goForeground(withSound);
+        if (!engine.isPublishing()) {
+            engine.setPublishMode(PublisherPrefs.getPublishMode(this));
+            engine.setCaptureMode(PublisherPrefs.getCaptureMode(this));
+            engine.setPolicy(PublisherPrefs.getPolicy(this));
+            engine.startPublishing(withSound);
+        }
+        return START_STICKY;
+    }
+
+    @Nullable
+    @Override
+    public IBinder onBind(Intent intent) {
+        return binder;
+    }
+
+    // Android 15+ caps dataSync at 6 hours a day; past it the service must stop
+    // within seconds. The user starts it again from the app once the quota resets.
+    @Override
+    public void onTimeout(int startId, int fgsType) {
+        shutDown();
+    }
+
+    @Override
+    public void onDestroy() {
+        engine.release();
+        super.onDestroy();
+    }
+
+    private void shutDown() {
+        engine.stopPublishing();
+        ServiceCompat.stopForeground(this, ServiceCompat.STOP_FOREGROUND_REMOVE);
+        stopSelf();
+    }
+
+    // ---- Notification ----
+
+    private void goForeground(boolean withSound) {
+        int type = 0;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            type = ServiceInfo.FOREGROUND_SERVICE_TYPE_DATA_SYNC;
+            if (withSound) type |= ServiceInfo.FOREGROUND_SERVICE_TYPE_MICROPHONE;
+        }
+        ServiceCompat.startForeground(this, NOTIFICATION_ID, buildNotification(), type);
+    }
+
+    private Notification buildNotification() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationManager manager = getSystemService(NotificationManager.class);
+            if (manager != null && manager.getNotificationChannel(CHANNEL_ID) == null) {
+                manager.createNotificationChannel(new NotificationChannel(
+                        CHANNEL_ID, "Sensor publishing", NotificationManager.IMPORTANCE_LOW));
+            }
+        }
+
+        PendingIntent open = PendingIntent.getActivity(this, 0,
+                new Intent(this, PublisherActivity.class),
+                PendingIntent.FLAG_IMMUTABLE | PendingIntent.FLAG_UPDATE_CURRENT);
+        PendingIntent stop = PendingIntent.getService(this, 1,
+                new Intent(this, PublisherService.class).setAction(ACTION_STOP),
+                PendingIntent.FLAG_IMMUTABLE | PendingIntent.FLAG_UPDATE_CURRENT);
+
+        return new NotificationCompat.Builder(this, CHANNEL_ID)
+                .setSmallIcon(android.R.drawable.stat_notify_sync)
+                .setContentTitle(getString(R.string.app_name))
+                .setContentText("Publishing room sensors")
+                .setContentIntent(open)
+                .addAction(0, "Stop", stop)
+                .setOngoing(true)
+                .build();
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.smartroom.publisher.service;
+
+import android.media.AudioFormat;
+import android.media.AudioRecord;
+import android.media.AudioTimestamp;
+import android.media.MediaRecorder;
+import android.os.Process;
+import android.os.SystemClock;
+
+import com.example.smartroom.audio.AcousticLevels;
+import com.example.smartroom.audio.LevelMeter;
+import com.example.smartroom.audio.SpectrumAnalyzer;
+
+/**
+ * Meters the microphone from raw PCM: {@link AudioRecord} reads into one
+ * reused block on its own thread and a {@link LevelMeter} turns it into a
+ * level. No encoder and no file, unlike the MediaRecorder it replaces.
+ * The same blocks feed a {@link SpectrumAnalyzer} for dB(A) and octave bands.
+ */
+class SoundMeter {
+
+    interface Listener {
+        /**
+         * RMS level of the last period in dBFS and its acoustic levels, stamped
+         * with the wall-clock time its last block was captured; on the capture
+         * thread. {@code acoustics} is reused: copy it before returning.
+         */
+        void onLevel(long timestampMs, float rmsDbfs, AcousticLevels acoustics);
+
+        /** The microphone stopped delivering; the meter is stopped. */
+        void onError(String message);
+    }
+
+    // 44.1 kHz is the one rate every device has to support
+    static final int SAMPLE_RATE = 44_100;
+    // ~23 ms per read: short enough to stop quickly, long enough to be cheap
+    private static final int BLOCK_SAMPLES = 1024;
+    // ~93 ms frames: 10.8 Hz bins still resolve the 63 Hz octave
+    private static final int FFT_SIZE = 4096;
+
+    private final LevelMeter meter = new LevelMeter();
+    private final SpectrumAnalyzer analyzer = new SpectrumAnalyzer(SAMPLE_RATE, FFT_SIZE);
+    private final AcousticLevels acoustics = new AcousticLevels();
+    private final AudioTimestamp audioTimestamp = new AudioTimestamp();
+    private long framesRead = 0L; // capture thread
+    private final short[] block = new short[BLOCK_SAMPLES];
+
+    // Main thread. The capture thread owns its AudioRecord and releases it when
+    // its loop ends, so a read still blocked after stop() never hits a released record.
+    private Thread thread;
+    private volatile boolean running = false;
+
+    /**
+     * Opens the microphone and starts metering. Throws if it cannot be opened
+     * (no permission, or in use by another app).
+     */
+    void start(long periodMs, Listener listener) {
+        if (running) return;
+        if (thread != null && thread.isAlive()) {
+            // The previous capture thread still uses the meters and its record
+            throw new IllegalStateException("Microphone still closing");
+        }
+
+        int minBuffer = AudioRecord.getMinBufferSize(SAMPLE_RATE,
+                AudioFormat.CHANNEL_IN_MONO, AudioFormat.ENCODING_PCM_16BIT);
+        if (minBuffer <= 0) {
+            throw new IllegalStateException("16-bit mono capture at " + SAMPLE_RATE + " Hz not supported");
+        }
+        // A few blocks of slack so a late read does not lose audio
+        int bufferBytes = Math.max(minBuffer, 4 * BLOCK_SAMPLES * 2);
+        // VOICE_RECOGNITION is the source meant to be free of AGC and noise suppression
+        AudioRecord audioRecord = new AudioRecord(MediaRecorder.AudioSource.VOICE_RECOGNITION,
+                SAMPLE_RATE, AudioFormat.CHANNEL_IN_MONO, AudioFormat.ENCODING_PCM_16BIT, bufferBytes);
+        if (audioRecord.getState() != AudioRecord.STATE_INITIALIZED) {
+            audioRecord.release();
+            throw new IllegalStateException("Microphone unavailable");
+        }
+        audioRecord.startRecording();
+
+        running = true;
+        thread = new Thread(() -> {
+            try {
+                captureLoop(audioRecord, periodMs, listener);
+            } finally {
+                try { audioRecord.stop(); } catch (Exception ignored) {}
+                audioRecord.release();
+            }
+        }, "smartroom-sound");
+        thread.start();
+    }
+
+    void stop() {
+        running = false;
+        Thread t = thread;
+        if (t != null) {
+            // A blocking read returns within one block; if not, the thread
+            // still releases the record once it does
+            try { t.join(500); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+            if (!t.isAlive()) thread = null;
+        }
+    }
+
+    // Capture thread
+    private void captureLoop(AudioRecord audioRecord, long periodMs, Listener listener) {
+        Process.setThreadPriority(Process.THREAD_PRIORITY_AUDIO);
+        meter.reset();
+        analyzer.reset();
+        framesRead = 0L;
+        long periodStart = SystemClock.uptimeMillis();
+
+        while (running) {
+            int read = audioRecord.read(block, 0, BLOCK_SAMPLES);
+            if (read < 0) {
+                running = false;
+                listener.onError("Microphone read failed (" + read + ")");
+                return;
+            }
+            framesRead += read;
+            meter.process(block, read);
+            analyzer.process(block, read);
+
+            long now = SystemClock.uptimeMillis();
+            // A period shorter than a frame waits for the frame to complete
+            if (now - periodStart >= periodMs && analyzer.getFrameCount() > 0) {
+                analyzer.getLevels(acoustics);
+                listener.onLevel(blockEndMs(audioRecord), meter.getRmsDbfs(), acoustics);
+                meter.reset();
+                analyzer.reset();
+                periodStart = now;
+            }
+        }
+    }
+
+    // When the last frame read was captured, on the wall clock the sensor rows use.
+    // The record's timestamp maps a frame position to System.nanoTime(); without
+    // one, the end of the read is a few ms late at most.
+    private long blockEndMs(AudioRecord audioRecord) {
+        long nowMs = System.currentTimeMillis();
+        if (audioRecord.getTimestamp(audioTimestamp, AudioTimestamp.TIMEBASE_MONOTONIC)
+                != AudioRecord.SUCCESS) {
+            return nowMs;
+        }
+        long endNanos = audioTimestamp.nanoTime
+                + (framesRead - audioTimestamp.framePosition) * 1_000_000_000L / SAMPLE_RATE;
+        return nowMs - (System.nanoTime() - endNanos) / 1_000_000L;
+    }
+}
@@ -1,227 +1,96 @@
 package com.example.smartroom.publisher.viewModel;
 
-import android.util.Log;
-
+import android.app.Application;
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.Intent;
+import android.content.ServiceConnection;
+import android.os.IBinder;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
-import androidx.lifecycle.MutableLiveData;
-import androidx.lifecycle.ViewModel;
-import android.os.Handler;
-import android.os.Looper;
-
-import com.example.smartroom.Constants;
-import com.hivemq.client.mqtt.MqttClient;
-import com.hivemq.client.mqtt.mqtt3.Mqtt3AsyncClient;
-
-public class PublisherViewModel extends ViewModel {
-
-    private static final String TAG = "SmartRoomMQTT";
-
-    // ---- Periodic Publishing ----
-    private final Handler publishHandler = new Handler(Looper.getMainLooper());
-    private static final long PUBLISH_INTERVAL_MS = 2000; // Publish every 2 seconds (adjust as needed)
-
-    // MQTT config
-    private String serverHost = Constants.serverIP;
-    private int serverPort = Constants.serverPort;
-    private String publishingTopic = Constants.mqttTopics;
+import androidx.lifecycle.MediatorLiveData;
+
+import com.example.smartroom.publisher.model.SensorSnapshot;
+import com.example.smartroom.publisher.service.PublisherEngine;
+import com.example.smartroom.publisher.service.PublisherService;
+
+/**
+ * Binds to {@link PublisherService} for as long as the screen exists (it
+ * survives rotation, so the binding does too) and mirrors the engine's state.
+ * Starting and stopping go through the service; nothing here owns sensors or
+ * the MQTT connection.
+ */
+public class PublisherViewModel extends AndroidViewModel {
+
+    private final MediatorLiveData<Boolean> isConnected = new MediatorLiveData<>(false);
+    private final MediatorLiveData<Boolean> isPublishing = new MediatorLiveData<>(false);
+    private final MediatorLiveData<String> statusText =
+            new MediatorLiveData<>("Status: Disconnected");
+    private final MediatorLiveData<String> soundStatus = new MediatorLiveData<>(null);
+    private final MediatorLiveData<SensorSnapshot> sensorSnapshot =
+            new MediatorLiveData<>(SensorSnapshot.EMPTY);
+
+    private PublisherEngine engine;
+
+    private final ServiceConnection connection = new ServiceConnection() {
+        @Override
+        public void onServiceConnected(ComponentName name, IBinder service) {
+            attach(((PublisherService.LocalBinder) service).getEngine());
+        }
 
-    private Mqtt3AsyncClient mqttClient;
+        @Override
+        public void onServiceDisconnected(ComponentName name) {
+            detach();
+        }
+    };
 
-    // Connection state
-    private final MutableLiveData<Boolean> isConnected = new MutableLiveData<>(false);
-    private final MutableLiveData<String> statusText =
-            new MutableLiveData<>("Status: Disconnected");
+    public PublisherViewModel(@NonNull Application application) {
+        super(application);
+        // Creates the service if needed; it only becomes foreground once started
+        application.bindService(new Intent(application, PublisherService.class),
+                connection, Context.BIND_AUTO_CREATE);
+    }
 
     public LiveData<Boolean> getIsConnected() { return isConnected; }
-    public LiveData<String> getStatusText() { return statusText; }
-
-    // Publishing state (should we be sensing/publishing?)
-    private final MutableLiveData<Boolean> isPublishing = new MutableLiveData<>(false);
     public LiveData<Boolean> getIsPublishing() { return isPublishing; }
+    public LiveData<String> getStatusText() { return statusText; }
+    public LiveData<String> getSoundStatus() { return soundStatus; }
+    public LiveData<SensorSnapshot> getSensorSnapshot() { return sensorSnapshot; }
 
     public void startPublishing() {
-        isPublishing.postValue(true);
-        // connectToBroker() will now handle starting the publish timer upon success
-        connectToBroker();
-
-        // --- REMOVE THESE LINES ---
-        // publishHandler.removeCallbacks(publishRunnable);
-        // publishHandler.post(publishRunnable);
+        PublisherService.start(getApplication());
     }
 
     public void stopPublishing() {
-        isPublishing.postValue(false);
-
-        // --- ADDED: Stop the periodic publishing timer ---
-        publishHandler.removeCallbacks(publishRunnable);
-    }
-
-    // ---- Sensor values (persist across rotation) ----
-    private float lastLux = 0f;
-    private float lastAx = 0f;
-    private float lastAy = 0f;
-    private float lastAz = 0f;
-    private float lastSound = 0f;
-
-    private final MutableLiveData<Float> lightLiveData = new MutableLiveData<>(0f);
-    private final MutableLiveData<Float> accelXLiveData = new MutableLiveData<>(0f);
-    private final MutableLiveData<Float> accelYLiveData = new MutableLiveData<>(0f);
-    private final MutableLiveData<Float> accelZLiveData = new MutableLiveData<>(0f);
-    private final MutableLiveData<Float> soundLiveData   = new MutableLiveData<>(0f);
-
-    public LiveData<Float> getLightLiveData()   { return lightLiveData; }
-    public LiveData<Float> getAccelXLiveData()  { return accelXLiveData; }
-    public LiveData<Float> getAccelYLiveData()  { return accelYLiveData; }
-    public LiveData<Float> getAccelZLiveData()  { return accelZLiveData; }
-    public LiveData<Float> getSoundLiveData()   { return soundLiveData; }
-
-    // Called by Activity when light sensor changes
-    public void updateLight(float lux) {
-        lastLux = lux;
-        lightLiveData.postValue(lux);
-//        publishCurrentSnapshot();
-    }
-
-    // Called by Activity when accelerometer changes
-    public void updateAccel(float ax, float ay, float az) {
-        lastAx = ax;
-        lastAy = ay;
-        lastAz = az;
-        accelXLiveData.postValue(ax);
-        accelYLiveData.postValue(ay);
-        accelZLiveData.postValue(az);
-//        publishCurrentSnapshot();
-    }
-
-    // Called by Activity when sound level changes
-    public void updateSound(float sound) {
-        lastSound = sound;
-        soundLiveData.postValue(sound);
-//        publishCurrentSnapshot();
+        PublisherService.stop(getApplication());
     }
 
-    // ---- MQTT helpers ----
-
-    private void createMQTTclientIfNeeded() {
-        if (mqttClient != null) return;
-
-        mqttClient = MqttClient.builder()
-                .useMqttVersion3()
-                .identifier("smartroom-android-" + System.currentTimeMillis())
-                .serverHost(serverHost)
-                .serverPort(serverPort)
-                .buildAsync();
+    private void attach(PublisherEngine engine) {
+        this.engine = engine;
+        isConnected.addSource(engine.getIsConnected(), isConnected::setValue);
+        isPublishing.addSource(engine.getIsPublishing(), isPublishing::setValue);
+        statusText.addSource(engine.getStatusText(), statusText::setValue);
+        soundStatus.addSource(engine.getSoundStatus(), soundStatus::setValue);
+        sensorSnapshot.addSource(engine.getSensorSnapshot(), sensorSnapshot::setValue);
     }
 
-    public void connectToBroker() {
-        Boolean connected = isConnected.getValue();
-        if (connected != null && connected) {
-            // already connected, ensure the timer is running
-            publishHandler.removeCallbacks(publishRunnable);
-            publishHandler.post(publishRunnable);
-            return;
-        }
-
-        createMQTTclientIfNeeded();
-
-        statusText.postValue("Connecting to MQTT...");
-
-        mqttClient.connectWith()
-                .send()
-                .whenComplete((connAck, throwable) -> {
-                    if (throwable != null) {
-                        Log.d(TAG, "Problem connecting to server: " + throwable);
-                        isConnected.postValue(false);
-                        statusText.postValue("MQTT connection FAILED");
-                    } else {
-                        Log.d(TAG, "Connected to server");
-                        isConnected.postValue(true);
-                        statusText.postValue("MQTT connected, sensing...");
-
-                        // --- THE KEY FIX IS HERE ---
-                        // Only start the publishing timer after a successful connection.
-                        Boolean publishing = isPublishing.getValue();
-                        if (publishing != null && publishing) {
-                            publishHandler.removeCallbacks(publishRunnable);
-                            publishHandler.post(publishRunnable);
-                        }
-                    }
-                });
-    }
-
-    public void disconnectFromBroker() {
-        if (mqttClient == null) {
-            isConnected.postValue(false);
-            statusText.postValue("Status: Disconnected");
-            return;
-        }
-
-        mqttClient.disconnect()
-                .whenComplete((result, throwable) -> {
-                    if (throwable != null) {
-                        Log.d(TAG, "Problem disconnecting: " + throwable);
-                    } else {
-                        Log.d(TAG, "Disconnected from server");
-                    }
-                    isConnected.postValue(false);
-                    statusText.postValue("Status: Disconnected");
-                });
+    private void detach() {
+        if (engine == null) return;
+        isConnected.removeSource(engine.getIsConnected());
+        isPublishing.removeSource(engine.getIsPublishing());
+        statusText.removeSource(engine.getStatusText());
+        soundStatus.removeSource(engine.getSoundStatus());
+        sensorSnapshot.removeSource(engine.getSensorSnapshot());
+        engine = null;
     }
 
-    // Publish whatever the latest snapshot is
-// Publish whatever the latest snapshot is
-    private void publishCurrentSnapshot() {
-        Boolean connected = isConnected.getValue();
-
-        // Only require client + connection
-        if (mqttClient == null || connected == null || !connected) {
-            return;
-        }
-
-        String payload = "{"
-                + "\"light\":" + lastLux + ","
-                + "\"ax\":" + lastAx + ","
-                + "\"ay\":" + lastAy + ","
-                + "\"az\":" + lastAz + ","
-                + "\"sound\":" + lastSound
-                + "}";
-
-        mqttClient.publishWith()
-                .topic(publishingTopic)
-                .payload(payload.getBytes())
-                .send()
-                .whenComplete((publish, throwable) -> {
-                    if (throwable != null) {
-                        Log.d(TAG, "Problem publishing sensor data: " + throwable);
-                    } else {
-                        Log.d(TAG, "Sensor data published: " + payload);
-                    }
-                });
-    }
-
-    private final Runnable publishRunnable = new Runnable() {
-        @Override
-        public void run() {
-            // Only publish if the Activity has requested publishing AND we are connected
-            Boolean publishing = isPublishing.getValue();
-            Boolean connected = isConnected.getValue();
-
-            if (publishing != null && publishing && connected != null && connected) {
-                // This is the only place we now call the publishing logic
-                publishCurrentSnapshot();
-            }
-
-            // Schedule the next execution
-            publishHandler.postDelayed(this, PUBLISH_INTERVAL_MS);
-        }
-    };
-
     @Override
     protected void onCleared() {
         super.onCleared();
-        // Best-effort disconnect when ViewModel is finally destroyed
-        disconnectFromBroker();
-
-        publishHandler.removeCallbacks(publishRunnable);
+        // Only the binding goes away; a started service keeps publishing
+        detach();
+        getApplication().unbindService(connection);
     }
-}
\ No newline at end of file
+}
@@ -11,6 +11,9 @@ import android.util.TypedValue;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.smartroom.helpers.AccessibilityPrefs;
+import com.example.smartroom.helpers.PublisherPrefs;
+import com.example.smartroom.publisher.model.CaptureMode;
+import com.example.smartroom.publisher.model.PublishMode;
 import com.example.smartroom.R;
 
 public class SettingsActivity extends AppCompatActivity {
@@ -20,6 +23,10 @@ public class SettingsActivity extends AppCompatActivity {
     private TextView txtAccessibilityDescription;
     private TextView txtAccessibilityLabel;
     private Switch switchAccessibility;
+    private TextView txtVibrationEventsLabel;
+    private Switch switchVibrationEvents;
+    private TextView txtHardwareBatchingLabel;
+    private Switch switchHardwareBatching;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -32,6 +39,10 @@ public class SettingsActivity extends AppCompatActivity {
         txtAccessibilityDescription = findViewById(R.id.txtAccessibilityDescription);
         txtAccessibilityLabel       = findViewById(R.id.txtAccessibilityLabel);
         switchAccessibility         = findViewById(R.id.switchAccessibility);
+        txtVibrationEventsLabel     = findViewById(R.id.txtVibrationEventsLabel);
+        switchVibrationEvents       = findViewById(R.id.switchVibrationEvents);
+        txtHardwareBatchingLabel    = findViewById(R.id.txtHardwareBatchingLabel);
+        switchHardwareBatching      = findViewById(R.id.switchHardwareBatching);
 
         // Load current preference
         boolean enabled = AccessibilityPrefs.isAccessibilityEnabled(this);
@@ -52,6 +63,20 @@ public class SettingsActivity extends AppCompatActivity {
                     }
                 }
         );
+
+        // Publishing: vibration events with a slow aggregate, or the plain aggregate
+        switchVibrationEvents.setChecked(
+                PublisherPrefs.getPublishMode(this) == PublishMode.EVENTS);
+        switchVibrationEvents.setOnCheckedChangeListener((buttonView, isChecked) ->
+                PublisherPrefs.setPublishMode(SettingsActivity.this,
+                        isChecked ? PublishMode.EVENTS : PublishMode.AGGREGATE));
+
+        // Sensor events queue in the hub's FIFO and arrive in bursts: fewer wakeups
+        switchHardwareBatching.setChecked(
+                PublisherPrefs.getCaptureMode(this) == CaptureMode.HARDWARE_FIFO);
+        switchHardwareBatching.setOnCheckedChangeListener((buttonView, isChecked) ->
+                PublisherPrefs.setCaptureMode(SettingsActivity.this,
+                        isChecked ? CaptureMode.HARDWARE_FIFO : CaptureMode.DIRECT));
     }
 
     @Override
@@ -78,15 +103,21 @@ public class SettingsActivity extends AppCompatActivity {
             txtSettingsTitle.setTextSize(TypedValue.COMPLEX_UNIT_SP, 26f);
             txtAccessibilityDescription.setTextSize(TypedValue.COMPLEX_UNIT_SP, 24f);
             txtAccessibilityLabel.setTextSize(TypedValue.COMPLEX_UNIT_SP, 22f);
+            txtVibrationEventsLabel.setTextSize(TypedValue.COMPLEX_UNIT_SP, 22f);
+            txtHardwareBatchingLabel.setTextSize(TypedValue.COMPLEX_UNIT_SP, 22f);
         } else {
             // Accessibility OFF → still bigger than normal app screens, but less huge
             txtSettingsTitle.setTextSize(TypedValue.COMPLEX_UNIT_SP, 24f);
             txtAccessibilityDescription.setTextSize(TypedValue.COMPLEX_UNIT_SP, 14f);
             txtAccessibilityLabel.setTextSize(TypedValue.COMPLEX_UNIT_SP, 16f);
+            txtVibrationEventsLabel.setTextSize(TypedValue.COMPLEX_UNIT_SP, 16f);
+            txtHardwareBatchingLabel.setTextSize(TypedValue.COMPLEX_UNIT_SP, 16f);
         }
 
         txtSettingsTitle.setTextColor(Color.BLACK);
         txtAccessibilityDescription.setTextColor(0xFF555555);
         txtAccessibilityLabel.setTextColor(Color.BLACK);
+        txtVibrationEventsLabel.setTextColor(Color.BLACK);
+        txtHardwareBatchingLabel.setTextColor(Color.BLACK);
     }
 }
\ No newline at end of file
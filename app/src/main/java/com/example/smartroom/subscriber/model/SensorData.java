@@ -1,9 +0,0 @@
-package com.example.smartroom.subscriber.model;
-
-public class SensorData {
-    public float light;
-    public float ax;
-    public float ay;
-    public float az;
-    public float sound;
-}
@@ -10,10 +10,15 @@ import android.view.View;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.lifecycle.ViewModelProvider;
 
+import com.example.smartroom.audio.AcousticLevels;
 import com.example.smartroom.helpers.AccessibilityPrefs;
 import com.example.smartroom.R;
+import com.example.smartroom.publisher.model.SensorChannel;
+import com.example.smartroom.subscriber.model.SensorData;
 import com.example.smartroom.subscriber.viewModel.SubscriberViewModel;
 
+import java.util.Locale;
+
 public class SubscriberActivity extends AppCompatActivity {
 
     private SubscriberViewModel viewModel;
@@ -52,14 +57,25 @@ public class SubscriberActivity extends AppCompatActivity {
 
         // new sensor values
         viewModel.getParsedData().observe(this, data -> {
-            if (data != null) {
+            if (data != null && data.event) {
+                // A vibration the publisher detected; the other readings stay as they were
+                accelValue.setText(String.format(Locale.US,
+                        "Vibration: peak %.2f m/s², %d ms", data.eventPeak, data.eventDurationMs));
+            } else if (data != null && data.isAggregate()) {
+                // Window summary: mean and range of each channel
+                lightValue.setText("Light: " + statLine(data, SensorChannel.LIGHT));
+                accelValue.setText("Accelerometer |a|: " + statLine(data, SensorChannel.ACCEL));
+                soundValue.setText("Sound (dBFS): " + statLine(data, SensorChannel.SOUND)
+                        + acousticLines(data));
+            } else if (data != null) {
                 lightValue.setText("Light: " + data.light);
                 accelValue.setText(
                         "Accelerometer:\n  ax=" + data.ax +
                                 "\n  ay=" + data.ay +
                                 "\n  az=" + data.az
                 );
-                soundValue.setText("Sound: " + data.sound);
+                soundValue.setText(String.format(Locale.US, "Sound: %.1f dBFS", data.sound)
+                        + acousticLines(data));
             }
         });
 
@@ -77,6 +93,27 @@ public class SubscriberActivity extends AppCompatActivity {
         applyAccessibilityMode();
     }
 
+    // "mean (min–max), n=count" for one channel of an aggregate frame
+    private static String statLine(SensorData data, SensorChannel channel) {
+        int c = channel.ordinal();
+        if (data.statCount[c] == 0) return "–";
+        return String.format(Locale.US, "%.2f (%.2f–%.2f), n=%d",
+                data.statMean[c], data.statMin[c], data.statMax[c], data.statCount[c]);
+    }
+
+    // "\nNoise: LAeq" and one line of octave-band levels, empty without acoustics
+    private static String acousticLines(SensorData data) {
+        if (!data.hasAcoustics()) return "";
+        StringBuilder sb = new StringBuilder(String.format(Locale.US,
+                "\nNoise: %.1f dB(A) FS\nOctaves:", data.laeq));
+        for (int b = 0; b < data.bandCount; b++) {
+            int hz = AcousticLevels.bandCenterHz(b);
+            sb.append(String.format(Locale.US, " %s %.0f",
+                    hz >= 1000 ? hz / 1000 + "k" : String.valueOf(hz), data.bands[b]));
+        }
+        return sb.toString();
+    }
+
     private void applyAccessibilityMode() {
         boolean enabled = AccessibilityPrefs.isAccessibilityEnabled(this);
 
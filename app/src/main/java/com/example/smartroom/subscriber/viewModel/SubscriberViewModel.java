@@ -1,28 +1,45 @@
 package com.example.smartroom.subscriber.viewModel;
 
+import android.app.Application;
 import android.util.Log;
 
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
-import androidx.lifecycle.ViewModel;
 
 import com.example.smartroom.Constants;
+import com.example.smartroom.helpers.SharedMqtt;
+import com.example.smartroom.mqtt.ConnectionMetrics;
+import com.example.smartroom.mqtt.MqttConnectionManager;
+import com.example.smartroom.payload.PayloadFormat;
+import com.example.smartroom.payload.SensorBinaryCodec;
+import com.example.smartroom.payload.SensorJsonParser;
 import com.example.smartroom.subscriber.model.SensorData;
-import com.hivemq.client.mqtt.MqttClient;
-import com.hivemq.client.mqtt.mqtt3.Mqtt3AsyncClient;
+import com.hivemq.client.mqtt.datatypes.MqttQos;
 
-public class SubscriberViewModel extends ViewModel {
+/**
+ * Listens to the sensor topic over the app's shared broker connection
+ * ({@link SharedMqtt}). The session is persistent, so QoS 1 frames published
+ * while we were away are delivered on return; reconnects and resubscribing
+ * are handled by the connection manager.
+ */
+public class SubscriberViewModel extends AndroidViewModel {
 
     private static final String TAG = "SmartRoomSubscriber";
 
     private final MutableLiveData<SensorData> parsedData = new MutableLiveData<>();
     public LiveData<SensorData> getParsedData() { return parsedData; }
 
-    private final String serverHost = Constants.serverIP;
-    private final int serverPort = Constants.serverPort;
     private final String subscribeTopic = Constants.mqttTopics;
 
-    private Mqtt3AsyncClient mqttClient;
+    private final MqttConnectionManager mqtt;
+    // Main thread; both null while disconnected
+    private MqttConnectionManager.Handle mqttHandle;
+    private MqttConnectionManager.Subscription subscription;
+
+    // Only used from the MQTT callback thread
+    private final SensorJsonParser jsonParser = new SensorJsonParser();
 
     private final MutableLiveData<Boolean> isConnected =
             new MutableLiveData<>(false);
@@ -37,135 +54,89 @@ public class SubscriberViewModel extends ViewModel {
     public LiveData<String> getStatusText() { return statusText; }
     public LiveData<String> getLastMessage() { return lastMessage; }
 
-    private void createClientIfNeeded() {
-        if (mqttClient != null) return;
+    public ConnectionMetrics getConnectionMetrics() { return mqtt.getMetrics(); }
 
-        mqttClient = MqttClient.builder()
-                .useMqttVersion3()
-                .identifier("smartroom-subscriber-" + System.currentTimeMillis())
-                .serverHost(serverHost)
-                .serverPort(serverPort)
-                .buildAsync();
+    public SubscriberViewModel(@NonNull Application application) {
+        super(application);
+        mqtt = SharedMqtt.get(application);
     }
 
     public void connectAndSubscribe() {
-        createClientIfNeeded();
-
-        statusText.postValue("🔌 Connecting to MQTT broker…");
-
-        mqttClient.connectWith()
-                .send()
-                .whenComplete((connAck, throwable) -> {
-                    if (throwable != null) {
-
-                        Log.e(TAG, "❌ Connection failed", throwable);
-                        statusText.postValue("❌ Connection FAILED. Check Wi-Fi or broker.");
-                        isConnected.postValue(false);
-
-                    } else {
-
-                        Log.d(TAG, "✅ Connected to MQTT broker");
-                        statusText.postValue("✅ Connected. Subscribing…");
-                        isConnected.postValue(true);
-
-                        subscribeToTopic();
-                    }
-                });
+        if (mqttHandle != null) return;
+
+        statusText.postValue(mqtt.isConnected()
+                ? "🎧 Listening for sensor data…" : "🔌 Connecting to MQTT broker…");
+        mqttHandle = mqtt.acquire();
+        // QoS 1 so the broker holds frames for us while we are offline
+        subscription = mqtt.subscribe(subscribeTopic, MqttQos.AT_LEAST_ONCE,
+                (topic, payload, contentType) -> onMessage(payload, contentType));
+        mqtt.addConnectionListener(connectionListener);
     }
 
-
-    private void subscribeToTopic() {
-
-        statusText.postValue("🎧 Subscribing to " + subscribeTopic + "…");
-
-        mqttClient.subscribeWith()
-                .topicFilter(subscribeTopic)
-                .callback(publish -> {
-
-                    byte[] payloadBytes = publish.getPayloadAsBytes();
-                    if (payloadBytes == null) {
-                        Log.e(TAG, "❌ Empty MQTT payload");
-                        return;
-                    }
-
-                    String payload = new String(payloadBytes);
-                    Log.d(TAG, "📩 Received MQTT message: " + payload);
-
-                    // Парсим вручную
-                    SensorData data = parseSensorData(payload);
-                    if (data != null) {
-                        parsedData.postValue(data);
-                    }
-
-                })
-                .send()
-                .whenComplete((subAck, throwable) -> {
-
-                    if (throwable != null) {
-                        Log.e(TAG, "❌ Subscribe failed", throwable);
-                        statusText.postValue("❌ Subscribe FAILED");
-                    } else {
-                        statusText.postValue("🎧 Listening for sensor data…");
-                    }
-                });
-    }
-
-
-    private SensorData parseSensorData(String json) {
-        try {
-            // deleting '{' '}'
-            json = json.replace("{", "").replace("}", "");
-
-            // dividing into pairs "key:value"
-            String[] parts = json.split(",");
-
-            SensorData data = new SensorData();
-
-            for (String part : parts) {
-                String[] pair = part.split(":");
-                if (pair.length < 2) continue;
-
-                String key = pair[0].replace("\"", "").trim();
-                String value = pair[1].trim();
-
-                switch (key) {
-                    case "light":
-                        data.light = Float.parseFloat(value);
-                        break;
-                    case "ax":
-                        data.ax = Float.parseFloat(value);
-                        break;
-                    case "ay":
-                        data.ay = Float.parseFloat(value);
-                        break;
-                    case "az":
-                        data.az = Float.parseFloat(value);
-                        break;
-                    case "sound":
-                        data.sound = Float.parseFloat(value);
-                        break;
-                }
+    // MQTT client thread, after the first connect and after every reconnect
+    private final MqttConnectionManager.ConnectionListener connectionListener =
+            new MqttConnectionManager.ConnectionListener() {
+        @Override
+        public void onConnected(ConnectionMetrics metrics) {
+            Log.d(TAG, "✅ Connected to MQTT broker (" + metrics.summary() + ")");
+            isConnected.postValue(true);
+            if (metrics.getReconnectCount() > 0) {
+                statusText.postValue("🔄 Reconnected (" + metrics.summary() + ")");
+            } else {
+                statusText.postValue("🎧 Listening for sensor data…");
             }
+        }
 
-            return data;
+        @Override
+        public void onDisconnected(Throwable cause, long retryInMs) {
+            isConnected.postValue(false);
+            if (retryInMs < 0) return;
+            Log.d(TAG, "Connection lost (" + cause + "), retry in " + retryInMs + " ms");
+            statusText.postValue("⚠️ Connection lost. Retrying in "
+                    + (retryInMs + 500) / 1000 + " s…");
+        }
+    };
 
-        } catch (Exception e) {
-            Log.e(TAG, "❌ Error parsing JSON manually: " + e.getMessage());
-            return null;
+    private void onMessage(byte[] payloadBytes, String contentType) {
+        if (payloadBytes == null) {
+            Log.e(TAG, "❌ Empty MQTT payload");
+            return;
         }
-    }
 
+        // MQTT 5 frames name their format; otherwise go by the first byte
+        // (schema id or '{'). A fresh SensorData per message: it is handed
+        // over to the UI thread.
+        PayloadFormat format = PayloadFormat.fromContentType(contentType);
+        if (format == null) format = PayloadFormat.detect(payloadBytes);
+        SensorData data = new SensorData();
+        boolean ok;
+        if (format == PayloadFormat.JSON) {
+            ok = jsonParser.parse(payloadBytes, data);
+        } else {
+            ok = SensorBinaryCodec.decode(payloadBytes, data);
+        }
 
+        if (!ok) {
+            Log.e(TAG, "❌ Could not parse sensor payload ("
+                    + payloadBytes.length + " bytes)");
+            return;
+        }
 
+        parsedData.postValue(data);
+    }
 
     public void disconnect() {
-        if (mqttClient == null) return;
-
-        mqttClient.disconnect()
-                .whenComplete((result, throwable) -> {
-                    statusText.postValue("Disconnected");
-                    isConnected.postValue(false);
-                });
+        if (mqttHandle == null) return;
+
+        mqtt.removeConnectionListener(connectionListener);
+        // Keep the broker subscription: the session queues frames until we are back
+        subscription.detach();
+        // The connection itself stays up a while in case another screen needs it
+        mqttHandle.close();
+        subscription = null;
+        mqttHandle = null;
+        statusText.postValue("Disconnected");
+        isConnected.postValue(false);
     }
 
     @Override
@@ -0,0 +1,30 @@
+// JMH benchmarks for the sensor payload and air-quality parsing hot paths.
+// Run with: ./gradlew :benchmarks:jmh
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+dependencies {
+    jmh(project(":core"))
+    // Only for the legacy org.json baseline (Android ships org.json on device)
+    jmh(libs.org.json)
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    profilers.add("gc")
+    resultFormat.set("JSON")
+}
@@ -0,0 +1,40 @@
+package com.example.smartroom.benchmarks;
+
+// Builds a response shaped like calair_tiemporeal.json (pageSize=5000)
+final class AirQualityFixture {
+
+    // Mix of mapped and unmapped stations, like the real feed
+    private static final int[] STATIONS = {1, 3, 4, 7, 8, 11, 16, 17, 18, 22, 23, 24, 26, 27, 35,
+            36, 38, 39, 40, 47, 48, 49, 50, 54, 55, 56, 57, 58, 59, 60};
+    private static final String[] MAGNITUDES = {"01", "06", "07", "08", "09", "10", "12", "14"};
+
+    private AirQualityFixture() {}
+
+    static String response(int records) {
+        StringBuilder sb = new StringBuilder(records * 700);
+        sb.append("{\"records\":[");
+        for (int i = 0; i < records; i++) {
+            if (i > 0) sb.append(',');
+            int station = STATIONS[i % STATIONS.length];
+            String magnitud = MAGNITUDES[(i / STATIONS.length) % MAGNITUDES.length];
+            // Later hours not yet validated, so the backwards search has work to do
+            int validHours = 1 + (i * 7) % 24;
+
+            sb.append("{\"PROVINCIA\":\"28\",\"MUNICIPIO\":\"079\",\"ESTACION\":\"")
+                    .append(station).append("\",\"MAGNITUD\":\"").append(magnitud)
+                    .append("\",\"PUNTO_MUESTREO\":\"28079").append(station).append('_')
+                    .append(magnitud).append("_48\",\"ANO\":\"2025\",\"MES\":\"11\",\"DIA\":\"20\"");
+            for (int h = 1; h <= 24; h++) {
+                String hh = h < 10 ? "0" + h : String.valueOf(h);
+                boolean valid = h <= validHours;
+                sb.append(",\"H").append(hh).append("\":\"")
+                        .append(valid ? String.valueOf(10 + (i + h) % 90) : "")
+                        .append("\",\"V").append(hh).append("\":\"")
+                        .append(valid ? 'V' : 'N').append('"');
+            }
+            sb.append('}');
+        }
+        sb.append("]}");
+        return sb.toString();
+    }
+}
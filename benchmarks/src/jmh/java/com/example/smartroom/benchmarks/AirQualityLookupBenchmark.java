@@ -0,0 +1,86 @@
+package com.example.smartroom.benchmarks;
+
+import com.example.smartroom.airQuality.model.AirQualityCatalog;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Per-record key work only: station/pollutant names, the 48 hour keys and the timestamp.
+// Legacy builds everything from Strings, the catalog works on the parsed int codes.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AirQualityLookupBenchmark {
+
+    private static final int RECORDS = 64;
+
+    private String[] estacionText;
+    private String[] magnitudText;
+    private int[] estacionCode;
+    private int[] magnitudCode;
+
+    @Setup
+    public void setUp() {
+        int[] stations = {4, 8, 11, 38, 55, 60, 99, 24};
+        int[] pollutants = {1, 6, 8, 9, 10, 14, 99};
+        estacionText = new String[RECORDS];
+        magnitudText = new String[RECORDS];
+        estacionCode = new int[RECORDS];
+        magnitudCode = new int[RECORDS];
+        for (int i = 0; i < RECORDS; i++) {
+            estacionCode[i] = stations[i % stations.length];
+            magnitudCode[i] = pollutants[i % pollutants.length];
+            estacionText[i] = String.valueOf(estacionCode[i]);
+            magnitudText[i] = (magnitudCode[i] < 10 ? "0" : "") + magnitudCode[i];
+        }
+    }
+
+    @Benchmark
+    public void legacyStrings(Blackhole bh) {
+        for (int i = 0; i < RECORDS; i++) {
+            String station = LegacyAirQualityParser.mapStation("28" + "079" + pad3(estacionText[i]));
+            bh.consume(station);
+            if (station == null) continue;
+            bh.consume(LegacyAirQualityParser.mapPollutant(magnitudText[i]));
+            for (int h = 24; h >= 1; h--) {
+                bh.consume(String.format("H%02d", h));
+                bh.consume(String.format("V%02d", h));
+            }
+            bh.consume("2025" + "-" + pad2("11") + "-" + pad2("5") + " " + pad2("7") + ":00");
+        }
+    }
+
+    @Benchmark
+    public void catalog(Blackhole bh) {
+        for (int i = 0; i < RECORDS; i++) {
+            String station = AirQualityCatalog.stationName(28, 79, estacionCode[i]);
+            bh.consume(station);
+            if (station == null) continue;
+            bh.consume(AirQualityCatalog.pollutantName(magnitudCode[i]));
+            for (int h = 24; h >= 1; h--) {
+                bh.consume(AirQualityCatalog.HOUR_KEYS[h]);
+                bh.consume(AirQualityCatalog.VALID_KEYS[h]);
+            }
+            bh.consume(2025 + "-" + AirQualityCatalog.twoDigits(11) + "-"
+                    + AirQualityCatalog.twoDigits(5) + " " + AirQualityCatalog.twoDigits(7) + ":00");
+        }
+    }
+
+    private static String pad2(String s) {
+        return (s.length() == 1) ? "0" + s : s;
+    }
+
+    private static String pad3(String s) {
+        if (s.length() == 1) return "00" + s;
+        if (s.length() == 2) return "0" + s;
+        return s;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.smartroom.benchmarks;
+
+import com.example.smartroom.airQuality.model.AirQualityItem;
+import com.example.smartroom.airQuality.model.AirQualityStreamParser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// One full refresh of the air-quality screen: response bytes -> rows
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AirQualityParseBenchmark {
+
+    private byte[] response;
+
+    @Setup
+    public void setUp() {
+        response = AirQualityFixture.response(5000).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<LegacyAirQualityParser.Row> legacyReadAndParse() throws Exception {
+        String json = LegacyAirQualityParser.readStream(new ByteArrayInputStream(response));
+        return LegacyAirQualityParser.parseJson(json);
+    }
+
+    @Benchmark
+    public List<AirQualityItem> streaming() throws Exception {
+        return AirQualityStreamParser.parseAll(new ByteArrayInputStream(response));
+    }
+
+    // Time-to-first-row: the streaming parser can hand a row over before the rest is read
+    @Benchmark
+    public AirQualityItem streamingFirstRow() throws Exception {
+        FirstRow first = new FirstRow();
+        try {
+            new AirQualityStreamParser().parse(new ByteArrayInputStream(response), first);
+        } catch (FirstRow.Stop ignored) {
+            // expected
+        }
+        return first.item;
+    }
+
+    private static final class FirstRow implements AirQualityStreamParser.Listener {
+        static final class Stop extends RuntimeException {
+            private static final long serialVersionUID = 1L;
+
+            Stop() { super(null, null, false, false); }
+        }
+
+        private static final Stop STOP = new Stop();
+
+        AirQualityItem item;
+
+        @Override
+        public void onItem(AirQualityItem item) {
+            this.item = item;
+            throw STOP;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.smartroom.benchmarks;
+
+import com.example.smartroom.subscriber.model.SensorData;
+
+// The split()-based parser SubscriberViewModel used before SensorJsonParser,
+// kept (minus logging) as the baseline for SensorParseBenchmark.
+class LegacySensorJsonParser {
+
+    static SensorData parse(String json) {
+        try {
+            json = json.replace("{", "").replace("}", "")
+                    .replace("[", "").replace("]", "");
+
+            String[] parts = json.split(",");
+
+            SensorData data = new SensorData();
+
+            for (String part : parts) {
+                String[] pair = part.split(":");
+                if (pair.length < 2) continue;
+
+                String key = pair[0].replace("\"", "").trim();
+                String value = pair[1].trim();
+
+                switch (key) {
+                    case "light":
+                        data.light = Float.parseFloat(value);
+                        break;
+                    case "ax":
+                        data.ax = Float.parseFloat(value);
+                        break;
+                    case "ay":
+                        data.ay = Float.parseFloat(value);
+                        break;
+                    case "az":
+                        data.az = Float.parseFloat(value);
+                        break;
+                    case "sound":
+                        data.sound = Float.parseFloat(value);
+                        break;
+                }
+            }
+
+            return data;
+
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
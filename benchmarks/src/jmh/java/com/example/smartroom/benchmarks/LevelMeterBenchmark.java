@@ -0,0 +1,42 @@
+package com.example.smartroom.benchmarks;
+
+import com.example.smartroom.audio.LevelMeter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Microphone metering: one 1024-sample PCM block (~23 ms at 44.1 kHz)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LevelMeterBenchmark {
+
+    private static final int BLOCK = 1024;
+
+    private final LevelMeter meter = new LevelMeter();
+    private final short[] pcm = new short[BLOCK];
+
+    @Setup
+    public void setUp() {
+        // Speech-like level: a 300 Hz tone with some noise on top
+        Random random = new Random(42);
+        for (int i = 0; i < BLOCK; i++) {
+            double tone = 0.2 * Math.sin(2 * Math.PI * 300 * i / 44_100.0);
+            pcm[i] = (short) (32767 * (tone + 0.02 * random.nextGaussian()));
+        }
+    }
+
+    @Benchmark
+    public float meterBlock() {
+        meter.process(pcm, BLOCK);
+        return meter.getBlockRms();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.smartroom.benchmarks;
+
+import com.example.smartroom.payload.SensorBinaryCodec;
+import com.example.smartroom.payload.SensorJsonEncoder;
+import com.example.smartroom.publisher.model.SensorSampleBuffer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// Publisher side: building one snapshot / one batch frame
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SensorEncodeBenchmark {
+
+    private static final int BATCH_SIZE = 128;
+
+    private final SensorJsonEncoder jsonEncoder = new SensorJsonEncoder();
+    private final SensorBinaryCodec binaryCodec = new SensorBinaryCodec();
+    private final SensorSampleBuffer batch = new SensorSampleBuffer(BATCH_SIZE);
+
+    private float lux = 312.75f;
+    private float ax = 0.0123f;
+    private float ay = -9.80665f;
+    private float az = 0.45f;
+    private float sound = 1534f;
+
+    @Setup
+    public void setUp() {
+        long t = 1_700_000_000_000L;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(t + i * 20L, lux + i, ax * i, ay, az - i, sound + i);
+        }
+    }
+
+    // The string concatenation publishCurrentSnapshot() used before SensorJsonEncoder
+    @Benchmark
+    public byte[] snapshotLegacyConcat() {
+        String payload = "{"
+                + "\"light\":" + lux + ","
+                + "\"ax\":" + ax + ","
+                + "\"ay\":" + ay + ","
+                + "\"az\":" + az + ","
+                + "\"sound\":" + sound
+                + "}";
+        return payload.getBytes();
+    }
+
+    @Benchmark
+    public byte[] snapshotJson() {
+        return jsonEncoder.encodeSnapshot(1_700_000_000_000L, lux, ax, ay, az, sound);
+    }
+
+    @Benchmark
+    public byte[] snapshotBinary() {
+        return binaryCodec.encodeSnapshot(1_700_000_000_000L, lux, ax, ay, az, sound);
+    }
+
+    @Benchmark
+    public byte[] batchJson() {
+        return jsonEncoder.encodeBatch(batch);
+    }
+
+    @Benchmark
+    public byte[] batchBinary() {
+        return binaryCodec.encodeBatch(batch);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.smartroom.benchmarks;
+
+import com.example.smartroom.payload.SensorBinaryCodec;
+import com.example.smartroom.payload.SensorJsonEncoder;
+import com.example.smartroom.payload.SensorJsonParser;
+import com.example.smartroom.subscriber.model.SensorData;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Subscriber side: one received snapshot message -> SensorData
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SensorParseBenchmark {
+
+    private byte[] jsonPayload;
+    private byte[] binaryPayload;
+
+    private final SensorJsonParser parser = new SensorJsonParser();
+    private final SensorData reused = new SensorData();
+
+    @Setup
+    public void setUp() {
+        jsonPayload = new SensorJsonEncoder()
+                .encodeSnapshot(1_700_000_000_000L, 312.75f, 0.0123f, -9.80665f, 0.45f, 1534f);
+        binaryPayload = new SensorBinaryCodec()
+                .encodeSnapshot(1_700_000_000_000L, 312.75f, 0.0123f, -9.80665f, 0.45f, 1534f);
+    }
+
+    // Includes the new String(bytes) the old callback did before parsing
+    @Benchmark
+    public SensorData legacySplit() {
+        return LegacySensorJsonParser.parse(new String(jsonPayload, StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public SensorData streamingJson() {
+        parser.parse(jsonPayload, reused);
+        return reused;
+    }
+
+    @Benchmark
+    public SensorData binary() {
+        SensorBinaryCodec.decode(binaryPayload, reused);
+        return reused;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.smartroom.benchmarks;
+
+import com.example.smartroom.audio.AcousticLevels;
+import com.example.smartroom.audio.SpectrumAnalyzer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Acoustic analysis: one 4096-sample frame (~93 ms at 44.1 kHz), i.e. one FFT
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SpectrumAnalyzerBenchmark {
+
+    private static final int FRAME = 4096;
+
+    private final SpectrumAnalyzer analyzer = new SpectrumAnalyzer(44_100, FRAME);
+    private final AcousticLevels levels = new AcousticLevels();
+    private final short[] pcm = new short[FRAME];
+
+    @Setup
+    public void setUp() {
+        // Speech-like level: a 300 Hz tone with some noise on top
+        Random random = new Random(42);
+        for (int i = 0; i < FRAME; i++) {
+            double tone = 0.2 * Math.sin(2 * Math.PI * 300 * i / 44_100.0);
+            pcm[i] = (short) (32767 * (tone + 0.02 * random.nextGaussian()));
+        }
+    }
+
+    @Benchmark
+    public float analyzeFrame() {
+        analyzer.process(pcm, FRAME);
+        analyzer.getLevels(levels);
+        analyzer.reset();
+        return levels.laeq;
+    }
+}
@@ -0,0 +1,24 @@
+// Plain-Java code shared by the app and the JVM benchmarks (no Android APIs here)
+plugins {
+    `java-library`
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+dependencies {
+    // Shared broker connection (plain Java, same client as the app)
+    implementation("com.hivemq:hivemq-mqtt-client:1.3.0")
+
+    testImplementation(libs.junit)
+    // Spool and connection tests run against a real broker on localhost
+    testImplementation("io.moquette:moquette-broker:0.17")
+    // Moquette only speaks MQTT 3; the MQTT 5 tests use an embedded HiveMQ CE
+    testImplementation("com.hivemq:hivemq-community-edition-embedded:2024.3")
+}
@@ -0,0 +1,115 @@
+package com.example.smartroom.airQuality.model;
+
+import java.util.TimeZone;
+
+/**
+ * Station and pollutant names of the Madrid network, built once into arrays
+ * indexed by their integer codes, plus the interned field names of a record.
+ * Lookups are an array index; nothing is concatenated or formatted per record.
+ */
+public final class AirQualityCatalog {
+
+    // Madrid city: PROVINCIA 28, MUNICIPIO 079
+    public static final int MADRID_PROVINCIA = 28;
+    public static final int MADRID_MUNICIPIO = 79;
+
+    // The feed's dates and hours are local Madrid time
+    public static final TimeZone TIME_ZONE = TimeZone.getTimeZone("Europe/Madrid");
+
+    // ESTACION and MAGNITUD codes are at most two digits
+    private static final int MAX_CODE = 100;
+
+    private static final String[] STATIONS = new String[MAX_CODE];
+    private static final String[] POLLUTANTS = new String[MAX_CODE];
+
+    // "00".."99", used for months, days and hours
+    private static final String[] TWO_DIGITS = new String[MAX_CODE];
+
+    // Record field names; the hour keys are interned constants instead of String.format() calls
+    public static final String[] HOUR_KEYS = new String[25];   // H01..H24 at 1..24
+    public static final String[] VALID_KEYS = new String[25];  // V01..V24 at 1..24
+
+    static {
+        for (int i = 0; i < MAX_CODE; i++) {
+            TWO_DIGITS[i] = (i < 10 ? "0" : "") + i;
+        }
+        for (int h = 1; h <= 24; h++) {
+            HOUR_KEYS[h] = ("H" + TWO_DIGITS[h]).intern();
+            VALID_KEYS[h] = ("V" + TWO_DIGITS[h]).intern();
+        }
+
+        STATIONS[1]  = "Pza. Recoletos";
+        STATIONS[3]  = "Pza. del Carmen";
+        STATIONS[4]  = "Pza. de España";
+        STATIONS[7]  = "Pza. M. de Salamanca";
+        STATIONS[8]  = "Escuelas Aguirre";
+        STATIONS[22] = "Pº Pontones";
+        STATIONS[23] = "Final C/ Alcalá";
+        STATIONS[26] = "Urb. Embajada (Barajas)";
+        STATIONS[38] = "Pza. Castilla";
+        STATIONS[39] = "Plaza de Fdez. Ladreda";
+        STATIONS[40] = "Cuatro Caminos";
+        STATIONS[47] = "Méndez Álvaro";
+        STATIONS[48] = "Pza. Castilla II";
+        STATIONS[49] = "Arturo Soria";
+        STATIONS[50] = "Barrio del Pilar";
+        STATIONS[54] = "Ensanche Vallecas";
+        STATIONS[55] = "Plaza Elíptica";
+        STATIONS[56] = "Moratalaz";
+        STATIONS[57] = "Pza. Fernández Ladreda II";
+        STATIONS[58] = "Sanchinarro";
+        STATIONS[59] = "Parque Juan Carlos I";
+        STATIONS[60] = "Tres Olivos";
+        // add more if you want full coverage
+
+        for (int i = 0; i < MAX_CODE; i++) {
+            POLLUTANTS[i] = "Magnitud " + TWO_DIGITS[i];
+        }
+        POLLUTANTS[1]  = "SO₂ (Dióxido de Azufre)";
+        POLLUTANTS[6]  = "CO (Monóxido de Carbono)";
+        POLLUTANTS[7]  = "NO (Monóxido de Nitrógeno)";
+        POLLUTANTS[8]  = "NO₂ (Dióxido de Nitrógeno)";
+        POLLUTANTS[9]  = "PM2.5 (Partículas < 2.5 µm)";
+        POLLUTANTS[10] = "PM10 (Partículas < 10 µm)";
+        POLLUTANTS[12] = "NOx (Óxidos de Nitrógeno)";
+        POLLUTANTS[14] = "O₃ (Ozono)";
+    }
+
+    private AirQualityCatalog() {}
+
+    /** Display name of a station, or null for stations we do not show. */
+    public static String stationName(int provincia, int municipio, int estacion) {
+        if (provincia != MADRID_PROVINCIA || municipio != MADRID_MUNICIPIO) return null;
+        if (estacion < 0 || estacion >= MAX_CODE) return null;
+        return STATIONS[estacion];
+    }
+
+    public static String pollutantName(int magnitud) {
+        if (magnitud < 0 || magnitud >= MAX_CODE) return "Magnitud " + magnitud;
+        return POLLUTANTS[magnitud];
+    }
+
+    /** "00".."99" for 0..99; any other value as plain digits (negative = unknown = ""). */
+    public static String twoDigits(int value) {
+        if (value < 0) return "";
+        return value < MAX_CODE ? TWO_DIGITS[value] : String.valueOf(value);
+    }
+
+    /** Epoch seconds of a local Madrid date and hour (0..23), without a Calendar per record. */
+    public static long epochSeconds(int year, int month, int day, int hour) {
+        long localMs = (daysFromCivil(year, month, day) * 24L + hour) * 3600_000L;
+        // Offset at roughly that instant; only the DST switch hour itself can be off
+        int offset = TIME_ZONE.getOffset(localMs - TIME_ZONE.getRawOffset());
+        return (localMs - offset) / 1000L;
+    }
+
+    // Days since 1970-01-01 in the proleptic Gregorian calendar (H. Hinnant's algorithm)
+    private static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yoe = y - era * 400;
+        int doy = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097L + doe - 719468;
+    }
+}
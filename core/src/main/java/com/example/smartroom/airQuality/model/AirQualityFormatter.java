@@ -0,0 +1,43 @@
+package com.example.smartroom.airQuality.model;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Turns an {@link AirQualityItem} into the texts shown on screen.
+ * Not thread-safe (it reuses one date format); use it from the UI thread.
+ */
+public class AirQualityFormatter {
+
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.US);
+    private final Date date = new Date();
+
+    public AirQualityFormatter() {
+        dateFormat.setTimeZone(AirQualityCatalog.TIME_ZONE);
+    }
+
+    public String station(AirQualityItem item) {
+        String name = AirQualityCatalog.stationName(
+                AirQualityCatalog.MADRID_PROVINCIA, AirQualityCatalog.MADRID_MUNICIPIO,
+                item.getStationId());
+        return name != null ? name : "Estación " + item.getStationId();
+    }
+
+    public String pollutant(AirQualityItem item) {
+        return AirQualityCatalog.pollutantName(item.getPollutantId());
+    }
+
+    // "24 µg/m³", "19.5 µg/m³"
+    public String value(AirQualityItem item) {
+        float v = item.getValue();
+        String number = (v == (int) v) ? Integer.toString((int) v) : Float.toString(v);
+        return number + " µg/m³";
+    }
+
+    // Local Madrid time, "2025-11-20 13:00"
+    public String timestamp(AirQualityItem item) {
+        date.setTime(item.getTimestamp() * 1000L);
+        return dateFormat.format(date);
+    }
+}
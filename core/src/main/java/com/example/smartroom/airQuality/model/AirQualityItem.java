@@ -0,0 +1,56 @@
+package com.example.smartroom.airQuality.model;
+
+/**
+ * One reading of the Madrid network, kept numeric so it can be sorted,
+ * thresholded and compared without reparsing. Display text is produced by
+ * {@link AirQualityFormatter} when a row is shown.
+ */
+public class AirQualityItem {
+    private final int stationId;    // ESTACION code, see AirQualityCatalog.stationName()
+    private final int pollutantId;  // MAGNITUD code, see AirQualityCatalog.pollutantName()
+    private final float value;      // µg/m³
+    private final long timestamp;   // epoch seconds, start of the measured hour
+
+    public AirQualityItem(int stationId, int pollutantId, float value, long timestamp) {
+        this.stationId = stationId;
+        this.pollutantId = pollutantId;
+        this.value = value;
+        this.timestamp = timestamp;
+    }
+
+    public int getStationId() {
+        return stationId;
+    }
+
+    public int getPollutantId() {
+        return pollutantId;
+    }
+
+    public float getValue() {
+        return value;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AirQualityItem)) return false;
+        AirQualityItem other = (AirQualityItem) o;
+        return stationId == other.stationId
+                && pollutantId == other.pollutantId
+                && Float.compare(value, other.value) == 0
+                && timestamp == other.timestamp;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = stationId;
+        result = 31 * result + pollutantId;
+        result = 31 * result + Float.floatToIntBits(value);
+        result = 31 * result + Long.hashCode(timestamp);
+        return result;
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.smartroom.airQuality.model;
+
+import com.example.smartroom.helpers.CancellationToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Fetches the air-quality feed with conditional GETs on top of an on-disk
+ * snapshot of the last good result.
+ *
+ * The feed only changes hourly, so a refresh usually ends in a 304 and
+ * costs a handshake instead of a multi-megabyte download.
+ */
+public class AirQualityRepository {
+
+    public enum Outcome {
+        // 200: new rows were streamed to the listener and saved
+        UPDATED,
+        // 304: the cached snapshot is still current, the listener was not called
+        NOT_MODIFIED
+    }
+
+    public static class HttpStatusException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public final int code;
+
+        public HttpStatusException(int code) {
+            super("HTTP error: " + code);
+            this.code = code;
+        }
+    }
+
+    private static final int CONNECT_TIMEOUT_MS = 10000;
+    private static final int READ_TIMEOUT_MS = 15000;
+
+    private final String url;
+    private final AirQualitySnapshotStore store;
+
+    // Validators of the snapshot we hold (loaded lazily from disk)
+    private AirQualitySnapshotStore.Snapshot current;
+    private boolean loadedFromDisk = false;
+
+    public AirQualityRepository(String url, AirQualitySnapshotStore store) {
+        this.url = url;
+        this.store = store;
+    }
+
+    /** Last saved rows, or null if nothing is cached yet. Reads the disk once. */
+    public synchronized List<AirQualityItem> getCached() {
+        ensureLoaded();
+        return current != null ? current.items : null;
+    }
+
+    /**
+     * Revalidates against the server. On 200 the rows are streamed to
+     * {@code listener} as they are parsed and saved once the body is complete.
+     */
+    public Outcome refresh(AirQualityStreamParser.Listener listener) throws IOException {
+        return refresh(listener, new CancellationToken());
+    }
+
+    /**
+     * Same as {@link #refresh(AirQualityStreamParser.Listener)}, but cancelling
+     * {@code token} drops the connection and ends the call with a
+     * CancellationException. On Android disconnect() also unblocks a read that
+     * is in progress. A cancelled download is never saved.
+     */
+    public Outcome refresh(AirQualityStreamParser.Listener listener, CancellationToken token)
+            throws IOException {
+        AirQualitySnapshotStore.Snapshot cached;
+        synchronized (this) {
+            ensureLoaded();
+            cached = current;
+        }
+
+        HttpURLConnection connection = null;
+        try {
+            token.throwIfCancelled();
+            connection = (HttpURLConnection) new URL(url).openConnection();
+            token.setOnCancel(connection::disconnect);
+            connection.setRequestMethod("GET");
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+            connection.setReadTimeout(READ_TIMEOUT_MS);
+            // We do the revalidation ourselves
+            connection.setUseCaches(false);
+
+            if (cached != null) {
+                if (cached.etag != null) {
+                    connection.setRequestProperty("If-None-Match", cached.etag);
+                }
+                if (cached.lastModified != null) {
+                    connection.setRequestProperty("If-Modified-Since", cached.lastModified);
+                }
+            }
+
+            int responseCode = getResponseCode(connection, token);
+            if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+                return Outcome.NOT_MODIFIED;
+            }
+            if (responseCode != HttpURLConnection.HTTP_OK) {
+                throw new HttpStatusException(responseCode);
+            }
+
+            List<AirQualityItem> items = new ArrayList<>();
+            try (InputStream in = connection.getInputStream()) {
+                new AirQualityStreamParser().parse(in, item -> {
+                    token.throwIfCancelled();
+                    items.add(item);
+                    listener.onItem(item);
+                });
+            } catch (IOException e) {
+                // Reads fail with an IOException once disconnect() kicked in
+                token.throwIfCancelled();
+                throw e;
+            }
+            token.throwIfCancelled();
+
+            // Only a complete body replaces the snapshot
+            AirQualitySnapshotStore.Snapshot fresh = new AirQualitySnapshotStore.Snapshot(
+                    Collections.unmodifiableList(items),
+                    connection.getHeaderField("ETag"),
+                    connection.getHeaderField("Last-Modified"),
+                    System.currentTimeMillis()
+            );
+            synchronized (this) {
+                current = fresh;
+            }
+            try {
+                store.save(fresh);
+            } catch (IOException ignored) {
+                // Still fine in memory; the next refresh will just download again
+            }
+            return Outcome.UPDATED;
+        } finally {
+            token.setOnCancel(null);
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    private static int getResponseCode(HttpURLConnection connection, CancellationToken token)
+            throws IOException {
+        try {
+            return connection.getResponseCode();
+        } catch (IOException e) {
+            token.throwIfCancelled();
+            throw e;
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loadedFromDisk) return;
+        current = store.load();
+        loadedFromDisk = true;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.smartroom.airQuality.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Keeps the last parsed air-quality list on disk together with the HTTP
+ * validators (ETag / Last-Modified) it was served with.
+ *
+ * Format: magic, version, validators, then one fixed-size numeric row per
+ * item (station id, pollutant id, value, epoch seconds). Writes go to a temp
+ * file that is renamed over the old one.
+ */
+public class AirQualitySnapshotStore {
+
+    private static final int MAGIC = 0x53524151; // "SRAQ"
+    private static final int VERSION = 2;
+    private static final int ROW_SIZE = 2 + 2 + 4 + 8;
+
+    public static class Snapshot {
+        public final List<AirQualityItem> items;
+        public final String etag;          // null if the server sent none
+        public final String lastModified;  // null if the server sent none
+        public final long savedAtMs;
+
+        public Snapshot(List<AirQualityItem> items, String etag, String lastModified, long savedAtMs) {
+            this.items = items;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.savedAtMs = savedAtMs;
+        }
+    }
+
+    private final File file;
+
+    public AirQualitySnapshotStore(File file) {
+        this.file = file;
+    }
+
+    /** Returns the stored snapshot, or null if there is none or it is unreadable. */
+    public synchronized Snapshot load() {
+        if (!file.isFile()) return null;
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) return null;
+
+            String etag = readNullable(in);
+            String lastModified = readNullable(in);
+            long savedAt = in.readLong();
+
+            // A corrupt count must not size the list: it cannot exceed the file
+            int count = in.readInt();
+            if (count < 0 || count > file.length() / ROW_SIZE) return null;
+            List<AirQualityItem> items = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int station = in.readUnsignedShort();
+                int pollutant = in.readUnsignedShort();
+                float value = in.readFloat();
+                long timestamp = in.readLong();
+                items.add(new AirQualityItem(station, pollutant, value, timestamp));
+            }
+            return new Snapshot(Collections.unmodifiableList(items), etag, lastModified, savedAt);
+        } catch (IOException | RuntimeException e) {
+            // Corrupt or from an older app version: behave as if there was no cache
+            return null;
+        }
+    }
+
+    public synchronized void save(Snapshot snapshot) throws IOException {
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        File tmp = new File(file.getPath() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeNullable(out, snapshot.etag);
+            writeNullable(out, snapshot.lastModified);
+            out.writeLong(snapshot.savedAtMs);
+
+            out.writeInt(snapshot.items.size());
+            for (AirQualityItem item : snapshot.items) {
+                // ESTACION / MAGNITUD codes are small, two bytes each
+                out.writeShort(item.getStationId());
+                out.writeShort(item.getPollutantId());
+                out.writeFloat(item.getValue());
+                out.writeLong(item.getTimestamp());
+            }
+        }
+
+        if (!tmp.renameTo(file)) {
+            // Some filesystems refuse to rename over an existing file
+            if (!file.delete() || !tmp.renameTo(file)) {
+                tmp.delete();
+                throw new IOException("Cannot replace " + file);
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        file.delete();
+    }
+
+    private static void writeNullable(DataOutputStream out, String s) throws IOException {
+        out.writeBoolean(s != null);
+        if (s != null) out.writeUTF(s);
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.smartroom.airQuality.model;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming version of the Madrid "calair_tiemporeal" parser.
+ *
+ * Records are read one at a time straight from the HTTP stream; as soon as the
+ * station code is known and not one we show, the rest of the record is skipped.
+ * Matching rows are handed to the {@link Listener} while the download is still
+ * going, so nothing but the current record is ever held in memory.
+ */
+public class AirQualityStreamParser {
+
+    public interface Listener {
+        void onItem(AirQualityItem item);
+    }
+
+    // Record fields, matched by index instead of by String
+    private static final int PROVINCIA = 0;
+    private static final int MUNICIPIO = 1;
+    private static final int ESTACION = 2;
+    private static final int MAGNITUD = 3;
+    private static final int ANO = 4;
+    private static final int MES = 5;
+    private static final int DIA = 6;
+    private static final int FIRST_HOUR = 7;       // H01..H24 at 7..30
+    private static final int FIRST_VALID = 7 + 24;  // V01..V24 at 31..54
+
+    private static final JsonStreamReader.Names FIELDS = buildFields();
+    private static final JsonStreamReader.Names ROOT = JsonStreamReader.names("records");
+
+    private static final int UNKNOWN = -1;
+
+    // Per-record scratch, reused between records
+    private final StringBuilder[] hourValues = new StringBuilder[25]; // index 1..24
+    private final boolean[] hourValid = new boolean[25];
+
+    private int provincia;
+    private int municipio;
+    private int estacion;
+    private int magnitud;
+    private int year;
+    private int month;
+    private int day;
+
+    public AirQualityStreamParser() {
+        for (int h = 1; h <= 24; h++) {
+            hourValues[h] = new StringBuilder(8);
+        }
+    }
+
+    public static List<AirQualityItem> parseAll(InputStream inputStream) throws IOException {
+        List<AirQualityItem> list = new ArrayList<>();
+        new AirQualityStreamParser().parse(inputStream, list::add);
+        return list;
+    }
+
+    public void parse(InputStream inputStream, Listener listener) throws IOException {
+        JsonStreamReader reader = new JsonStreamReader(new InputStreamReader(
+                new BufferedInputStream(inputStream), StandardCharsets.UTF_8));
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName(ROOT) == 0
+                    && reader.peek() == JsonStreamReader.Token.BEGIN_ARRAY) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    AirQualityItem item = readRecord(reader);
+                    if (item != null) {
+                        listener.onItem(item);
+                    }
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    // Returns null for stations we do not show or records without a validated hour
+    private AirQualityItem readRecord(JsonStreamReader reader) throws IOException {
+        if (reader.peek() != JsonStreamReader.Token.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+
+        resetRecord();
+        String stationName = null;
+        boolean skipRest = false;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            int field = reader.nextName(FIELDS);
+
+            // Unknown station: skip the remaining fields without decoding them
+            if (skipRest) {
+                reader.skipValue();
+                continue;
+            }
+
+            if (field >= FIRST_VALID) {
+                hourValid[field - FIRST_VALID + 1] = reader.nextStringEquals("V");
+                continue;
+            }
+            if (field >= FIRST_HOUR) {
+                reader.nextString(hourValues[field - FIRST_HOUR + 1]);
+                continue;
+            }
+
+            switch (field) {
+                case PROVINCIA: provincia = reader.nextInt(UNKNOWN); break;
+                case MUNICIPIO: municipio = reader.nextInt(UNKNOWN); break;
+                case ESTACION:  estacion = reader.nextInt(UNKNOWN); break;
+                case MAGNITUD:  magnitud = reader.nextInt(UNKNOWN); break;
+                case ANO:       year = reader.nextInt(UNKNOWN); break;
+                case MES:       month = reader.nextInt(UNKNOWN); break;
+                case DIA:       day = reader.nextInt(UNKNOWN); break;
+                default:        reader.skipValue(); break;
+            }
+
+            if (stationName == null && field <= ESTACION && provincia != UNKNOWN
+                    && municipio != UNKNOWN && estacion != UNKNOWN) {
+                stationName = AirQualityCatalog.stationName(provincia, municipio, estacion);
+                skipRest = stationName == null;
+            }
+        }
+        reader.endObject();
+
+        if (stationName == null || magnitud == UNKNOWN) return null;
+        if (year == UNKNOWN || month == UNKNOWN || day == UNKNOWN) return null;
+
+        // Latest hour of the day with a validated value
+        for (int h = 24; h >= 1; h--) {
+            StringBuilder hVal = hourValues[h];
+            if (!hourValid[h] || hVal.length() == 0) continue;
+            float value;
+            try {
+                value = Float.parseFloat(hVal.toString());
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            // Hxx covers hour xx-1 (0–23 style)
+            return new AirQualityItem(estacion, magnitud, value,
+                    AirQualityCatalog.epochSeconds(year, month, day, h - 1));
+        }
+        return null;
+    }
+
+    private void resetRecord() {
+        provincia = municipio = estacion = magnitud = UNKNOWN;
+        year = month = day = UNKNOWN;
+        for (int h = 1; h <= 24; h++) {
+            hourValues[h].setLength(0);
+            hourValid[h] = false;
+        }
+    }
+
+    private static JsonStreamReader.Names buildFields() {
+        String[] names = new String[FIRST_VALID + 24];
+        names[PROVINCIA] = "PROVINCIA";
+        names[MUNICIPIO] = "MUNICIPIO";
+        names[ESTACION] = "ESTACION";
+        names[MAGNITUD] = "MAGNITUD";
+        names[ANO] = "ANO";
+        names[MES] = "MES";
+        names[DIA] = "DIA";
+        for (int h = 1; h <= 24; h++) {
+            names[FIRST_HOUR + h - 1] = AirQualityCatalog.HOUR_KEYS[h];
+            names[FIRST_VALID + h - 1] = AirQualityCatalog.VALID_KEYS[h];
+        }
+        return JsonStreamReader.names(names);
+    }
+}
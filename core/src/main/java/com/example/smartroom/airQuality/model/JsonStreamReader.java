@@ -0,0 +1,378 @@
+package com.example.smartroom.airQuality.model;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Minimal pull-style JSON tokenizer, modelled on android.util.JsonReader but
+ * usable on the plain JVM. Reads through a fixed char buffer, so memory stays
+ * flat no matter how large the document is.
+ *
+ * Scalars are returned as their literal text: nextString() works for strings,
+ * numbers and booleans alike, and null comes back as "".
+ */
+public class JsonStreamReader {
+
+    public enum Token { BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, VALUE, END_DOCUMENT }
+
+    /**
+     * A fixed set of expected names, hashed once, so {@link #nextName(Names)}
+     * can match a field without creating a String for it.
+     */
+    public static final class Names {
+        private final String[] names;
+        private final int[] slots; // index + 1, 0 = empty
+        private final int mask;
+
+        private Names(String[] names) {
+            this.names = names.clone();
+            int size = Integer.highestOneBit(Math.max(4, names.length * 4) - 1) << 1;
+            slots = new int[size];
+            mask = size - 1;
+            for (int i = 0; i < names.length; i++) {
+                int slot = hash(names[i]) & mask;
+                while (slots[slot] != 0) slot = (slot + 1) & mask;
+                slots[slot] = i + 1;
+            }
+        }
+
+        int indexOf(CharSequence text) {
+            int slot = hash(text) & mask;
+            while (true) {
+                int entry = slots[slot];
+                if (entry == 0) return -1;
+                if (names[entry - 1].contentEquals(text)) return entry - 1;
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        private static int hash(CharSequence s) {
+            int h = 0;
+            for (int i = 0; i < s.length(); i++) h = 31 * h + s.charAt(i);
+            return h ^ (h >>> 16);
+        }
+    }
+
+    public static Names names(String... names) {
+        return new Names(names);
+    }
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader in;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int pos = 0;
+    private int limit = 0;
+
+    // Scratch for string / literal text
+    private final StringBuilder text = new StringBuilder(64);
+
+    // Container stack: true = object, false = array
+    private boolean[] stack = new boolean[32];
+    private int depth = 0;
+    // In an object: is the next token a name?
+    private boolean expectName = false;
+    // First element of the current container still to come?
+    private boolean first = true;
+
+    public JsonStreamReader(Reader in) {
+        this.in = in;
+    }
+
+    // ---- Structure ----
+
+    public void beginObject() throws IOException {
+        consumeSeparator();
+        expect('{');
+        push(true);
+    }
+
+    public void endObject() throws IOException {
+        skipWhitespace();
+        expect('}');
+        pop();
+    }
+
+    public void beginArray() throws IOException {
+        consumeSeparator();
+        expect('[');
+        push(false);
+    }
+
+    public void endArray() throws IOException {
+        skipWhitespace();
+        expect(']');
+        pop();
+    }
+
+    public boolean hasNext() throws IOException {
+        skipWhitespace();
+        if (!fill(1)) return false;
+        char c = buffer[pos];
+        return c != '}' && c != ']';
+    }
+
+    public Token peek() throws IOException {
+        if (depth > 0 && !first) {
+            skipWhitespace();
+            if (fill(1) && (buffer[pos] == '}' || buffer[pos] == ']')) {
+                return buffer[pos] == '}' ? Token.END_OBJECT : Token.END_ARRAY;
+            }
+        }
+        consumeSeparatorPeek();
+        if (!fill(1)) return Token.END_DOCUMENT;
+        char c = buffer[pos];
+        switch (c) {
+            case '{': return Token.BEGIN_OBJECT;
+            case '}': return Token.END_OBJECT;
+            case '[': return Token.BEGIN_ARRAY;
+            case ']': return Token.END_ARRAY;
+            default:  return inObject() && expectName ? Token.NAME : Token.VALUE;
+        }
+    }
+
+    // ---- Names and values ----
+
+    public String nextName() throws IOException {
+        if (!inObject() || !expectName) throw syntaxError("Expected a name");
+        consumeSeparator();
+        expect('"');
+        readStringBody();
+        skipWhitespace();
+        expect(':');
+        expectName = false;
+        return text.toString();
+    }
+
+    /** Reads the next name and returns its index in {@code names}, or -1 if it is not one of them. */
+    public int nextName(Names names) throws IOException {
+        if (!inObject() || !expectName) throw syntaxError("Expected a name");
+        consumeSeparator();
+        expect('"');
+        readStringBody();
+        skipWhitespace();
+        expect(':');
+        expectName = false;
+        return names.indexOf(text);
+    }
+
+    public String nextString() throws IOException {
+        readScalar();
+        return text.toString();
+    }
+
+    /** Appends the next scalar's text to {@code out} (after clearing it) without creating a String. */
+    public void nextString(StringBuilder out) throws IOException {
+        readScalar();
+        out.setLength(0);
+        out.append(text);
+    }
+
+    public boolean nextStringEquals(String expected) throws IOException {
+        readScalar();
+        return expected.contentEquals(text);
+    }
+
+    /**
+     * Reads the next scalar as a non-negative integer ("28", 28 and "079" all work).
+     * Returns {@code fallback} if it is empty or not all digits.
+     */
+    public int nextInt(int fallback) throws IOException {
+        readScalar();
+        int n = text.length();
+        if (n == 0 || n > 9) return fallback;
+        int value = 0;
+        for (int i = 0; i < n; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') return fallback;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /** Skips the next value, including whole objects and arrays, without building Strings. */
+    public void skipValue() throws IOException {
+        consumeSeparator();
+        if (!fill(1)) throw syntaxError("Unexpected end of input");
+        char c = buffer[pos];
+        if (c == '{' || c == '[') {
+            int nesting = 0;
+            do {
+                if (!fill(1)) throw syntaxError("Unterminated container");
+                char b = buffer[pos++];
+                if (b == '"') {
+                    skipStringBody();
+                } else if (b == '{' || b == '[') {
+                    nesting++;
+                } else if (b == '}' || b == ']') {
+                    nesting--;
+                }
+            } while (nesting > 0);
+            afterValue();
+        } else if (c == '"') {
+            pos++;
+            skipStringBody();
+            afterValue();
+        } else {
+            while (fill(1) && !isDelimiter(buffer[pos])) pos++;
+            afterValue();
+        }
+    }
+
+    // ---- Internals ----
+
+    private void readScalar() throws IOException {
+        if (inObject() && expectName) throw syntaxError("Expected a value");
+        consumeSeparator();
+        if (!fill(1)) throw syntaxError("Unexpected end of input");
+
+        text.setLength(0);
+        char c = buffer[pos];
+        if (c == '"') {
+            pos++;
+            readStringBody();
+        } else if (c == '{' || c == '[') {
+            throw syntaxError("Expected a scalar");
+        } else {
+            while (fill(1) && !isDelimiter(buffer[pos])) {
+                text.append(buffer[pos++]);
+            }
+            if (text.length() == 0) throw syntaxError("Expected a value");
+            if ("null".contentEquals(text)) text.setLength(0);
+        }
+        afterValue();
+    }
+
+    // Called after the opening quote; appends the decoded string to text
+    private void readStringBody() throws IOException {
+        text.setLength(0);
+        while (true) {
+            if (!fill(1)) throw syntaxError("Unterminated string");
+            char c = buffer[pos++];
+            if (c == '"') return;
+            if (c != '\\') {
+                text.append(c);
+                continue;
+            }
+            if (!fill(1)) throw syntaxError("Unterminated escape");
+            char e = buffer[pos++];
+            switch (e) {
+                case 'n': text.append('\n'); break;
+                case 't': text.append('\t'); break;
+                case 'r': text.append('\r'); break;
+                case 'b': text.append('\b'); break;
+                case 'f': text.append('\f'); break;
+                case 'u':
+                    if (!fill(4)) throw syntaxError("Bad unicode escape");
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(buffer[pos++], 16);
+                        if (digit < 0) throw syntaxError("Bad unicode escape");
+                        code = (code << 4) | digit;
+                    }
+                    text.append((char) code);
+                    break;
+                default: text.append(e); // \" \\ \/
+            }
+        }
+    }
+
+    private void skipStringBody() throws IOException {
+        while (true) {
+            if (!fill(1)) throw syntaxError("Unterminated string");
+            char c = buffer[pos++];
+            if (c == '"') return;
+            if (c == '\\') {
+                // The escaped char may not be buffered yet
+                if (!fill(1)) throw syntaxError("Unterminated escape");
+                pos++;
+            }
+        }
+    }
+
+    // Eats the ',' between elements (if any) and leading whitespace
+    private void consumeSeparator() throws IOException {
+        skipWhitespace();
+        if (depth > 0 && !first && (!inObject() || expectName)) {
+            expect(',');
+            skipWhitespace();
+        }
+        first = false;
+    }
+
+    // Same as consumeSeparator() but leaves the "first" flag alone
+    private void consumeSeparatorPeek() throws IOException {
+        skipWhitespace();
+        if (depth > 0 && !first && (!inObject() || expectName)
+                && fill(1) && buffer[pos] == ',') {
+            pos++;
+            skipWhitespace();
+            first = true;
+        }
+    }
+
+    private void afterValue() {
+        if (inObject()) expectName = true;
+    }
+
+    private void push(boolean object) {
+        if (depth == stack.length) {
+            boolean[] bigger = new boolean[depth * 2];
+            System.arraycopy(stack, 0, bigger, 0, depth);
+            stack = bigger;
+        }
+        stack[depth++] = object;
+        expectName = object;
+        first = true;
+    }
+
+    private void pop() {
+        depth--;
+        first = false;
+        afterValue();
+    }
+
+    private boolean inObject() {
+        return depth > 0 && stack[depth - 1];
+    }
+
+    private void skipWhitespace() throws IOException {
+        while (fill(1)) {
+            char c = buffer[pos];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') return;
+            pos++;
+        }
+    }
+
+    private void expect(char c) throws IOException {
+        if (!fill(1) || buffer[pos] != c) {
+            throw syntaxError("Expected '" + c + "'");
+        }
+        pos++;
+    }
+
+    // Makes sure at least n chars are buffered; false at end of input
+    private boolean fill(int n) throws IOException {
+        if (limit - pos >= n) return true;
+        if (pos > 0) {
+            System.arraycopy(buffer, pos, buffer, 0, limit - pos);
+            limit -= pos;
+            pos = 0;
+        }
+        while (limit < n) {
+            int read = in.read(buffer, limit, buffer.length - limit);
+            if (read < 0) return false;
+            limit += read;
+        }
+        return true;
+    }
+
+    private static boolean isDelimiter(char c) {
+        return c == ',' || c == '}' || c == ']' || c == ':'
+                || c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    private IOException syntaxError(String message) {
+        return new IOException("Malformed JSON: " + message);
+    }
+}
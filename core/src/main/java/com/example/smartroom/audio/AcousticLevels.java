@@ -0,0 +1,34 @@
+package com.example.smartroom.audio;
+
+import java.util.Arrays;
+
+/**
+ * A-weighted equivalent level (LAeq) and unweighted octave-band levels over
+ * some period, all in dB re full scale like {@link LevelMeter}. Adding one
+ * per-device offset turns them into dB SPL once the microphone is calibrated.
+ *
+ * Mutable so the capture path can refill one instance instead of allocating.
+ */
+public final class AcousticLevels {
+
+    public static final int BAND_COUNT = 8;
+
+    // Nominal octave centres; the band edges use the exact 1000·2^n centres
+    private static final int[] BAND_CENTERS_HZ = {63, 125, 250, 500, 1000, 2000, 4000, 8000};
+
+    public float laeq = LevelMeter.FLOOR_DBFS;
+    public final float[] bands = new float[BAND_COUNT];
+
+    public AcousticLevels() {
+        Arrays.fill(bands, LevelMeter.FLOOR_DBFS);
+    }
+
+    public static int bandCenterHz(int band) {
+        return BAND_CENTERS_HZ[band];
+    }
+
+    public void set(AcousticLevels other) {
+        laeq = other.laeq;
+        System.arraycopy(other.bands, 0, bands, 0, BAND_COUNT);
+    }
+}
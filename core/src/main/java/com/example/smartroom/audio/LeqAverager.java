@@ -0,0 +1,42 @@
+package com.example.smartroom.audio;
+
+import java.util.Arrays;
+
+/**
+ * Energy average of equal-length {@link AcousticLevels} periods, so an
+ * aggregation window reports a true Leq rather than the mean of its decibels.
+ */
+public final class LeqAverager {
+
+    private double sumA = 0.0;
+    private final double[] sumBands = new double[AcousticLevels.BAND_COUNT];
+    private int count = 0;
+
+    public void add(AcousticLevels levels) {
+        sumA += toPower(levels.laeq);
+        for (int b = 0; b < AcousticLevels.BAND_COUNT; b++) {
+            sumBands[b] += toPower(levels.bands[b]);
+        }
+        count++;
+    }
+
+    public void reset() {
+        sumA = 0.0;
+        Arrays.fill(sumBands, 0.0);
+        count = 0;
+    }
+
+    public int getCount() { return count; }
+
+    /** The average into {@code out}; floor levels while nothing was added. */
+    public void getAverage(AcousticLevels out) {
+        out.laeq = count == 0 ? LevelMeter.FLOOR_DBFS : SpectrumAnalyzer.powerToDb(sumA / count);
+        for (int b = 0; b < AcousticLevels.BAND_COUNT; b++) {
+            out.bands[b] = count == 0 ? LevelMeter.FLOOR_DBFS : SpectrumAnalyzer.powerToDb(sumBands[b] / count);
+        }
+    }
+
+    private static double toPower(float db) {
+        return db <= LevelMeter.FLOOR_DBFS ? 0.0 : Math.pow(10.0, db / 10.0);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.smartroom.audio;
+
+/**
+ * RMS and peak level of 16-bit PCM, per block and over a metering period.
+ *
+ * Levels are fractions of full scale (32768); {@link #toDbfs(float)} turns
+ * them into dBFS, so a full-scale square wave reads 0 dBFS RMS and a
+ * full-scale sine -3 dBFS. Nothing is allocated after construction.
+ */
+public final class LevelMeter {
+
+    /** What silence reads as; about the level of one LSB of dither. */
+    public static final float FLOOR_DBFS = -100f;
+
+    private static final float FULL_SCALE = 32768f;
+
+    // Last block
+    private float blockRms = 0f;
+    private float blockPeak = 0f;
+
+    // Since the last reset()
+    private double sumSquares = 0.0;
+    private long sampleCount = 0L;
+    private int peakAbs = 0;
+
+    /** Meters {@code length} samples of {@code pcm}, starting at 0. */
+    public void process(short[] pcm, int length) {
+        if (length <= 0) return;
+
+        long squares = 0L; // 2^30 per sample: exact for any block under 2^33 samples
+        int peak = 0;
+        for (int i = 0; i < length; i++) {
+            int s = pcm[i];
+            squares += (long) s * s;
+            int abs = s < 0 ? -s : s; // -32768 becomes 32768, still fits an int
+            if (abs > peak) peak = abs;
+        }
+
+        blockRms = (float) Math.sqrt((double) squares / length) / FULL_SCALE;
+        blockPeak = peak / FULL_SCALE;
+
+        sumSquares += squares;
+        sampleCount += length;
+        if (peak > peakAbs) peakAbs = peak;
+    }
+
+    /** Starts a new metering period; the last block stays readable. */
+    public void reset() {
+        sumSquares = 0.0;
+        sampleCount = 0L;
+        peakAbs = 0;
+    }
+
+    public float getBlockRms() { return blockRms; }
+    public float getBlockPeak() { return blockPeak; }
+
+    /** RMS over the period, 0 if nothing was metered yet. */
+    public float getRms() {
+        return sampleCount == 0 ? 0f : (float) Math.sqrt(sumSquares / sampleCount) / FULL_SCALE;
+    }
+
+    public float getPeak() {
+        return peakAbs / FULL_SCALE;
+    }
+
+    public float getRmsDbfs() { return toDbfs(getRms()); }
+    public float getPeakDbfs() { return toDbfs(getPeak()); }
+
+    public long getSampleCount() { return sampleCount; }
+
+    /** 20·log10(level), never below {@link #FLOOR_DBFS}. */
+    public static float toDbfs(float level) {
+        if (level <= 0f) return FLOOR_DBFS;
+        return Math.max(FLOOR_DBFS, (float) (20.0 * Math.log10(level)));
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.smartroom.audio;
+
+/**
+ * Power spectrum of a real frame of n samples (n a power of two) through one
+ * n/2-point complex FFT: even samples go in the real part, odd samples in the
+ * imaginary part, and one split pass separates the two halves again.
+ *
+ * Twiddles and the bit-reversed order are computed once; a transform reuses
+ * the same work buffers, so one instance must stay on one thread.
+ */
+public final class RealFft {
+
+    private final int n;
+    private final int half;
+
+    // e^(-2πik/n) for k < n/2; the n/2-point stages use every other entry
+    private final float[] cos;
+    private final float[] sin;
+    // Where input pair j lands, so loading the frame also does the bit reversal
+    private final int[] reversed;
+
+    private final float[] re;
+    private final float[] im;
+
+    public RealFft(int n) {
+        if (n < 4 || Integer.bitCount(n) != 1) {
+            throw new IllegalArgumentException("FFT size must be a power of two >= 4: " + n);
+        }
+        this.n = n;
+        this.half = n / 2;
+
+        cos = new float[half];
+        sin = new float[half];
+        for (int k = 0; k < half; k++) {
+            double angle = 2.0 * Math.PI * k / n;
+            cos[k] = (float) Math.cos(angle);
+            sin[k] = (float) -Math.sin(angle);
+        }
+
+        int bits = Integer.numberOfTrailingZeros(half);
+        reversed = new int[half];
+        for (int j = 0; j < half; j++) {
+            reversed[j] = Integer.reverse(j) >>> (32 - bits);
+        }
+
+        re = new float[half];
+        im = new float[half];
+    }
+
+    public int size() { return n; }
+
+    /**
+     * Writes |X(k)|² for k = 0..n/2 of {@code frame[0..n)} into {@code power},
+     * which needs n/2 + 1 slots. Only the non-negative half is returned; every
+     * bin but the first and last stands for its mirror image too.
+     */
+    public void powerSpectrum(float[] frame, float[] power) {
+        for (int j = 0; j < half; j++) {
+            int r = reversed[j];
+            re[r] = frame[2 * j];
+            im[r] = frame[2 * j + 1];
+        }
+        transform();
+
+        // Z(0) = E(0) + i·O(0), with E and O the spectra of the even and odd samples
+        float dc = re[0] + im[0];
+        float nyquist = re[0] - im[0];
+        power[0] = dc * dc;
+        power[half] = nyquist * nyquist;
+
+        for (int k = 1; k < half; k++) {
+            int m = half - k;
+            // E(k) = (Z(k) + conj Z(m)) / 2, O(k) = (Z(k) - conj Z(m)) / 2i
+            float er = 0.5f * (re[k] + re[m]);
+            float ei = 0.5f * (im[k] - im[m]);
+            float or = 0.5f * (im[k] + im[m]);
+            float oi = -0.5f * (re[k] - re[m]);
+            // X(k) = E(k) + W^k · O(k)
+            float wr = cos[k];
+            float wi = sin[k];
+            float xr = er + wr * or - wi * oi;
+            float xi = ei + wr * oi + wi * or;
+            power[k] = xr * xr + xi * xi;
+        }
+    }
+
+    // In-place radix-2 decimation in time over re/im, already in bit-reversed order
+    private void transform() {
+        for (int size = 2; size <= half; size <<= 1) {
+            int span = size >> 1;
+            int stride = n / size;
+            for (int start = 0; start < half; start += size) {
+                for (int j = 0; j < span; j++) {
+                    float wr = cos[j * stride];
+                    float wi = sin[j * stride];
+                    int a = start + j;
+                    int b = a + span;
+                    float tr = wr * re[b] - wi * im[b];
+                    float ti = wr * im[b] + wi * re[b];
+                    re[b] = re[a] - tr;
+                    im[b] = im[a] - ti;
+                    re[a] += tr;
+                    im[a] += ti;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.smartroom.audio;
+
+import java.util.Arrays;
+
+/**
+ * A-weighted Leq and octave-band levels of 16-bit PCM over a metering period.
+ *
+ * Samples collect into Hann-windowed frames of {@code fftSize}; each full frame
+ * goes through one {@link RealFft} and its band energies add to the period.
+ * Frames do not overlap: for a steady room noise the window's lost edges
+ * average out, and it keeps the cost at one FFT per frame (about 11 per second
+ * at 44.1 kHz with 4096-point frames). Weights, window and band edges are
+ * tabulated up front; nothing is allocated after construction.
+ */
+public final class SpectrumAnalyzer {
+
+    private static final float FULL_SCALE = 32768f;
+
+    private final RealFft fft;
+    private final int fftSize;
+    private final float[] window;
+    private final float[] frame;
+    private final float[] power;
+    private int framePos = 0;
+
+    // Per bin: what turns its power into mean square (one-sided factor and
+    // normalisation), times the A curve for weightA
+    private final float[] weightA;
+    private final float[] weightFlat;
+    // Bin range [start, end) of each octave band
+    private final int[] bandStart = new int[AcousticLevels.BAND_COUNT];
+    private final int[] bandEnd = new int[AcousticLevels.BAND_COUNT];
+
+    // Since the last reset()
+    private double sumA = 0.0;
+    private final double[] sumBands = new double[AcousticLevels.BAND_COUNT];
+    private int frameCount = 0;
+
+    public SpectrumAnalyzer(int sampleRate, int fftSize) {
+        this.fft = new RealFft(fftSize);
+        this.fftSize = fftSize;
+        int bins = fftSize / 2 + 1;
+
+        window = new float[fftSize];
+        double windowPower = 0.0;
+        for (int i = 0; i < fftSize; i++) {
+            window[i] = (float) (0.5 - 0.5 * Math.cos(2.0 * Math.PI * i / fftSize));
+            windowPower += window[i] * window[i];
+        }
+        frame = new float[fftSize];
+        power = new float[bins];
+
+        // Parseval: mean square of the frame = Σ|X|² / n², and the window took
+        // windowPower / n of the energy with it
+        double norm = 1.0 / ((double) fftSize * windowPower);
+        weightFlat = new float[bins];
+        weightA = new float[bins];
+        for (int k = 1; k < bins; k++) {
+            double oneSided = k == bins - 1 ? 1.0 : 2.0;
+            double hz = (double) k * sampleRate / fftSize;
+            weightFlat[k] = (float) (oneSided * norm);
+            weightA[k] = (float) (oneSided * norm * aWeightingGain(hz));
+        }
+
+        double binHz = (double) sampleRate / fftSize;
+        for (int b = 0; b < AcousticLevels.BAND_COUNT; b++) {
+            double center = 1000.0 * Math.pow(2.0, b - 4);
+            bandStart[b] = Math.max(1, (int) Math.ceil(center / Math.sqrt(2.0) / binHz));
+            bandEnd[b] = Math.min(bins, (int) Math.ceil(center * Math.sqrt(2.0) / binHz));
+        }
+    }
+
+    /** Adds {@code length} samples of {@code pcm}, starting at 0, to the period. */
+    public void process(short[] pcm, int length) {
+        for (int i = 0; i < length; i++) {
+            frame[framePos] = pcm[i] / FULL_SCALE * window[framePos];
+            if (++framePos == fftSize) {
+                analyzeFrame();
+                framePos = 0;
+            }
+        }
+    }
+
+    private void analyzeFrame() {
+        fft.powerSpectrum(frame, power);
+
+        double a = 0.0;
+        for (int k = 1; k < power.length; k++) {
+            a += power[k] * weightA[k];
+        }
+        sumA += a;
+
+        for (int b = 0; b < AcousticLevels.BAND_COUNT; b++) {
+            double band = 0.0;
+            for (int k = bandStart[b]; k < bandEnd[b]; k++) {
+                band += power[k] * weightFlat[k];
+            }
+            sumBands[b] += band;
+        }
+        frameCount++;
+    }
+
+    /** Starts a new period; a partly filled frame carries over into it. */
+    public void reset() {
+        sumA = 0.0;
+        Arrays.fill(sumBands, 0.0);
+        frameCount = 0;
+    }
+
+    /** Frames completed in this period; the levels read the floor while it is 0. */
+    public int getFrameCount() { return frameCount; }
+
+    /** Energy means over the period's frames into {@code out}. */
+    public void getLevels(AcousticLevels out) {
+        out.laeq = frameCount == 0 ? LevelMeter.FLOOR_DBFS : powerToDb(sumA / frameCount);
+        for (int b = 0; b < AcousticLevels.BAND_COUNT; b++) {
+            out.bands[b] = frameCount == 0 ? LevelMeter.FLOOR_DBFS : powerToDb(sumBands[b] / frameCount);
+        }
+    }
+
+    /** 10·log10 of a mean square (full scale = 1), never below {@link LevelMeter#FLOOR_DBFS}. */
+    static float powerToDb(double meanSquare) {
+        if (meanSquare <= 0.0) return LevelMeter.FLOOR_DBFS;
+        return Math.max(LevelMeter.FLOOR_DBFS, (float) (10.0 * Math.log10(meanSquare)));
+    }
+
+    // IEC 61672 A curve as a power ratio, 1 at 1 kHz
+    static double aWeightingGain(double hz) {
+        double f2 = hz * hz;
+        double ra = 12194.0 * 12194.0 * f2 * f2
+                / ((f2 + 20.6 * 20.6)
+                * Math.sqrt((f2 + 107.7 * 107.7) * (f2 + 737.9 * 737.9))
+                * (f2 + 12194.0 * 12194.0));
+        // +2.00 dB puts 1 kHz at 0 dB
+        return ra * ra * Math.pow(10.0, 2.0 / 10.0);
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.smartroom.helpers;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded thread pool shared by all network and parse work in the app.
+ *
+ * Jobs get a {@link CancellationToken}; {@link Task#cancel()} flips it,
+ * runs its hook and interrupts the worker. Queue depth and per-task latency
+ * (time waiting in the queue and time running) are tracked in {@link Metrics}.
+ */
+public class BackgroundExecutor {
+
+    public interface Job {
+        void run(CancellationToken token) throws Exception;
+    }
+
+    public static class Task {
+        private final CancellationToken token;
+        private volatile Future<?> future;
+
+        Task(CancellationToken token) {
+            this.token = token;
+        }
+
+        public void cancel() {
+            token.cancel();
+            Future<?> f = future;
+            if (f != null) f.cancel(true);
+        }
+
+        public boolean isDone() {
+            Future<?> f = future;
+            return f != null && f.isDone();
+        }
+
+        public boolean isCancelled() {
+            return token.isCancelled();
+        }
+    }
+
+    public static class Metrics {
+        public final int queueDepth;
+        public final int activeCount;
+        public final long submitted;
+        public final long completed;
+        public final long failed;
+        public final long cancelled;
+        public final long rejected;
+        public final long avgQueueWaitMs;
+        public final long maxQueueWaitMs;
+        public final long avgRunMs;
+        public final long maxRunMs;
+
+        Metrics(int queueDepth, int activeCount, long submitted, long completed, long failed,
+                long cancelled, long rejected, long avgQueueWaitMs, long maxQueueWaitMs, long avgRunMs, long maxRunMs) {
+            this.queueDepth = queueDepth;
+            this.activeCount = activeCount;
+            this.submitted = submitted;
+            this.completed = completed;
+            this.failed = failed;
+            this.cancelled = cancelled;
+            this.rejected = rejected;
+            this.avgQueueWaitMs = avgQueueWaitMs;
+            this.maxQueueWaitMs = maxQueueWaitMs;
+            this.avgRunMs = avgRunMs;
+            this.maxRunMs = maxRunMs;
+        }
+
+        @Override
+        public String toString() {
+            return "queue=" + queueDepth + " active=" + activeCount
+                    + " submitted=" + submitted + " completed=" + completed
+                    + " failed=" + failed + " cancelled=" + cancelled + " rejected=" + rejected
+                    + " wait(avg/max)=" + avgQueueWaitMs + "/" + maxQueueWaitMs + "ms"
+                    + " run(avg/max)=" + avgRunMs + "/" + maxRunMs + "ms";
+        }
+    }
+
+    public interface ErrorHandler {
+        void onError(String name, Throwable error);
+    }
+
+    private static final int CORE_THREADS = 2;
+    private static final int MAX_THREADS = 4;
+    private static final int QUEUE_CAPACITY = 32;
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static BackgroundExecutor shared;
+
+    public static synchronized BackgroundExecutor shared() {
+        if (shared == null) {
+            shared = new BackgroundExecutor(CORE_THREADS, MAX_THREADS, QUEUE_CAPACITY);
+        }
+        return shared;
+    }
+
+    private final ThreadPoolExecutor pool;
+    private volatile ErrorHandler errorHandler;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong totalRunNanos = new AtomicLong();
+    private final AtomicLong maxRunNanos = new AtomicLong();
+
+    public BackgroundExecutor(int coreThreads, int maxThreads, int queueCapacity) {
+        pool = new ThreadPoolExecutor(
+                coreThreads, maxThreads,
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new WorkerFactory(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        pool.allowCoreThreadTimeOut(true);
+    }
+
+    public void setErrorHandler(ErrorHandler handler) {
+        errorHandler = handler;
+    }
+
+    /**
+     * Queues a job. Throws RejectedExecutionException when the queue is full,
+     * so callers can tell the user instead of piling up work.
+     */
+    public Task submit(String name, Job job) {
+        CancellationToken token = new CancellationToken();
+        Task task = new Task(token);
+        long enqueuedAt = System.nanoTime();
+
+        Runnable wrapped = () -> {
+            long startedAt = System.nanoTime();
+            record(totalWaitNanos, maxWaitNanos, startedAt - enqueuedAt);
+            try {
+                if (!token.isCancelled()) {
+                    job.run(token);
+                }
+                completed.incrementAndGet();
+            } catch (Throwable t) {
+                // Whatever a cancelled job throws (CancellationException,
+                // InterruptedException, a closed socket...) is just the cancel
+                if (token.isCancelled() || t instanceof CancellationException) {
+                    cancelled.incrementAndGet();
+                } else {
+                    failed.incrementAndGet();
+                    ErrorHandler handler = errorHandler;
+                    if (handler != null) handler.onError(name, t);
+                }
+            } finally {
+                record(totalRunNanos, maxRunNanos, System.nanoTime() - startedAt);
+                // Don't leak an interrupt from cancel() into the next job
+                Thread.interrupted();
+            }
+        };
+
+        try {
+            task.future = pool.submit(wrapped);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw e;
+        }
+        submitted.incrementAndGet();
+        return task;
+    }
+
+    public Metrics getMetrics() {
+        long done = Math.max(1, completed.get() + failed.get() + cancelled.get());
+        return new Metrics(
+                pool.getQueue().size(),
+                pool.getActiveCount(),
+                submitted.get(),
+                completed.get(),
+                failed.get(),
+                cancelled.get(),
+                rejected.get(),
+                TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get() / done),
+                TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()),
+                TimeUnit.NANOSECONDS.toMillis(totalRunNanos.get() / done),
+                TimeUnit.NANOSECONDS.toMillis(maxRunNanos.get())
+        );
+    }
+
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static void record(AtomicLong total, AtomicLong max, long nanos) {
+        total.addAndGet(nanos);
+        long prev;
+        do {
+            prev = max.get();
+        } while (nanos > prev && !max.compareAndSet(prev, nanos));
+    }
+
+    private static class WorkerFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "smartroom-bg-" + count.incrementAndGet());
+            t.setDaemon(true);
+            // Keep UI threads ahead of background work
+            t.setPriority(Thread.NORM_PRIORITY - 1);
+            return t;
+        }
+    }
+}
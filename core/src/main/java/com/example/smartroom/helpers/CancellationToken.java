@@ -0,0 +1,44 @@
+package com.example.smartroom.helpers;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Cooperative cancellation flag for background jobs.
+ * Blocking I/O does not react to interrupts, so jobs can register a hook
+ * (e.g. HttpURLConnection::disconnect) that is run when the token is cancelled.
+ */
+public class CancellationToken {
+
+    private volatile boolean cancelled = false;
+    private Runnable onCancel; // guarded by this
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public void throwIfCancelled() {
+        if (cancelled) throw new CancellationException();
+    }
+
+    public void cancel() {
+        Runnable hook;
+        synchronized (this) {
+            if (cancelled) return;
+            cancelled = true;
+            hook = onCancel;
+            onCancel = null;
+        }
+        if (hook != null) hook.run();
+    }
+
+    /** Sets (or clears, with null) the hook; runs it right away if already cancelled. */
+    public void setOnCancel(Runnable hook) {
+        synchronized (this) {
+            if (!cancelled) {
+                onCancel = hook;
+                return;
+            }
+        }
+        if (hook != null) hook.run();
+    }
+}
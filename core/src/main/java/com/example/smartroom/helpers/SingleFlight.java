@@ -0,0 +1,35 @@
+package com.example.smartroom.helpers;
+
+/**
+ * Runs at most one instance of a job at a time: start() while a previous
+ * run is still in flight is a no-op instead of a second, parallel run.
+ */
+public class SingleFlight {
+
+    private final BackgroundExecutor executor;
+    private final String name;
+    private BackgroundExecutor.Task current; // guarded by this
+
+    public SingleFlight(BackgroundExecutor executor, String name) {
+        this.executor = executor;
+        this.name = name;
+    }
+
+    /** Returns false if a run is already in flight (nothing new is queued). */
+    public synchronized boolean start(BackgroundExecutor.Job job) {
+        if (isRunning()) return false;
+        current = executor.submit(name, job);
+        return true;
+    }
+
+    public synchronized boolean isRunning() {
+        return current != null && !current.isDone();
+    }
+
+    public synchronized void cancel() {
+        if (current != null) {
+            current.cancel();
+            current = null;
+        }
+    }
+}
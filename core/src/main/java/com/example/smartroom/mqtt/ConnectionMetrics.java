@@ -0,0 +1,55 @@
+package com.example.smartroom.mqtt;
+
+/**
+ * Reconnect statistics of one MQTT connection: how often it came back, how
+ * long the last outage lasted and how long it has been down in total.
+ * Updated from the client's lifecycle callbacks, read from anywhere.
+ */
+public final class ConnectionMetrics {
+
+    private int connectCount = 0;
+    private int reconnectCount = 0;
+    private int failedAttempts = 0;
+    private long disconnectedAt = -1L; // -1 while connected (or never connected)
+    private long lastReconnectMs = 0L;
+    private long totalDowntimeMs = 0L;
+
+    public synchronized void onConnected(long nowMs) {
+        connectCount++;
+        if (disconnectedAt >= 0 && connectCount > 1) {
+            reconnectCount++;
+            lastReconnectMs = nowMs - disconnectedAt;
+            totalDowntimeMs += lastReconnectMs;
+        }
+        disconnectedAt = -1L;
+    }
+
+    /** A connection was lost, or an attempt to get it back failed. */
+    public synchronized void onDisconnected(long nowMs) {
+        if (disconnectedAt < 0) {
+            disconnectedAt = nowMs;
+        } else {
+            failedAttempts++;
+        }
+    }
+
+    /** Connections after the first one. */
+    public synchronized int getReconnectCount() { return reconnectCount; }
+
+    /** Reconnect attempts that failed since the app started. */
+    public synchronized int getFailedAttempts() { return failedAttempts; }
+
+    /** How long the last outage lasted, from losing the connection to being back. */
+    public synchronized long getLastReconnectMs() { return lastReconnectMs; }
+
+    public synchronized long getTotalDowntimeMs() { return totalDowntimeMs; }
+
+    public synchronized boolean isDown() { return disconnectedAt >= 0; }
+
+    /** Short status suffix, e.g. "reconnects: 2, last 3.4 s". */
+    public synchronized String summary() {
+        if (reconnectCount == 0) return "reconnects: 0";
+        return "reconnects: " + reconnectCount
+                + ", last " + (lastReconnectMs / 100) / 10.0 + " s";
+    }
+}
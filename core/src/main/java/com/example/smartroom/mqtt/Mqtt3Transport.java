@@ -0,0 +1,89 @@
+package com.example.smartroom.mqtt;
+
+import com.hivemq.client.mqtt.MqttClient;
+import com.hivemq.client.mqtt.MqttClientState;
+import com.hivemq.client.mqtt.MqttGlobalPublishFilter;
+import com.hivemq.client.mqtt.MqttVersion;
+import com.hivemq.client.mqtt.datatypes.MqttQos;
+import com.hivemq.client.mqtt.datatypes.MqttTopicFilter;
+import com.hivemq.client.mqtt.lifecycle.MqttClientConnectedListener;
+import com.hivemq.client.mqtt.lifecycle.MqttClientDisconnectedListener;
+import com.hivemq.client.mqtt.mqtt3.Mqtt3AsyncClient;
+
+import java.util.concurrent.CompletableFuture;
+
+/** MQTT 3.1.1: works with any broker, but carries no message properties. */
+final class Mqtt3Transport implements MqttTransport {
+
+    private final Mqtt3AsyncClient client;
+
+    Mqtt3Transport(String host, int port, String clientId,
+                   MqttClientConnectedListener connected,
+                   MqttClientDisconnectedListener disconnected,
+                   Inbound inbound) {
+        client = MqttClient.builder()
+                .useMqttVersion3()
+                .identifier(clientId)
+                .serverHost(host)
+                .serverPort(port)
+                .addConnectedListener(connected)
+                .addDisconnectedListener(disconnected)
+                .buildAsync();
+        // Subscriptions carry no callback of their own; every message comes through here
+        client.publishes(MqttGlobalPublishFilter.ALL,
+                publish -> inbound.onPublish(publish.getTopic(), publish.getPayloadAsBytes(), null));
+    }
+
+    @Override
+    public MqttVersion version() {
+        return MqttVersion.MQTT_3_1_1;
+    }
+
+    @Override
+    public MqttClientState state() {
+        return client.getState();
+    }
+
+    @Override
+    public int topicAliasMaximum() {
+        return 0;
+    }
+
+    @Override
+    public CompletableFuture<?> connect() {
+        return client.connectWith()
+                // Keep subscriptions and queued QoS 1 frames across drops
+                .cleanSession(false)
+                .send();
+    }
+
+    @Override
+    public CompletableFuture<?> disconnect() {
+        return client.disconnect();
+    }
+
+    @Override
+    public CompletableFuture<?> publish(String topic, byte[] payload, MqttQos qos,
+                                        String contentType, long expirySeconds) {
+        return client.publishWith()
+                .topic(topic)
+                .qos(qos)
+                .payload(payload)
+                .send();
+    }
+
+    @Override
+    public CompletableFuture<?> subscribe(MqttTopicFilter filter, MqttQos qos) {
+        return client.subscribeWith()
+                .topicFilter(filter)
+                .qos(qos)
+                .send();
+    }
+
+    @Override
+    public CompletableFuture<?> unsubscribe(MqttTopicFilter filter) {
+        return client.unsubscribeWith()
+                .topicFilter(filter)
+                .send();
+    }
+}
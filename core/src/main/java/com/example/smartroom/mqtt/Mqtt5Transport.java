@@ -0,0 +1,112 @@
+package com.example.smartroom.mqtt;
+
+import com.hivemq.client.mqtt.MqttClient;
+import com.hivemq.client.mqtt.MqttClientState;
+import com.hivemq.client.mqtt.MqttGlobalPublishFilter;
+import com.hivemq.client.mqtt.MqttVersion;
+import com.hivemq.client.mqtt.datatypes.MqttQos;
+import com.hivemq.client.mqtt.datatypes.MqttTopicFilter;
+import com.hivemq.client.mqtt.lifecycle.MqttClientConnectedListener;
+import com.hivemq.client.mqtt.lifecycle.MqttClientDisconnectedListener;
+import com.hivemq.client.mqtt.mqtt5.Mqtt5AsyncClient;
+import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5PublishBuilder;
+import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5PublishResult;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * MQTT 5. Frames carry their content type and an expiry, and the client
+ * replaces a repeated topic with a topic alias on its own (up to
+ * {@link #SEND_TOPIC_ALIASES}, if the broker grants them).
+ */
+final class Mqtt5Transport implements MqttTransport {
+
+    // A day: long enough for the subscriber to come back, short enough that
+    // abandoned installs do not pile up sessions on the broker
+    static final long SESSION_EXPIRY_S = 24 * 60 * 60;
+
+    // We publish to one or two topics; the client's default of 16 is plenty
+    static final int SEND_TOPIC_ALIASES = 16;
+
+    private final Mqtt5AsyncClient client;
+
+    Mqtt5Transport(String host, int port, String clientId,
+                   MqttClientConnectedListener connected,
+                   MqttClientDisconnectedListener disconnected,
+                   Inbound inbound) {
+        client = MqttClient.builder()
+                .useMqttVersion5()
+                .identifier(clientId)
+                .serverHost(host)
+                .serverPort(port)
+                .addConnectedListener(connected)
+                .addDisconnectedListener(disconnected)
+                .buildAsync();
+        // Subscriptions carry no callback of their own; every message comes through here
+        client.publishes(MqttGlobalPublishFilter.ALL, publish -> inbound.onPublish(
+                publish.getTopic(),
+                publish.getPayloadAsBytes(),
+                publish.getContentType().map(Object::toString).orElse(null)));
+    }
+
+    @Override
+    public MqttVersion version() {
+        return MqttVersion.MQTT_5_0;
+    }
+
+    @Override
+    public MqttClientState state() {
+        return client.getState();
+    }
+
+    @Override
+    public int topicAliasMaximum() {
+        return client.getConfig().getConnectionConfig()
+                .map(config -> config.getRestrictionsForClient().getSendTopicAliasMaximum())
+                .orElse(0);
+    }
+
+    @Override
+    public CompletableFuture<?> connect() {
+        return client.connectWith()
+                // Keep subscriptions and queued QoS 1 frames across drops
+                .cleanStart(false)
+                .sessionExpiryInterval(SESSION_EXPIRY_S)
+                .restrictions()
+                    .sendTopicAliasMaximum(SEND_TOPIC_ALIASES)
+                    .applyRestrictions()
+                .send();
+    }
+
+    @Override
+    public CompletableFuture<?> disconnect() {
+        return client.disconnect();
+    }
+
+    @Override
+    public CompletableFuture<?> publish(String topic, byte[] payload, MqttQos qos,
+                                        String contentType, long expirySeconds) {
+        Mqtt5PublishBuilder.Send.Complete<CompletableFuture<Mqtt5PublishResult>> publish = client.publishWith()
+                .topic(topic)
+                .qos(qos)
+                .payload(payload);
+        if (contentType != null) publish = publish.contentType(contentType);
+        if (expirySeconds > 0) publish = publish.messageExpiryInterval(expirySeconds);
+        return publish.send();
+    }
+
+    @Override
+    public CompletableFuture<?> subscribe(MqttTopicFilter filter, MqttQos qos) {
+        return client.subscribeWith()
+                .topicFilter(filter)
+                .qos(qos)
+                .send();
+    }
+
+    @Override
+    public CompletableFuture<?> unsubscribe(MqttTopicFilter filter) {
+        return client.unsubscribeWith()
+                .topicFilter(filter)
+                .send();
+    }
+}
@@ -0,0 +1,358 @@
+package com.example.smartroom.mqtt;
+
+import com.hivemq.client.mqtt.MqttVersion;
+import com.hivemq.client.mqtt.datatypes.MqttQos;
+import com.hivemq.client.mqtt.datatypes.MqttTopic;
+import com.hivemq.client.mqtt.datatypes.MqttTopicFilter;
+import com.hivemq.client.mqtt.lifecycle.MqttClientDisconnectedContext;
+import com.hivemq.client.mqtt.lifecycle.MqttDisconnectSource;
+import com.hivemq.client.mqtt.mqtt5.exceptions.Mqtt5ConnAckException;
+import com.hivemq.client.mqtt.mqtt5.exceptions.Mqtt5DisconnectException;
+import com.hivemq.client.mqtt.mqtt5.message.connect.connack.Mqtt5ConnAckReasonCode;
+import com.hivemq.client.mqtt.mqtt5.message.disconnect.Mqtt5DisconnectReasonCode;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One broker connection shared by every screen and service of the process.
+ *
+ * Users {@link #acquire()} a handle while they need the connection and close
+ * it when done. The first handle connects; when the last one is closed the
+ * connection stays up for {@code lingerMs}, so moving between screens does
+ * not cost a CONNECT handshake. Subscriptions are multiplexed: one broker
+ * subscription per topic filter, fanned out to every local listener.
+ *
+ * The session is persistent under a stable client id, and a lost connection
+ * comes back with {@link ReconnectBackoff} while any handle is open.
+ *
+ * MQTT 5 is used when asked for: frames then carry a content type and an
+ * expiry, and repeated topics go out as topic aliases. A broker that turns
+ * the MQTT 5 CONNECT down gets MQTT 3.1.1 from then on.
+ */
+public final class MqttConnectionManager {
+
+    public interface Handle extends AutoCloseable {
+        /** Gives the reference back; closing twice is harmless. */
+        @Override
+        void close();
+    }
+
+    public interface Subscription {
+        /** Removes the listener; the last one for a filter unsubscribes on the broker. */
+        void cancel();
+
+        /**
+         * Removes the listener but keeps the broker subscription, so the
+         * persistent session queues QoS 1/2 frames for whoever subscribes to
+         * the filter next. Frames that arrive while the connection is still
+         * up with no listener are dropped.
+         */
+        void detach();
+    }
+
+    public interface MessageListener {
+        /**
+         * Called on an MQTT client thread. {@code contentType} is null when the
+         * publisher set none, and always on MQTT 3.
+         */
+        void onMessage(String topic, byte[] payload, String contentType);
+    }
+
+    public interface ConnectionListener {
+        void onConnected(ConnectionMetrics metrics);
+
+        /** {@code retryInMs} is negative when no reconnect is coming (nobody needs the connection). */
+        void onDisconnected(Throwable cause, long retryInMs);
+    }
+
+    private static final class Route {
+        final MqttTopicFilter filter;
+        final MqttQos qos;
+        final CopyOnWriteArrayList<MessageListener> listeners = new CopyOnWriteArrayList<>();
+
+        Route(String filter, MqttQos qos) {
+            this.filter = MqttTopicFilter.of(filter);
+            this.qos = qos;
+        }
+    }
+
+    private final String host;
+    private final int port;
+    private final String clientId;
+    private final ReconnectBackoff backoff;
+    private final long lingerMs;
+    private final ConnectionMetrics metrics = new ConnectionMetrics();
+    private final CopyOnWriteArrayList<ConnectionListener> connectionListeners =
+            new CopyOnWriteArrayList<>();
+
+    // Topic filter -> local listeners; read lock-free by the dispatcher
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+
+    // Linger timer; a daemon thread so it never keeps a JVM alive
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "smartroom-mqtt-linger");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Guarded by this
+    private int refCount = 0;
+    private ScheduledFuture<?> pendingDisconnect;
+    private boolean disconnecting = false;
+    // Set once the broker accepted our protocol version; no fallback after that
+    private boolean versionConfirmed = false;
+
+    private volatile MqttTransport transport;
+    private volatile boolean connected = false;
+
+    /** MQTT 3.1.1 only. */
+    public MqttConnectionManager(String host, int port, String clientId,
+                                 ReconnectBackoff backoff, long lingerMs) {
+        this(host, port, clientId, backoff, lingerMs, MqttVersion.MQTT_3_1_1);
+    }
+
+    /** {@code version} is the one to try first; MQTT 5 falls back to 3.1.1. */
+    public MqttConnectionManager(String host, int port, String clientId,
+                                 ReconnectBackoff backoff, long lingerMs, MqttVersion version) {
+        this.host = host;
+        this.port = port;
+        this.clientId = clientId;
+        this.backoff = backoff;
+        this.lingerMs = lingerMs;
+        transport = createTransport(version);
+    }
+
+    private MqttTransport createTransport(MqttVersion version) {
+        return MqttTransport.create(version, host, port, clientId,
+                ctx -> onConnected(),
+                this::onDisconnected,
+                this::dispatch);
+    }
+
+    // ---- References ----
+
+    /** Takes a reference, connecting if this is the first one. */
+    public synchronized Handle acquire() {
+        refCount++;
+        if (pendingDisconnect != null) {
+            pendingDisconnect.cancel(false);
+            pendingDisconnect = null;
+        }
+        connectIfNeeded();
+
+        AtomicBoolean closed = new AtomicBoolean(false);
+        return () -> {
+            if (closed.compareAndSet(false, true)) release();
+        };
+    }
+
+    private synchronized void release() {
+        if (--refCount > 0) return;
+        // Last one out: keep the line warm for a while before hanging up
+        pendingDisconnect = scheduler.schedule(this::disconnectIfUnused, lingerMs, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized int getRefCount() {
+        return refCount;
+    }
+
+    // ---- Publishing and subscribing ----
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    public ConnectionMetrics getMetrics() {
+        return metrics;
+    }
+
+    /** The protocol in use: the one asked for, or 3.1.1 after a fallback. */
+    public MqttVersion getVersion() {
+        return transport.version();
+    }
+
+    /** Topic aliases the broker granted on the current connection (MQTT 5 only). */
+    public int getTopicAliasMaximum() {
+        return transport.topicAliasMaximum();
+    }
+
+    /** Completes once the broker has the frame (QoS 1) or it was written out (QoS 0). */
+    public CompletableFuture<?> publish(String topic, byte[] payload, MqttQos qos) {
+        return publish(topic, payload, qos, null, 0L);
+    }
+
+    /**
+     * Like {@link #publish(String, byte[], MqttQos)}, tagging the frame with its
+     * content type and letting the broker discard it after {@code expirySeconds}
+     * (0 = never) if nobody picked it up. Both are ignored on MQTT 3.
+     */
+    public CompletableFuture<?> publish(String topic, byte[] payload, MqttQos qos,
+                                        String contentType, long expirySeconds) {
+        return transport.publish(topic, payload, qos, contentType, expirySeconds);
+    }
+
+    /**
+     * Adds a listener for {@code topicFilter}. The first listener of a filter
+     * subscribes on the broker (now, or as soon as the connection is up); the
+     * last {@link Subscription#cancel()} unsubscribes again. A filter left
+     * without listeners by {@link Subscription#detach()} stays subscribed.
+     */
+    public synchronized Subscription subscribe(String topicFilter, MqttQos qos, MessageListener listener) {
+        Route route = routes.get(topicFilter);
+        if (route == null) {
+            route = new Route(topicFilter, qos);
+            routes.put(topicFilter, route);
+            if (connected) sendSubscribe(route);
+        }
+        route.listeners.add(listener);
+
+        AtomicBoolean cancelled = new AtomicBoolean(false);
+        return new Subscription() {
+            @Override
+            public void cancel() {
+                if (cancelled.compareAndSet(false, true)) unsubscribe(topicFilter, listener, true);
+            }
+
+            @Override
+            public void detach() {
+                if (cancelled.compareAndSet(false, true)) unsubscribe(topicFilter, listener, false);
+            }
+        };
+    }
+
+    private synchronized void unsubscribe(String topicFilter, MessageListener listener, boolean onBroker) {
+        Route route = routes.get(topicFilter);
+        if (route == null) return;
+        route.listeners.remove(listener);
+        // A detached route stays, so it is resubscribed on reconnect and reused by the next listener
+        if (!onBroker || !route.listeners.isEmpty()) return;
+
+        routes.remove(topicFilter);
+        if (connected) transport.unsubscribe(route.filter);
+    }
+
+    public void addConnectionListener(ConnectionListener listener) {
+        connectionListeners.add(listener);
+        if (connected) listener.onConnected(metrics);
+    }
+
+    public void removeConnectionListener(ConnectionListener listener) {
+        connectionListeners.remove(listener);
+    }
+
+    // ---- Connection lifecycle ----
+
+    // Guarded by this
+    private void connectIfNeeded() {
+        // Up, coming back on its own, or a disconnect that reconnects when it is done
+        if (disconnecting || transport.state().isConnectedOrReconnect()) return;
+
+        transport.connect();
+        // Failures reach the disconnected listener, which schedules the retry
+    }
+
+    private synchronized void disconnectIfUnused() {
+        pendingDisconnect = null;
+        if (refCount > 0 || !transport.state().isConnected()) return;
+
+        disconnecting = true;
+        transport.disconnect().whenComplete((ignored, throwable) -> {
+            synchronized (this) {
+                disconnecting = false;
+                // Someone came back while we were hanging up
+                if (refCount > 0) connectIfNeeded();
+            }
+        });
+    }
+
+    // Client thread, after the first connect and after every reconnect
+    private void onConnected() {
+        synchronized (this) {
+            if (refCount == 0 && pendingDisconnect == null) {
+                // A reconnect that finished after everybody left
+                disconnectIfUnused();
+                return;
+            }
+            connected = true;
+            versionConfirmed = true;
+            metrics.onConnected(System.currentTimeMillis());
+            // Routes added while the connection was down; idempotent for the rest
+            for (Route route : routes.values()) {
+                sendSubscribe(route);
+            }
+        }
+        for (ConnectionListener listener : connectionListeners) {
+            listener.onConnected(metrics);
+        }
+    }
+
+    // Client thread; also called when a connect or reconnect attempt fails
+    private void onDisconnected(MqttClientDisconnectedContext context) {
+        connected = false;
+        long retryInMs = -1L;
+        synchronized (this) {
+            if (!versionConfirmed && isVersionRejected(context.getCause())) {
+                fallBackToMqtt3();
+                return;
+            }
+            if (context.getSource() != MqttDisconnectSource.USER && refCount > 0) {
+                metrics.onDisconnected(System.currentTimeMillis());
+                retryInMs = backoff.nextDelayMs(context.getReconnector().getAttempts());
+                context.getReconnector()
+                        .reconnect(true)
+                        // Also keeps the global publish flow alive when the broker lost our session
+                        .resubscribeIfSessionExpired(true)
+                        .republishIfSessionExpired(true)
+                        .delay(retryInMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        for (ConnectionListener listener : connectionListeners) {
+            listener.onDisconnected(context.getCause(), retryInMs);
+        }
+    }
+
+    // Guarded by this
+    private void fallBackToMqtt3() {
+        // The old client stays disconnected; routes are resubscribed in onConnected
+        transport = createTransport(MqttVersion.MQTT_3_1_1);
+        versionConfirmed = true;
+        if (refCount > 0 || pendingDisconnect != null) connectIfNeeded();
+    }
+
+    // A broker without MQTT 5 answers our CONNECT with a 3.1.1 CONNACK "unacceptable
+    // protocol version", which the MQTT 5 decoder reports as a malformed packet, or
+    // with an MQTT 5 CONNACK "unsupported protocol version"
+    private static boolean isVersionRejected(Throwable cause) {
+        if (cause instanceof Mqtt5ConnAckException) {
+            return ((Mqtt5ConnAckException) cause).getMqttMessage().getReasonCode()
+                    == Mqtt5ConnAckReasonCode.UNSUPPORTED_PROTOCOL_VERSION;
+        }
+        if (cause instanceof Mqtt5DisconnectException) {
+            return ((Mqtt5DisconnectException) cause).getMqttMessage().getReasonCode()
+                    == Mqtt5DisconnectReasonCode.MALFORMED_PACKET;
+        }
+        return false;
+    }
+
+    private void sendSubscribe(Route route) {
+        transport.subscribe(route.filter, route.qos);
+    }
+
+    private void dispatch(MqttTopic topic, byte[] payload, String contentType) {
+        String name = topic.toString();
+        for (Route route : routes.values()) {
+            if (!route.filter.matches(topic)) continue;
+            for (MessageListener listener : route.listeners) {
+                listener.onMessage(name, payload, contentType);
+            }
+        }
+    }
+}
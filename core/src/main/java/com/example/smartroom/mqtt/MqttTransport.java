@@ -0,0 +1,55 @@
+package com.example.smartroom.mqtt;
+
+import com.hivemq.client.mqtt.MqttClientState;
+import com.hivemq.client.mqtt.MqttVersion;
+import com.hivemq.client.mqtt.datatypes.MqttQos;
+import com.hivemq.client.mqtt.datatypes.MqttTopic;
+import com.hivemq.client.mqtt.datatypes.MqttTopicFilter;
+import com.hivemq.client.mqtt.lifecycle.MqttClientConnectedListener;
+import com.hivemq.client.mqtt.lifecycle.MqttClientDisconnectedListener;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The few client operations {@link MqttConnectionManager} needs, implemented
+ * once per protocol version so the manager does not care which one it got.
+ */
+interface MqttTransport {
+
+    interface Inbound {
+        /** {@code contentType} is null when the sender set none (always on MQTT 3). */
+        void onPublish(MqttTopic topic, byte[] payload, String contentType);
+    }
+
+    MqttVersion version();
+
+    MqttClientState state();
+
+    /** Topic aliases the broker lets us use; 0 when it allows none (always on MQTT 3). */
+    int topicAliasMaximum();
+
+    /** Connects with a persistent session. */
+    CompletableFuture<?> connect();
+
+    CompletableFuture<?> disconnect();
+
+    /**
+     * {@code contentType} and {@code expirySeconds} (0 = never) are MQTT 5
+     * properties; the MQTT 3 transport drops them.
+     */
+    CompletableFuture<?> publish(String topic, byte[] payload, MqttQos qos,
+                                 String contentType, long expirySeconds);
+
+    CompletableFuture<?> subscribe(MqttTopicFilter filter, MqttQos qos);
+
+    CompletableFuture<?> unsubscribe(MqttTopicFilter filter);
+
+    static MqttTransport create(MqttVersion version, String host, int port, String clientId,
+                                MqttClientConnectedListener connected,
+                                MqttClientDisconnectedListener disconnected,
+                                Inbound inbound) {
+        return version == MqttVersion.MQTT_5_0
+                ? new Mqtt5Transport(host, port, clientId, connected, disconnected, inbound)
+                : new Mqtt3Transport(host, port, clientId, connected, disconnected, inbound);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.smartroom.mqtt;
+
+import java.util.Random;
+
+/**
+ * Exponential backoff with jitter for broker reconnects.
+ *
+ * The ceiling doubles per failed attempt from {@code initialDelayMs} up to
+ * {@code maxDelayMs}; the actual delay is picked at random between half the
+ * ceiling and the ceiling ("equal jitter"), so a fleet of devices that lost
+ * the broker at the same moment does not come back in lockstep.
+ */
+public final class ReconnectBackoff {
+
+    private final long initialDelayMs;
+    private final long maxDelayMs;
+    private final Random random;
+
+    public ReconnectBackoff(long initialDelayMs, long maxDelayMs, Random random) {
+        if (initialDelayMs <= 0 || maxDelayMs < initialDelayMs) {
+            throw new IllegalArgumentException("Invalid backoff");
+        }
+        this.initialDelayMs = initialDelayMs;
+        this.maxDelayMs = maxDelayMs;
+        this.random = random;
+    }
+
+    /** 1 s first, then doubling up to a minute. */
+    public static ReconnectBackoff defaults() {
+        return new ReconnectBackoff(1_000, 60_000, new Random());
+    }
+
+    /** Upper bound of the delay before reconnect attempt {@code attempt} (0 = first). */
+    public long ceilingMs(int attempt) {
+        // Past 2^20 the ceiling is way over any sane maximum
+        int doublings = Math.min(Math.max(attempt, 0), 20);
+        return Math.min(maxDelayMs, initialDelayMs << doublings);
+    }
+
+    public long nextDelayMs(int attempt) {
+        long ceiling = ceilingMs(attempt);
+        long half = ceiling / 2;
+        synchronized (random) {
+            return half + (long) (random.nextDouble() * (ceiling - half + 1));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.smartroom.payload;
+
+public enum PayloadFormat {
+    JSON("application/json"),
+    BINARY("application/vnd.smartroom.sensor");
+
+    private final String contentType;
+
+    PayloadFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    // MQTT 5 content type of a frame; null if absent or unknown
+    public static PayloadFormat fromContentType(String contentType) {
+        if (contentType == null) return null;
+        for (PayloadFormat format : values()) {
+            if (format.contentType.equals(contentType)) return format;
+        }
+        return null;
+    }
+
+    // JSON frames always start with '{'; binary frames start with a schema byte
+    public static PayloadFormat detect(byte[] payload) {
+        if (payload != null && payload.length > 0 && payload[0] == '{') {
+            return JSON;
+        }
+        return BINARY;
+    }
+}
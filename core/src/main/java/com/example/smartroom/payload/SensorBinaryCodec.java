@@ -0,0 +1,249 @@
+package com.example.smartroom.payload;
+
+import com.example.smartroom.audio.AcousticLevels;
+import com.example.smartroom.publisher.model.SensorChannel;
+import com.example.smartroom.publisher.model.SensorSampleBuffer;
+import com.example.smartroom.publisher.model.VibrationEvent;
+import com.example.smartroom.publisher.model.WindowAggregator;
+import com.example.smartroom.subscriber.model.SensorData;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Fixed-layout little-endian encoding of sensor payloads.
+ *
+ * Every frame starts with a schema byte:
+ *   0x01 snapshot: int64 timestampMs, float light, ax, ay, az, sound
+ *   0x02 batch:    int64 baseTimestampMs, uint16 count,
+ *                  count x (int32 deltaMs, float light, ax, ay, az, sound)
+ *   0x03 aggregate: int64 windowStartMs, int32 windowMs,
+ *                  per channel (light, accel magnitude, sound):
+ *                  int32 count, float min, max, mean, rms
+ *   0x04 / 0x05 / 0x06: the same three, followed by an acoustic block:
+ *                  float laeq, uint8 bandCount, bandCount x float level (dB re full scale)
+ *
+ *   0x07 vibration event: int64 startMs, int32 durationMs, float peak (m/s²), peakRatio
+ *
+ * Snapshots and batches carry the latest acoustic period, aggregates the
+ * energy average over their window. Frames without acoustics stay on v1.
+ * Schema ids never collide with '{', so JSON and binary frames can share a topic.
+ * The encode buffer is reused between calls; one codec instance per thread.
+ */
+public class SensorBinaryCodec {
+
+    public static final byte SCHEMA_SNAPSHOT_V1 = 0x01;
+    public static final byte SCHEMA_BATCH_V1 = 0x02;
+    public static final byte SCHEMA_AGGREGATE_V1 = 0x03;
+    public static final byte SCHEMA_SNAPSHOT_V2 = 0x04;
+    public static final byte SCHEMA_BATCH_V2 = 0x05;
+    public static final byte SCHEMA_AGGREGATE_V2 = 0x06;
+    public static final byte SCHEMA_EVENT_V1 = 0x07;
+
+    static final int SNAPSHOT_SIZE = 1 + 8 + 5 * 4;
+    static final int BATCH_HEADER_SIZE = 1 + 8 + 2;
+    static final int BATCH_ROW_SIZE = 4 + 5 * 4;
+    static final int MAX_BATCH_ROWS = 0xFFFF;
+    static final int AGGREGATE_SIZE = 1 + 8 + 4 + 3 * (4 + 4 * 4);
+    static final int EVENT_SIZE = 1 + 8 + 4 + 2 * 4;
+    static final int ACOUSTIC_SIZE = 4 + 1 + AcousticLevels.BAND_COUNT * 4;
+
+    private static final SensorChannel[] CHANNELS = SensorChannel.values();
+
+    private ByteBuffer buffer = newBuffer(BATCH_HEADER_SIZE + 128 * BATCH_ROW_SIZE);
+
+    // ---- Encoding ----
+
+    public byte[] encodeSnapshot(long timestampMs, float light, float ax, float ay, float az, float sound) {
+        return encodeSnapshot(timestampMs, light, ax, ay, az, sound, null);
+    }
+
+    /** {@code acoustics} null for a v1 frame. */
+    public byte[] encodeSnapshot(long timestampMs, float light, float ax, float ay, float az, float sound,
+                                 AcousticLevels acoustics) {
+        buffer.clear();
+        buffer.put(acoustics == null ? SCHEMA_SNAPSHOT_V1 : SCHEMA_SNAPSHOT_V2);
+        buffer.putLong(timestampMs);
+        buffer.putFloat(light);
+        buffer.putFloat(ax);
+        buffer.putFloat(ay);
+        buffer.putFloat(az);
+        buffer.putFloat(sound);
+        putAcoustics(acoustics);
+        return toBytes();
+    }
+
+    public byte[] encodeBatch(SensorSampleBuffer samples) {
+        return encodeBatch(samples, null);
+    }
+
+    public byte[] encodeBatch(SensorSampleBuffer samples, AcousticLevels acoustics) {
+        int count = Math.min(samples.size(), MAX_BATCH_ROWS);
+        ensureCapacity(BATCH_HEADER_SIZE + count * BATCH_ROW_SIZE + ACOUSTIC_SIZE);
+
+        // Keep the newest rows if the buffer ever holds more than one frame can carry
+        int first = samples.size() - count;
+        long base = count > 0 ? samples.getTimestamp(first) : 0L;
+
+        buffer.clear();
+        buffer.put(acoustics == null ? SCHEMA_BATCH_V1 : SCHEMA_BATCH_V2);
+        buffer.putLong(base);
+        buffer.putShort((short) count);
+        for (int i = first; i < samples.size(); i++) {
+            buffer.putInt((int) (samples.getTimestamp(i) - base));
+            buffer.putFloat(samples.getLight(i));
+            buffer.putFloat(samples.getAx(i));
+            buffer.putFloat(samples.getAy(i));
+            buffer.putFloat(samples.getAz(i));
+            buffer.putFloat(samples.getSound(i));
+        }
+        putAcoustics(acoustics);
+        return toBytes();
+    }
+
+    public byte[] encodeAggregate(WindowAggregator window, long windowMs) {
+        return encodeAggregate(window, windowMs, null);
+    }
+
+    public byte[] encodeAggregate(WindowAggregator window, long windowMs, AcousticLevels acoustics) {
+        buffer.clear();
+        buffer.put(acoustics == null ? SCHEMA_AGGREGATE_V1 : SCHEMA_AGGREGATE_V2);
+        buffer.putLong(window.getWindowStart());
+        buffer.putInt((int) Math.max(1L, windowMs));
+        for (SensorChannel channel : CHANNELS) {
+            buffer.putInt(window.count(channel));
+            buffer.putFloat(window.min(channel));
+            buffer.putFloat(window.max(channel));
+            buffer.putFloat(window.mean(channel));
+            buffer.putFloat(window.rms(channel));
+        }
+        putAcoustics(acoustics);
+        return toBytes();
+    }
+
+    public byte[] encodeEvent(VibrationEvent event) {
+        buffer.clear();
+        buffer.put(SCHEMA_EVENT_V1);
+        buffer.putLong(event.startMs);
+        buffer.putInt((int) Math.min(Integer.MAX_VALUE, event.durationMs));
+        buffer.putFloat(event.peak);
+        buffer.putFloat(event.peakRatio);
+        return toBytes();
+    }
+
+    private void putAcoustics(AcousticLevels acoustics) {
+        if (acoustics == null) return;
+        buffer.putFloat(acoustics.laeq);
+        buffer.put((byte) AcousticLevels.BAND_COUNT);
+        for (float level : acoustics.bands) {
+            buffer.putFloat(level);
+        }
+    }
+
+    // ---- Decoding ----
+
+    /**
+     * Decodes a binary frame into {@code out}. Batches fill {@code out} with their
+     * newest row; aggregates fill the stat arrays and put the means in light/sound. v2 frames also
+     * fill the acoustic fields, events only the event fields and the timestamp. Returns false for unknown schemas or truncated frames.
+     */
+    public static boolean decode(byte[] payload, SensorData out) {
+        if (payload == null || payload.length == 0) return false;
+
+        ByteBuffer in = ByteBuffer.wrap(payload).order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            byte schema = in.get();
+            switch (schema) {
+                case SCHEMA_SNAPSHOT_V1:
+                case SCHEMA_SNAPSHOT_V2:
+                    out.timestamp = in.getLong();
+                    readValues(in, out);
+                    out.sampleCount = 1;
+                    return schema == SCHEMA_SNAPSHOT_V1 || readAcoustics(in, out);
+
+                case SCHEMA_BATCH_V1:
+                case SCHEMA_BATCH_V2:
+                    long base = in.getLong();
+                    int count = in.getShort() & 0xFFFF;
+                    if (count == 0) return false;
+                    // Jump straight to the newest row
+                    in.position(BATCH_HEADER_SIZE + (count - 1) * BATCH_ROW_SIZE);
+                    out.timestamp = base + in.getInt();
+                    readValues(in, out);
+                    out.sampleCount = count;
+                    // The acoustic block follows the last row
+                    return schema == SCHEMA_BATCH_V1 || readAcoustics(in, out);
+
+                case SCHEMA_AGGREGATE_V1:
+                case SCHEMA_AGGREGATE_V2:
+                    out.timestamp = in.getLong();
+                    out.windowMs = in.getInt();
+                    if (out.windowMs <= 0) return false;
+                    int samples = 0;
+                    for (int c = 0; c < CHANNELS.length; c++) {
+                        out.statCount[c] = in.getInt();
+                        out.statMin[c] = in.getFloat();
+                        out.statMax[c] = in.getFloat();
+                        out.statMean[c] = in.getFloat();
+                        out.statRms[c] = in.getFloat();
+                        samples += out.statCount[c];
+                    }
+                    out.light = out.statMean[SensorChannel.LIGHT.ordinal()];
+                    out.sound = out.statMean[SensorChannel.SOUND.ordinal()];
+                    out.sampleCount = samples;
+                    return schema == SCHEMA_AGGREGATE_V1 || readAcoustics(in, out);
+
+                case SCHEMA_EVENT_V1:
+                    out.timestamp = in.getLong();
+                    out.eventDurationMs = in.getInt();
+                    out.eventPeak = in.getFloat();
+                    out.eventRatio = in.getFloat();
+                    out.event = true;
+                    return out.eventDurationMs >= 0;
+
+                default:
+                    return false;
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static void readValues(ByteBuffer in, SensorData out) {
+        out.light = in.getFloat();
+        out.ax = in.getFloat();
+        out.ay = in.getFloat();
+        out.az = in.getFloat();
+        out.sound = in.getFloat();
+    }
+
+    // Bands past what SensorData holds are skipped, so more bands can be added later
+    private static boolean readAcoustics(ByteBuffer in, SensorData out) {
+        out.laeq = in.getFloat();
+        int bands = in.get() & 0xFF;
+        for (int b = 0; b < bands; b++) {
+            float level = in.getFloat();
+            if (b < out.bands.length) out.bands[b] = level;
+        }
+        out.bandCount = Math.min(bands, out.bands.length);
+        return true;
+    }
+
+    // ---- Helpers ----
+
+    private void ensureCapacity(int size) {
+        if (buffer.capacity() < size) {
+            buffer = newBuffer(size);
+        }
+    }
+
+    private byte[] toBytes() {
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    private static ByteBuffer newBuffer(int capacity) {
+        return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.smartroom.payload;
+
+import com.example.smartroom.audio.AcousticLevels;
+import com.example.smartroom.publisher.model.SensorChannel;
+import com.example.smartroom.publisher.model.SensorSampleBuffer;
+import com.example.smartroom.publisher.model.VibrationEvent;
+import com.example.smartroom.publisher.model.WindowAggregator;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Builds the JSON payloads published on the sensor topic.
+ *
+ * Snapshot: {"t":..,"light":..,"ax":..,"ay":..,"az":..,"sound":..}
+ * Batch:    {"count":N,"samples":[{"t":..,"light":..,...},...]}
+ * Aggregate: {"t":start,"window":ms,"light":mean,"sound":mean,
+ *             "stats":{"light":[n,min,max,mean,rms],"accel":[...],"sound":[...]}}
+ * Event:    {"event":"vibration","t":start,"duration":ms,"peak":m/s²,"ratio":sta/lta}
+ *
+ * Aggregates keep light / sound at the top level so older subscribers still
+ * show the window means.
+ *
+ * With the microphone on, each frame also gets "laeq":dB(A) and
+ * "bands":[63 Hz .. 8 kHz octave levels] at the top level: the latest period
+ * for snapshots and batches, the energy average over the window for aggregates.
+ *
+ * The StringBuilder is reused between calls, so one encoder must not be
+ * shared between threads.
+ */
+public class SensorJsonEncoder {
+
+    private final StringBuilder sb = new StringBuilder(256);
+
+    public byte[] encodeSnapshot(long timestampMs, float light, float ax, float ay, float az, float sound) {
+        return encodeSnapshot(timestampMs, light, ax, ay, az, sound, null);
+    }
+
+    /** {@code acoustics} null to leave laeq / bands out. */
+    public byte[] encodeSnapshot(long timestampMs, float light, float ax, float ay, float az, float sound,
+                                 AcousticLevels acoustics) {
+        sb.setLength(0);
+        sb.append("{\"t\":").append(timestampMs).append(',');
+        appendValues(light, ax, ay, az, sound);
+        appendAcoustics(acoustics);
+        sb.append('}');
+        return toBytes();
+    }
+
+    public byte[] encodeBatch(SensorSampleBuffer buffer) {
+        return encodeBatch(buffer, null);
+    }
+
+    public byte[] encodeBatch(SensorSampleBuffer buffer, AcousticLevels acoustics) {
+        int count = buffer.size();
+
+        sb.setLength(0);
+        sb.append("{\"count\":").append(count).append(",\"samples\":[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"t\":").append(buffer.getTimestamp(i)).append(',');
+            appendValues(buffer.getLight(i), buffer.getAx(i), buffer.getAy(i),
+                    buffer.getAz(i), buffer.getSound(i));
+            sb.append('}');
+        }
+        sb.append(']');
+        appendAcoustics(acoustics);
+        sb.append('}');
+        return toBytes();
+    }
+
+    public byte[] encodeAggregate(WindowAggregator window, long windowMs) {
+        return encodeAggregate(window, windowMs, null);
+    }
+
+    public byte[] encodeAggregate(WindowAggregator window, long windowMs, AcousticLevels acoustics) {
+        sb.setLength(0);
+        sb.append("{\"t\":").append(window.getWindowStart())
+                .append(",\"window\":").append(Math.max(1L, windowMs))
+                .append(",\"light\":").append(window.mean(SensorChannel.LIGHT))
+                .append(",\"sound\":").append(window.mean(SensorChannel.SOUND));
+        appendAcoustics(acoustics);
+        sb.append(",\"stats\":{");
+        appendStats("light", window, SensorChannel.LIGHT);
+        sb.append(',');
+        appendStats("accel", window, SensorChannel.ACCEL);
+        sb.append(',');
+        appendStats("sound", window, SensorChannel.SOUND);
+        sb.append("}}");
+        return toBytes();
+    }
+
+    public byte[] encodeEvent(VibrationEvent event) {
+        sb.setLength(0);
+        sb.append("{\"event\":\"vibration\",\"t\":").append(event.startMs)
+                .append(",\"duration\":").append(event.durationMs)
+                .append(",\"peak\":").append(event.peak)
+                .append(",\"ratio\":").append(event.peakRatio)
+                .append('}');
+        return toBytes();
+    }
+
+    private void appendStats(String key, WindowAggregator window, SensorChannel channel) {
+        sb.append('"').append(key).append("\":[")
+                .append(window.count(channel)).append(',')
+                .append(window.min(channel)).append(',')
+                .append(window.max(channel)).append(',')
+                .append(window.mean(channel)).append(',')
+                .append(window.rms(channel)).append(']');
+    }
+
+    private void appendAcoustics(AcousticLevels acoustics) {
+        if (acoustics == null) return;
+        sb.append(",\"laeq\":").append(acoustics.laeq).append(",\"bands\":[");
+        for (int b = 0; b < AcousticLevels.BAND_COUNT; b++) {
+            if (b > 0) sb.append(',');
+            sb.append(acoustics.bands[b]);
+        }
+        sb.append(']');
+    }
+
+    private void appendValues(float light, float ax, float ay, float az, float sound) {
+        sb.append("\"light\":").append(light).append(',')
+                .append("\"ax\":").append(ax).append(',')
+                .append("\"ay\":").append(ay).append(',')
+                .append("\"az\":").append(az).append(',')
+                .append("\"sound\":").append(sound);
+    }
+
+    private byte[] toBytes() {
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
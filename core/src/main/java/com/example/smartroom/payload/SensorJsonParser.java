@@ -0,0 +1,452 @@
+package com.example.smartroom.payload;
+
+import com.example.smartroom.publisher.model.SensorChannel;
+import com.example.smartroom.subscriber.model.SensorData;
+
+/**
+ * Single-pass parser for the JSON sensor payloads, reading straight from the
+ * MQTT payload bytes into a caller-supplied {@link SensorData}.
+ *
+ * No Strings or arrays are created while parsing. Unknown keys are skipped
+ * whatever their value (strings with ':' or ',', nested objects, arrays).
+ * For batch frames ({"count":N,"samples":[...]}) the newest sample wins;
+ * aggregate frames fill the stat arrays from {"stats":{"light":[n,min,max,mean,rms],...}}.
+ * Top-level "laeq" and "bands" fill the acoustic fields; {"event":"vibration",...}
+ * frames fill the event fields.
+ *
+ * Keeps its cursor in fields, so one instance per thread.
+ */
+public class SensorJsonParser {
+
+    private static final byte[] KEY_LIGHT = ascii("light");
+    private static final byte[] KEY_AX = ascii("ax");
+    private static final byte[] KEY_AY = ascii("ay");
+    private static final byte[] KEY_AZ = ascii("az");
+    private static final byte[] KEY_SOUND = ascii("sound");
+    private static final byte[] KEY_T = ascii("t");
+    private static final byte[] KEY_COUNT = ascii("count");
+    private static final byte[] KEY_SAMPLES = ascii("samples");
+    private static final byte[] KEY_WINDOW = ascii("window");
+    private static final byte[] KEY_STATS = ascii("stats");
+    private static final byte[] KEY_ACCEL = ascii("accel");
+    private static final byte[] KEY_LAEQ = ascii("laeq");
+    private static final byte[] KEY_BANDS = ascii("bands");
+    private static final byte[] KEY_EVENT = ascii("event");
+    private static final byte[] KEY_DURATION = ascii("duration");
+    private static final byte[] KEY_PEAK = ascii("peak");
+    private static final byte[] KEY_RATIO = ascii("ratio");
+    private static final byte[] VALUE_VIBRATION = ascii("vibration");
+
+    // Powers of ten that are exact in a double
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private byte[] buf;
+    private int pos;
+    private int end;
+
+    public boolean parse(byte[] payload, SensorData out) {
+        return payload != null && parse(payload, 0, payload.length, out);
+    }
+
+    /**
+     * Parses {@code payload[offset, offset + length)} into {@code out}.
+     * Returns false (leaving {@code out} partially filled) on malformed input.
+     */
+    public boolean parse(byte[] payload, int offset, int length, SensorData out) {
+        buf = payload;
+        pos = offset;
+        end = offset + length;
+        try {
+            out.sampleCount = 1;
+            skipWhitespace();
+            return parseObject(out, true);
+        } catch (MalformedException e) {
+            return false;
+        } finally {
+            buf = null;
+        }
+    }
+
+    // ---- Grammar ----
+
+    // Reads {...}; sensor keys go into out, "samples" recurses one level for batches
+    private boolean parseObject(SensorData out, boolean topLevel) {
+        expect('{');
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            return true;
+        }
+
+        while (true) {
+            skipWhitespace();
+            expect('"');
+            int keyStart = pos;
+            skipStringBody();
+            int keyEnd = pos - 1; // closing quote
+
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+
+            if (keyEquals(keyStart, keyEnd, KEY_LIGHT)) {
+                out.light = (float) readNumber();
+            } else if (keyEquals(keyStart, keyEnd, KEY_AX)) {
+                out.ax = (float) readNumber();
+            } else if (keyEquals(keyStart, keyEnd, KEY_AY)) {
+                out.ay = (float) readNumber();
+            } else if (keyEquals(keyStart, keyEnd, KEY_AZ)) {
+                out.az = (float) readNumber();
+            } else if (keyEquals(keyStart, keyEnd, KEY_SOUND)) {
+                out.sound = (float) readNumber();
+            } else if (keyEquals(keyStart, keyEnd, KEY_T)) {
+                out.timestamp = (long) readNumber();
+            } else if (topLevel && keyEquals(keyStart, keyEnd, KEY_COUNT)) {
+                out.sampleCount = (int) readNumber();
+            } else if (topLevel && keyEquals(keyStart, keyEnd, KEY_SAMPLES) && peek() == '[') {
+                parseSamples(out);
+            } else if (topLevel && keyEquals(keyStart, keyEnd, KEY_WINDOW)) {
+                out.windowMs = (long) readNumber();
+            } else if (topLevel && keyEquals(keyStart, keyEnd, KEY_STATS) && peek() == '{') {
+                parseStats(out);
+            } else if (topLevel && keyEquals(keyStart, keyEnd, KEY_LAEQ)) {
+                out.laeq = (float) readNumber();
+            } else if (topLevel && keyEquals(keyStart, keyEnd, KEY_BANDS) && peek() == '[') {
+                parseBands(out);
+            } else if (topLevel && keyEquals(keyStart, keyEnd, KEY_EVENT) && peek() == '"') {
+                pos++;
+                int valueStart = pos;
+                skipStringBody();
+                // Other event kinds are left for newer subscribers
+                out.event = keyEquals(valueStart, pos - 1, VALUE_VIBRATION);
+            } else if (topLevel && keyEquals(keyStart, keyEnd, KEY_DURATION)) {
+                out.eventDurationMs = (long) readNumber();
+            } else if (topLevel && keyEquals(keyStart, keyEnd, KEY_PEAK)) {
+                out.eventPeak = (float) readNumber();
+            } else if (topLevel && keyEquals(keyStart, keyEnd, KEY_RATIO)) {
+                out.eventRatio = (float) readNumber();
+            } else {
+                skipValue();
+            }
+
+            skipWhitespace();
+            byte c = next();
+            if (c == '}') return true;
+            if (c != ',') throw MalformedException.INSTANCE;
+        }
+    }
+
+    private void parseSamples(SensorData out) {
+        expect('[');
+        skipWhitespace();
+        if (peek() == ']') {
+            pos++;
+            return;
+        }
+        while (true) {
+            skipWhitespace();
+            if (peek() == '{') {
+                parseObject(out, false);
+            } else {
+                skipValue();
+            }
+            skipWhitespace();
+            byte c = next();
+            if (c == ']') return;
+            if (c != ',') throw MalformedException.INSTANCE;
+        }
+    }
+
+    // [63 Hz level, 125 Hz level, ...]; levels past what SensorData holds are skipped
+    private void parseBands(SensorData out) {
+        expect('[');
+        skipWhitespace();
+        int count = 0;
+        if (peek() == ']') {
+            pos++;
+        } else {
+            while (true) {
+                skipWhitespace();
+                double level = readNumber();
+                if (count < out.bands.length) out.bands[count++] = (float) level;
+                skipWhitespace();
+                byte c = next();
+                if (c == ']') break;
+                if (c != ',') throw MalformedException.INSTANCE;
+            }
+        }
+        out.bandCount = count;
+    }
+
+    // {"light":[n,min,max,mean,rms],"accel":[...],"sound":[...]}
+    private void parseStats(SensorData out) {
+        expect('{');
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            return;
+        }
+        int samples = 0;
+        while (true) {
+            skipWhitespace();
+            expect('"');
+            int keyStart = pos;
+            skipStringBody();
+            int keyEnd = pos - 1;
+
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+
+            int channel = -1;
+            if (keyEquals(keyStart, keyEnd, KEY_LIGHT)) {
+                channel = SensorChannel.LIGHT.ordinal();
+            } else if (keyEquals(keyStart, keyEnd, KEY_ACCEL)) {
+                channel = SensorChannel.ACCEL.ordinal();
+            } else if (keyEquals(keyStart, keyEnd, KEY_SOUND)) {
+                channel = SensorChannel.SOUND.ordinal();
+            }
+            if (channel >= 0 && peek() == '[') {
+                readStats(out, channel);
+                samples += out.statCount[channel];
+            } else {
+                skipValue();
+            }
+
+            skipWhitespace();
+            byte c = next();
+            if (c == '}') break;
+            if (c != ',') throw MalformedException.INSTANCE;
+        }
+        out.sampleCount = samples;
+    }
+
+    private void readStats(SensorData out, int channel) {
+        expect('[');
+        out.statCount[channel] = (int) readStat();
+        out.statMin[channel] = (float) readStat();
+        out.statMax[channel] = (float) readStat();
+        out.statMean[channel] = (float) readStat();
+        skipWhitespace();
+        out.statRms[channel] = (float) readNumber();
+        skipWhitespace();
+        expect(']');
+    }
+
+    // One array element followed by its ','
+    private double readStat() {
+        skipWhitespace();
+        double value = readNumber();
+        skipWhitespace();
+        expect(',');
+        return value;
+    }
+
+    private void skipValue() {
+        byte c = peek();
+        switch (c) {
+            case '"':
+                pos++;
+                skipStringBody();
+                return;
+            case '{':
+            case '[':
+                skipContainer();
+                return;
+            default:
+                // number, true, false, null
+                while (pos < end) {
+                    byte b = buf[pos];
+                    if (b == ',' || b == '}' || b == ']' || isWhitespace(b)) return;
+                    pos++;
+                }
+        }
+    }
+
+    // Skips a balanced {...} or [...] including any strings inside it
+    private void skipContainer() {
+        int depth = 0;
+        while (pos < end) {
+            byte b = buf[pos++];
+            if (b == '"') {
+                skipStringBody();
+            } else if (b == '{' || b == '[') {
+                depth++;
+            } else if (b == '}' || b == ']') {
+                if (--depth == 0) return;
+            }
+        }
+        throw MalformedException.INSTANCE;
+    }
+
+    // Called just after an opening quote; leaves pos after the closing quote
+    private void skipStringBody() {
+        while (pos < end) {
+            byte b = buf[pos++];
+            if (b == '\\') {
+                pos++;
+            } else if (b == '"') {
+                return;
+            }
+        }
+        throw MalformedException.INSTANCE;
+    }
+
+    // ---- Numbers ----
+
+    // Parses a JSON number (sign, fraction, exponent) without building a String
+    private double readNumber() {
+        boolean negative = false;
+        if (peek() == '-') {
+            negative = true;
+            pos++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean any = false;
+
+        while (pos < end && isDigit(buf[pos])) {
+            any = true;
+            if (digits < 18) {
+                mantissa = mantissa * 10 + (buf[pos] - '0');
+                if (mantissa != 0) digits++;
+            } else {
+                exponent++; // too many digits to keep, just scale
+            }
+            pos++;
+        }
+
+        if (pos < end && buf[pos] == '.') {
+            pos++;
+            while (pos < end && isDigit(buf[pos])) {
+                any = true;
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (buf[pos] - '0');
+                    if (mantissa != 0) digits++;
+                    exponent--;
+                }
+                pos++;
+            }
+        }
+
+        if (!any) {
+            // Float.toString() can produce NaN / Infinity; treat them as literals
+            return readNonFinite(negative);
+        }
+
+        if (pos < end && (buf[pos] == 'e' || buf[pos] == 'E')) {
+            pos++;
+            boolean expNegative = false;
+            if (pos < end && (buf[pos] == '+' || buf[pos] == '-')) {
+                expNegative = buf[pos] == '-';
+                pos++;
+            }
+            int exp = 0;
+            boolean expDigits = false;
+            while (pos < end && isDigit(buf[pos])) {
+                expDigits = true;
+                if (exp < 10000) exp = exp * 10 + (buf[pos] - '0');
+                pos++;
+            }
+            if (!expDigits) throw MalformedException.INSTANCE;
+            exponent += expNegative ? -exp : exp;
+        }
+
+        double value = scale(mantissa, exponent);
+        return negative ? -value : value;
+    }
+
+    private static double scale(long mantissa, int exponent) {
+        if (mantissa == 0) return 0.0;
+        double value = mantissa;
+        if (exponent >= 0) {
+            while (exponent > 22) {
+                value *= 1e22;
+                exponent -= 22;
+            }
+            return value * POW10[exponent];
+        }
+        exponent = -exponent;
+        while (exponent > 22) {
+            value /= 1e22;
+            exponent -= 22;
+        }
+        return value / POW10[exponent];
+    }
+
+    private double readNonFinite(boolean negative) {
+        if (matchLiteral("NaN")) return Double.NaN;
+        if (matchLiteral("Infinity")) {
+            return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        }
+        throw MalformedException.INSTANCE;
+    }
+
+    private boolean matchLiteral(String literal) {
+        int n = literal.length();
+        if (end - pos < n) return false;
+        for (int i = 0; i < n; i++) {
+            if (buf[pos + i] != literal.charAt(i)) return false;
+        }
+        pos += n;
+        return true;
+    }
+
+    // ---- Low-level helpers ----
+
+    private boolean keyEquals(int start, int endExclusive, byte[] key) {
+        if (endExclusive - start != key.length) return false;
+        for (int i = 0; i < key.length; i++) {
+            if (buf[start + i] != key[i]) return false;
+        }
+        return true;
+    }
+
+    private void skipWhitespace() {
+        while (pos < end && isWhitespace(buf[pos])) pos++;
+    }
+
+    private byte peek() {
+        if (pos >= end) throw MalformedException.INSTANCE;
+        return buf[pos];
+    }
+
+    private byte next() {
+        if (pos >= end) throw MalformedException.INSTANCE;
+        return buf[pos++];
+    }
+
+    private void expect(char c) {
+        if (next() != c) throw MalformedException.INSTANCE;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    private static byte[] ascii(String s) {
+        byte[] out = new byte[s.length()];
+        for (int i = 0; i < out.length; i++) out[i] = (byte) s.charAt(i);
+        return out;
+    }
+
+    // Shared, stackless: malformed input should not cost an allocation either
+    private static final class MalformedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        static final MalformedException INSTANCE = new MalformedException();
+
+        private MalformedException() {
+            super("Malformed sensor payload", null, false, false);
+        }
+    }
+}
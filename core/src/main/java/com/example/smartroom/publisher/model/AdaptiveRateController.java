@@ -0,0 +1,69 @@
+package com.example.smartroom.publisher.model;
+
+/**
+ * Decides when one channel is due for a report under its {@link ChannelPolicy}.
+ * Holds up to three components (accelerometer axes); the deadband applies to
+ * each of them against the last reported value. Not thread-safe.
+ */
+public final class AdaptiveRateController {
+
+    private final ChannelPolicy policy;
+    private final float[] current = new float[3];
+    private final float[] reported = new float[3];
+
+    private boolean hasValue = false;
+    private boolean everReported = false;
+    private long lastReportAt = 0L;
+    private long intervalMs;
+
+    public AdaptiveRateController(ChannelPolicy policy) {
+        this.policy = policy;
+        this.intervalMs = policy.minPublishIntervalMs;
+    }
+
+    public void observe(float value) {
+        observe(value, 0f, 0f);
+    }
+
+    public void observe(float x, float y, float z) {
+        current[0] = x;
+        current[1] = y;
+        current[2] = z;
+        hasValue = true;
+    }
+
+    /** True if the latest value moved past the deadband since the last report. */
+    public boolean hasChanged() {
+        if (!hasValue) return false;
+        if (!everReported) return true;
+        for (int i = 0; i < 3; i++) {
+            if (Math.abs(current[i] - reported[i]) > policy.deadband) return true;
+        }
+        return false;
+    }
+
+    public boolean isDue(long nowMs) {
+        if (!hasValue) return false;
+        long since = nowMs - lastReportAt;
+        if (hasChanged()) return !everReported || since >= policy.minPublishIntervalMs;
+        return since >= intervalMs; // heartbeat
+    }
+
+    /** Call after the channel's current value went out. */
+    public void onReported(long nowMs) {
+        if (!hasValue) return;
+        // Moving: stay at the fast rate. Static: back off towards the heartbeat.
+        if (hasChanged()) {
+            intervalMs = policy.minPublishIntervalMs;
+        } else {
+            intervalMs = Math.min(policy.maxPublishIntervalMs, intervalMs * 2);
+        }
+        System.arraycopy(current, 0, reported, 0, 3);
+        everReported = true;
+        lastReportAt = nowMs;
+    }
+
+    public long getIntervalMs() {
+        return intervalMs;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.smartroom.publisher.model;
+
+public enum CaptureMode {
+    // Every sensor event is delivered as it happens: one CPU wakeup per event
+    DIRECT,
+    // Events queue in the sensor hub's FIFO and arrive in bursts, at most one
+    // report latency late; accel bursts are resampled onto an even grid
+    HARDWARE_FIFO;
+
+    // Longest a burst may be held back; snapshots lag by up to this much
+    public static final long MAX_REPORT_LATENCY_MS = 5_000;
+
+    /**
+     * maxReportLatencyUs for a sensor sampled every {@code samplePeriodMs} with
+     * {@code fifoReservedEvents} FIFO slots of its own. Capped at 90% of what the
+     * FIFO holds, so a burst is delivered before it overflows and events drop;
+     * 0 (no batching) for DIRECT or a sensor without a FIFO.
+     */
+    public long reportLatencyUs(int samplePeriodMs, int fifoReservedEvents) {
+        if (this == DIRECT || fifoReservedEvents <= 0) return 0L;
+        long fitsMs = (long) fifoReservedEvents * samplePeriodMs * 9 / 10;
+        return Math.min(MAX_REPORT_LATENCY_MS, fitsMs) * 1000L;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.smartroom.publisher.model;
+
+import com.hivemq.client.mqtt.datatypes.MqttQos;
+
+/**
+ * How one sensor channel is sampled and reported.
+ *
+ * A channel is reported at most every {@code minPublishIntervalMs} while its
+ * value keeps moving past the deadband. When it stays put, the interval
+ * doubles per report up to {@code maxPublishIntervalMs}, which then works as
+ * a heartbeat. Frames reported for the channel go out with {@code qos}.
+ */
+public final class ChannelPolicy {
+    public final int samplePeriodMs;        // sensor sampling / poll period
+    public final long minPublishIntervalMs; // fastest rate, used while the value changes
+    public final long maxPublishIntervalMs; // slowest rate, used while the value is static
+    public final float deadband;            // changes up to this size are not reported
+    public final MqttQos qos;               // AT_MOST_ONCE: fire-and-forget, never spooled
+
+    public ChannelPolicy(int samplePeriodMs, long minPublishIntervalMs,
+                         long maxPublishIntervalMs, float deadband) {
+        this(samplePeriodMs, minPublishIntervalMs, maxPublishIntervalMs, deadband,
+                MqttQos.AT_LEAST_ONCE);
+    }
+
+    public ChannelPolicy(int samplePeriodMs, long minPublishIntervalMs,
+                         long maxPublishIntervalMs, float deadband, MqttQos qos) {
+        if (samplePeriodMs <= 0 || minPublishIntervalMs <= 0
+                || maxPublishIntervalMs < minPublishIntervalMs || deadband < 0f || qos == null) {
+            throw new IllegalArgumentException("Invalid channel policy");
+        }
+        this.samplePeriodMs = samplePeriodMs;
+        this.minPublishIntervalMs = minPublishIntervalMs;
+        this.maxPublishIntervalMs = maxPublishIntervalMs;
+        this.deadband = deadband;
+        this.qos = qos;
+    }
+
+    /** Fixed rate, every sample reported: the old behaviour. */
+    public static ChannelPolicy fixed(int samplePeriodMs, long publishIntervalMs) {
+        return new ChannelPolicy(samplePeriodMs, publishIntervalMs, publishIntervalMs, 0f);
+    }
+}
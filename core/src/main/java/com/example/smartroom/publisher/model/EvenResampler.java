@@ -0,0 +1,80 @@
+package com.example.smartroom.publisher.model;
+
+/**
+ * Rebuilds an evenly spaced series from sensor events that arrive late and in
+ * bursts (hardware FIFO batching) or with jitter. Events carry their own
+ * timestamps; samples come out every {@code periodNs} on that clock, each
+ * linearly interpolated between the two events around it.
+ *
+ * A gap longer than {@code maxGapNs} (events lost, or the sensor stopped) is
+ * not bridged with made-up samples: the grid restarts at the next event.
+ * Nothing is allocated per event; the sink's array is reused.
+ */
+public final class EvenResampler {
+
+    public interface Sink {
+        /** {@code values} is only valid during the call. */
+        void onSample(long timestampNs, float[] values);
+    }
+
+    private final int axes;
+    private final long periodNs;
+    private final long maxGapNs;
+    private final Sink sink;
+
+    private final float[] previous;
+    private final float[] out;
+    private long previousAt;
+    private long nextAt;
+    private boolean primed = false;
+    private long droppedCount = 0L;
+
+    public EvenResampler(int axes, long periodNs, long maxGapNs, Sink sink) {
+        if (axes <= 0 || periodNs <= 0 || maxGapNs < periodNs || sink == null) {
+            throw new IllegalArgumentException("Invalid resampler");
+        }
+        this.axes = axes;
+        this.periodNs = periodNs;
+        this.maxGapNs = maxGapNs;
+        this.sink = sink;
+        previous = new float[axes];
+        out = new float[axes];
+    }
+
+    /** Adds one event; the first {@code axes} entries of {@code values} are read. */
+    public void add(long timestampNs, float[] values) {
+        if (!primed || timestampNs - previousAt > maxGapNs) {
+            // First event, or nothing usable to interpolate from: start the grid here
+            System.arraycopy(values, 0, previous, 0, axes);
+            previousAt = timestampNs;
+            nextAt = timestampNs + periodNs;
+            primed = true;
+            System.arraycopy(values, 0, out, 0, axes);
+            sink.onSample(timestampNs, out);
+            return;
+        }
+        if (timestampNs <= previousAt) {
+            droppedCount++; // duplicate or out of order
+            return;
+        }
+
+        double span = timestampNs - previousAt;
+        while (nextAt <= timestampNs) {
+            float f = (float) ((nextAt - previousAt) / span);
+            for (int a = 0; a < axes; a++) {
+                out[a] = previous[a] + (values[a] - previous[a]) * f;
+            }
+            sink.onSample(nextAt, out);
+            nextAt += periodNs;
+        }
+        System.arraycopy(values, 0, previous, 0, axes);
+        previousAt = timestampNs;
+    }
+
+    /** Forgets the last event; the next one starts a new grid. */
+    public void reset() {
+        primed = false;
+    }
+
+    public long getDroppedCount() { return droppedCount; }
+}
@@ -0,0 +1,296 @@
+package com.example.smartroom.publisher.model;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bounded on-disk FIFO of encoded frames, used while the broker is unreachable.
+ *
+ * Frames are appended to memory-mapped segment files of a fixed size, so an
+ * append is a couple of memory writes and survives the process being killed.
+ * Layout of a segment:
+ *   int32 magic, int32 readOffset, then records of (int32 length, bytes).
+ * A zero length marks the end of the data; the length is written after the
+ * bytes, so a torn append is simply not there after a restart.
+ *
+ * Readers {@link #peek} a batch and {@link #commit} it once it was delivered.
+ * Every frame has a running index, so a commit that arrives after its frames
+ * were evicted does not remove newer ones. Methods are synchronized: frames
+ * are appended on the publisher thread and committed from MQTT callbacks.
+ */
+public final class FrameSpool implements Closeable {
+
+    static final int MAGIC = 0x53525350; // "SRSP"
+    static final int HEADER_SIZE = 8;
+    static final int RECORD_HEADER_SIZE = 4;
+    private static final int READ_OFFSET_AT = 4;
+    private static final String SUFFIX = ".seg";
+    private static final int SEQ_DIGITS = 12;
+
+    private static final class Segment {
+        final File file;
+        final MappedByteBuffer map;
+        int readPos = HEADER_SIZE;
+        int writePos = HEADER_SIZE;
+        int frames = 0; // pending, i.e. between readPos and writePos
+
+        Segment(File file, MappedByteBuffer map) {
+            this.file = file;
+            this.map = map;
+        }
+    }
+
+    private final File dir;
+    private final SpoolPolicy policy;
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+
+    private long nextSeq = 0L;
+    private long headIndex = 0L; // running index of the oldest pending frame
+    private int pending = 0;
+    private long droppedCount = 0L;
+    private boolean closed = false;
+
+    /** Opens the spool in {@code dir}, picking up frames left by an earlier run. */
+    public FrameSpool(File dir, SpoolPolicy policy) throws IOException {
+        this.dir = dir;
+        this.policy = policy;
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        recover();
+    }
+
+    // ---- Writing ----
+
+    /**
+     * Queues one frame. Returns false if it was refused: empty, larger than a
+     * segment, or the spool is full under {@link SpoolPolicy.Overflow#DROP_NEWEST}.
+     */
+    public synchronized boolean append(byte[] frame) throws IOException {
+        if (closed || frame.length == 0 || frame.length > policy.maxFrameBytes()) {
+            droppedCount++;
+            return false;
+        }
+
+        int need = RECORD_HEADER_SIZE + frame.length;
+        Segment tail = segments.peekLast();
+        if (tail == null || tail.writePos + need > tail.map.capacity()) {
+            if (segments.size() >= policy.maxSegments) {
+                if (policy.overflow == SpoolPolicy.Overflow.DROP_NEWEST) {
+                    droppedCount++;
+                    return false;
+                }
+                evictOldest();
+            }
+            tail = createSegment();
+        }
+
+        MappedByteBuffer map = tail.map;
+        map.position(tail.writePos + RECORD_HEADER_SIZE);
+        map.put(frame);
+        // Length last: until it is there the record does not exist
+        map.putInt(tail.writePos, frame.length);
+        tail.writePos += need;
+        tail.frames++;
+        pending++;
+        return true;
+    }
+
+    // ---- Reading ----
+
+    /**
+     * Copies up to {@code max} of the oldest frames into {@code out} without
+     * removing them. Returns the running index of the first one; pass
+     * {@code index + count} to {@link #commit} once they are delivered.
+     */
+    public synchronized long peek(int max, List<byte[]> out) {
+        int copied = 0;
+        for (Segment segment : segments) {
+            int pos = segment.readPos;
+            for (int i = 0; i < segment.frames && copied < max; i++) {
+                int length = segment.map.getInt(pos);
+                byte[] frame = new byte[length];
+                segment.map.position(pos + RECORD_HEADER_SIZE);
+                segment.map.get(frame);
+                out.add(frame);
+                pos += RECORD_HEADER_SIZE + length;
+                copied++;
+            }
+            if (copied == max) break;
+        }
+        return headIndex;
+    }
+
+    /** Removes every frame with a running index below {@code endIndex}. */
+    public synchronized void commit(long endIndex) {
+        long remove = Math.min(endIndex - headIndex, pending);
+        while (remove > 0) {
+            Segment head = segments.peekFirst();
+            if (head == null) break;
+            if (head.frames == 0) {
+                deleteSegment(segments.pollFirst());
+                continue;
+            }
+            head.readPos += RECORD_HEADER_SIZE + head.map.getInt(head.readPos);
+            head.frames--;
+            pending--;
+            headIndex++;
+            remove--;
+            if (head.frames == 0) {
+                deleteSegment(segments.pollFirst());
+            } else {
+                head.map.putInt(READ_OFFSET_AT, head.readPos);
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return pending;
+    }
+
+    public synchronized boolean isEmpty() {
+        return pending == 0;
+    }
+
+    /** Frames lost to overflow or refused since the spool was opened. */
+    public synchronized long getDroppedCount() {
+        return droppedCount;
+    }
+
+    // ---- Lifecycle ----
+
+    /** Writes dirty pages back to the files; the OS does it anyway, this just does it now. */
+    public synchronized void flush() {
+        for (Segment segment : segments) {
+            segment.map.force();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        flush();
+        segments.clear();
+        closed = true;
+    }
+
+    // ---- Segments ----
+
+    private void recover() throws IOException {
+        File[] files = dir.listFiles((d, name) -> name.endsWith(SUFFIX));
+        if (files == null) return;
+        // Names are zero-padded sequence numbers, so name order is append order
+        Arrays.sort(files);
+
+        for (File file : files) {
+            long seq = parseSeq(file.getName());
+            Segment segment = seq >= 0 ? openSegment(file) : null;
+            if (segment == null || segment.frames == 0) {
+                file.delete();
+                continue;
+            }
+            nextSeq = seq + 1;
+            segments.addLast(segment);
+            pending += segment.frames;
+        }
+        // Over the limit after a policy change: the overflow rule decides what stays
+        while (segments.size() > policy.maxSegments) {
+            if (policy.overflow == SpoolPolicy.Overflow.DROP_NEWEST) {
+                Segment newest = segments.pollLast();
+                pending -= newest.frames;
+                droppedCount += newest.frames;
+                newest.file.delete();
+            } else {
+                evictOldest();
+            }
+        }
+    }
+
+    // Maps an existing file and finds its pending records; null if it is not a segment
+    private Segment openSegment(File file) throws IOException {
+        long length = file.length();
+        if (length < HEADER_SIZE || length > Integer.MAX_VALUE) return null;
+
+        Segment segment = new Segment(file, map(file, length));
+        MappedByteBuffer map = segment.map;
+        int size = (int) length;
+        if (map.getInt(0) != MAGIC) return null;
+
+        int readPos = map.getInt(READ_OFFSET_AT);
+        if (readPos < HEADER_SIZE || readPos > size) return null;
+
+        int pos = HEADER_SIZE;
+        int frames = 0;
+        boolean aligned = pos == readPos;
+        while (pos + RECORD_HEADER_SIZE <= size) {
+            int recordLength = map.getInt(pos);
+            if (recordLength <= 0 || pos + RECORD_HEADER_SIZE + recordLength > size) break;
+            pos += RECORD_HEADER_SIZE + recordLength;
+            if (pos > readPos) frames++;
+            if (pos == readPos) aligned = true;
+        }
+        // A read offset that is not on a record boundary cannot be trusted
+        if (!aligned) return null;
+        segment.readPos = readPos;
+        segment.writePos = pos;
+        segment.frames = frames;
+        return segment;
+    }
+
+    private Segment createSegment() throws IOException {
+        long seq = nextSeq++;
+        File file = segmentFile(seq);
+        Segment segment = new Segment(file, map(file, policy.segmentBytes));
+        segment.map.putInt(0, MAGIC);
+        segment.map.putInt(READ_OFFSET_AT, HEADER_SIZE);
+        segments.addLast(segment);
+        return segment;
+    }
+
+    private void evictOldest() {
+        Segment oldest = segments.pollFirst();
+        if (oldest == null) return;
+        pending -= oldest.frames;
+        headIndex += oldest.frames;
+        droppedCount += oldest.frames;
+        deleteSegment(oldest);
+    }
+
+    private void deleteSegment(Segment segment) {
+        // The mapping stays valid until it is collected; nothing reads it any more
+        segment.file.delete();
+    }
+
+    private static long parseSeq(String name) {
+        if (name.length() != SEQ_DIGITS + SUFFIX.length()) return -1;
+        long seq = 0;
+        for (int i = 0; i < SEQ_DIGITS; i++) {
+            char c = name.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            seq = seq * 10 + (c - '0');
+        }
+        return seq;
+    }
+
+    private File segmentFile(long seq) {
+        String name = Long.toString(seq);
+        StringBuilder sb = new StringBuilder(SEQ_DIGITS + SUFFIX.length());
+        for (int i = name.length(); i < SEQ_DIGITS; i++) sb.append('0');
+        return new File(dir, sb.append(name).append(SUFFIX).toString());
+    }
+
+    private static MappedByteBuffer map(File file, long size) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            if (raf.length() < size) raf.setLength(size);
+            // The mapping outlives the channel
+            return raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+}
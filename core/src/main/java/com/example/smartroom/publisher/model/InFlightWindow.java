@@ -0,0 +1,82 @@
+package com.example.smartroom.publisher.model;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caps how many publishes may wait for the broker at once, so a slow broker
+ * cannot make pending futures pile up on the heap. The producer checks
+ * {@link #isFull()} to hold back frames (backpressure); a send that does not
+ * fit fails right away instead of queueing.
+ */
+public final class InFlightWindow {
+
+    private final int capacity;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    public InFlightWindow(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0");
+        }
+        this.capacity = capacity;
+    }
+
+    /** Takes a slot, or returns false (and counts a rejection) if none is free. */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= capacity) {
+                rejectedCount.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Runs {@code send} in a slot that is given back when its future completes.
+     * Without a free slot {@code send} is not called and the returned future
+     * fails with a {@link RejectedExecutionException}.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> send) {
+        if (!tryAcquire()) {
+            CompletableFuture<T> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(new RejectedExecutionException("In-flight window full"));
+            return rejected;
+        }
+        CompletableFuture<T> future;
+        try {
+            future = send.get();
+        } catch (RuntimeException e) {
+            release();
+            throw e;
+        }
+        future.whenComplete((result, throwable) -> release());
+        return future;
+    }
+
+    public boolean isFull() {
+        return inFlight.get() >= capacity;
+    }
+
+    public int size() {
+        return inFlight.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /** Sends turned away because the window was full. */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.smartroom.publisher.model;
+
+public enum PublishMode {
+    // One message per tick with only the latest value of each sensor
+    SNAPSHOT,
+    // Every sensor event is buffered and sent as one framed message per window
+    BATCH,
+    // Only min / max / mean / RMS / count of each channel, one message per window
+    AGGREGATE,
+    // Vibration events as they are detected, plus a slow aggregate for the rest
+    EVENTS
+}
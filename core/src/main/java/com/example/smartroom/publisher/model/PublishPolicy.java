@@ -0,0 +1,71 @@
+package com.example.smartroom.publisher.model;
+
+import com.hivemq.client.mqtt.datatypes.MqttQos;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/** One {@link ChannelPolicy} per sensor channel. */
+public final class PublishPolicy {
+
+    private final Map<SensorChannel, ChannelPolicy> channels;
+
+    public PublishPolicy(ChannelPolicy light, ChannelPolicy accel, ChannelPolicy sound) {
+        if (light == null || accel == null || sound == null) {
+            throw new IllegalArgumentException("Every channel needs a policy");
+        }
+        channels = new EnumMap<>(SensorChannel.class);
+        channels.put(SensorChannel.LIGHT, light);
+        channels.put(SensorChannel.ACCEL, accel);
+        channels.put(SensorChannel.SOUND, sound);
+    }
+
+    /**
+     * Room-monitoring defaults: quick reports while something happens, a 30 s
+     * heartbeat for an idle room (was a fixed 2 s). Accel reports come fast and
+     * the next one is never far, so losing one is fine: QoS 0.
+     */
+    public static PublishPolicy defaults() {
+        return new PublishPolicy(
+                new ChannelPolicy(200, 500, 30_000, 5f),    // light: 5 lx
+                new ChannelPolicy(200, 250, 30_000, 0.2f,   // accel: 0.2 m/s² on any axis
+                        MqttQos.AT_MOST_ONCE),
+                new ChannelPolicy(500, 500, 30_000, 2f)     // sound: 2 dB (RMS dBFS)
+        );
+    }
+
+    public ChannelPolicy get(SensorChannel channel) {
+        return channels.get(channel);
+    }
+
+    /** This policy with {@code channel} tuned differently; the others are kept. */
+    public PublishPolicy with(SensorChannel channel, ChannelPolicy policy) {
+        return new PublishPolicy(
+                channel == SensorChannel.LIGHT ? policy : get(SensorChannel.LIGHT),
+                channel == SensorChannel.ACCEL ? policy : get(SensorChannel.ACCEL),
+                channel == SensorChannel.SOUND ? policy : get(SensorChannel.SOUND));
+    }
+
+    /**
+     * QoS for a frame that reports {@code reported}: the strongest any of them
+     * asks for, so a light change riding along with an accel report is not
+     * downgraded to fire-and-forget.
+     */
+    public MqttQos qosFor(SensorChannel... reported) {
+        MqttQos qos = MqttQos.AT_MOST_ONCE;
+        for (SensorChannel channel : reported) {
+            MqttQos wanted = channels.get(channel).qos;
+            if (wanted.getCode() > qos.getCode()) qos = wanted;
+        }
+        return qos;
+    }
+
+    /** Shortest minimum interval, i.e. how often the publisher has to check. */
+    public long tickMs() {
+        long tick = Long.MAX_VALUE;
+        for (ChannelPolicy policy : channels.values()) {
+            tick = Math.min(tick, policy.minPublishIntervalMs);
+        }
+        return tick;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.smartroom.publisher.model;
+
+/**
+ * Puts sensor samples from several sources back into timestamp order.
+ *
+ * With hardware FIFO batching a burst can arrive seconds after the live
+ * samples of other channels. Samples wait here, sorted by timestamp, until
+ * {@link #drain(long)} releases everything up to a watermark (arrival time
+ * minus the longest report latency), so the pipeline behind it sees one
+ * non-decreasing series. A sample older than one already released is too
+ * late to slot in: it goes out at the last released time and is counted.
+ *
+ * All storage is allocated once; when full, the oldest sample is released
+ * early. Not thread-safe.
+ */
+public final class SampleReorderBuffer {
+
+    public interface Sink {
+        /** Accel uses x, y, z; light and sound only x. */
+        void onSample(long timestampMs, SensorChannel channel, float x, float y, float z);
+    }
+
+    private static final SensorChannel[] CHANNELS = SensorChannel.values();
+
+    private final int capacity;
+    private final Sink sink;
+
+    // Sorted by timestamp, oldest at head
+    private final long[] timestamps;
+    private final byte[] channels;
+    private final float[] xs;
+    private final float[] ys;
+    private final float[] zs;
+    private int head = 0;
+    private int size = 0;
+
+    private long lastReleasedAt = Long.MIN_VALUE;
+    private long lateCount = 0L;
+
+    public SampleReorderBuffer(int capacity, Sink sink) {
+        if (capacity <= 0 || sink == null) {
+            throw new IllegalArgumentException("Invalid reorder buffer");
+        }
+        this.capacity = capacity;
+        this.sink = sink;
+        timestamps = new long[capacity];
+        channels = new byte[capacity];
+        xs = new float[capacity];
+        ys = new float[capacity];
+        zs = new float[capacity];
+    }
+
+    public void add(long timestampMs, SensorChannel channel, float x, float y, float z) {
+        if (size == capacity) releaseOldest();
+        if (timestampMs < lastReleasedAt) {
+            timestampMs = lastReleasedAt;
+            lateCount++;
+        }
+
+        // Walk back from the newest: each source is in order, so this is short
+        // unless a delayed burst lands behind live samples
+        int i = size;
+        while (i > 0 && timestamps[physical(i - 1)] > timestampMs) {
+            copy(physical(i - 1), physical(i));
+            i--;
+        }
+        int index = physical(i);
+        timestamps[index] = timestampMs;
+        channels[index] = (byte) channel.ordinal();
+        xs[index] = x;
+        ys[index] = y;
+        zs[index] = z;
+        size++;
+    }
+
+    /** Releases, oldest first, every sample stamped at or before {@code watermarkMs}. */
+    public void drain(long watermarkMs) {
+        while (size > 0 && timestamps[head] <= watermarkMs) {
+            releaseOldest();
+        }
+    }
+
+    /** Releases everything, e.g. before the last frame goes out. */
+    public void flush() {
+        drain(Long.MAX_VALUE);
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+        lastReleasedAt = Long.MIN_VALUE;
+    }
+
+    public int size() { return size; }
+
+    public long getLateCount() { return lateCount; }
+
+    private void releaseOldest() {
+        int index = head;
+        head = (head + 1) % capacity;
+        size--;
+        lastReleasedAt = timestamps[index];
+        sink.onSample(timestamps[index], CHANNELS[channels[index]], xs[index], ys[index], zs[index]);
+    }
+
+    private void copy(int from, int to) {
+        timestamps[to] = timestamps[from];
+        channels[to] = channels[from];
+        xs[to] = xs[from];
+        ys[to] = ys[from];
+        zs[to] = zs[from];
+    }
+
+    private int physical(int i) {
+        return (head + i) % capacity;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.smartroom.publisher.model;
+
+public enum SensorChannel {
+    // Ambient light, lx
+    LIGHT,
+    // Accelerometer x/y/z, m/s²
+    ACCEL,
+    // Microphone RMS level, dBFS (A-weighted Leq and octave bands ride along)
+    SOUND
+}
@@ -0,0 +1,82 @@
+package com.example.smartroom.publisher.model;
+
+/**
+ * Fixed-size ring buffer of timestamped sensor rows.
+ * All storage is allocated once in the constructor; when the buffer is full
+ * the oldest row is overwritten and counted in {@link #getDroppedCount()}.
+ */
+public class SensorSampleBuffer {
+
+    private final int capacity;
+
+    private final long[] timestamps;
+    private final float[] light;
+    private final float[] ax;
+    private final float[] ay;
+    private final float[] az;
+    private final float[] sound;
+
+    private int head = 0;   // index of the oldest row
+    private int size = 0;
+    private long droppedCount = 0;
+
+    public SensorSampleBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0");
+        }
+        this.capacity = capacity;
+        timestamps = new long[capacity];
+        light = new float[capacity];
+        ax = new float[capacity];
+        ay = new float[capacity];
+        az = new float[capacity];
+        sound = new float[capacity];
+    }
+
+    public void add(long timestampMs, float lux, float x, float y, float z, float snd) {
+        int index;
+        if (size == capacity) {
+            // Full: overwrite the oldest row
+            index = head;
+            head = (head + 1) % capacity;
+            droppedCount++;
+        } else {
+            index = (head + size) % capacity;
+            size++;
+        }
+
+        timestamps[index] = timestampMs;
+        light[index] = lux;
+        ax[index] = x;
+        ay[index] = y;
+        az[index] = z;
+        sound[index] = snd;
+    }
+
+    // ---- Accessors (i = 0 is the oldest row) ----
+
+    public long getTimestamp(int i) { return timestamps[physical(i)]; }
+    public float getLight(int i)    { return light[physical(i)]; }
+    public float getAx(int i)       { return ax[physical(i)]; }
+    public float getAy(int i)       { return ay[physical(i)]; }
+    public float getAz(int i)       { return az[physical(i)]; }
+    public float getSound(int i)    { return sound[physical(i)]; }
+
+    public int size() { return size; }
+    public int capacity() { return capacity; }
+    public boolean isEmpty() { return size == 0; }
+
+    public long getDroppedCount() { return droppedCount; }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    private int physical(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("index " + i + ", size " + size);
+        }
+        return (head + i) % capacity;
+    }
+}
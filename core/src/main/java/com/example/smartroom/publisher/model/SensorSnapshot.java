@@ -0,0 +1,29 @@
+package com.example.smartroom.publisher.model;
+
+/**
+ * Immutable view of the latest value of every sensor, handed to the UI as one
+ * object instead of one LiveData post per value.
+ */
+public final class SensorSnapshot {
+    public static final SensorSnapshot EMPTY = new SensorSnapshot(0L, 0f, 0f, 0f, 0f, 0f);
+
+    public final long timestamp; // wall clock ms of the newest reading
+    public final float light;
+    public final float ax;
+    public final float ay;
+    public final float az;
+    public final float sound;
+
+    public SensorSnapshot(long timestamp, float light, float ax, float ay, float az, float sound) {
+        this.timestamp = timestamp;
+        this.light = light;
+        this.ax = ax;
+        this.ay = ay;
+        this.az = az;
+        this.sound = sound;
+    }
+
+    public boolean sameAccel(SensorSnapshot other) {
+        return other != null && ax == other.ax && ay == other.ay && az == other.az;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.smartroom.publisher.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Empties a {@link FrameSpool} into a {@link Sink} in rate-limited batches.
+ *
+ * At most one batch is in flight. Its frames are committed once the sink
+ * completed them, up to the first failure; the rest stay queued and go out
+ * again with the next batch, so delivery is at-least-once and in order.
+ * {@link #drain} is cheap when there is nothing to do, call it on every tick.
+ */
+public final class SpoolDrainer {
+
+    public interface Sink {
+        /** Sends one frame; the future completes once the broker has it. */
+        CompletableFuture<?> send(byte[] frame);
+    }
+
+    private final FrameSpool spool;
+    private final Sink sink;
+    private final SpoolPolicy policy;
+
+    private final AtomicBoolean inFlight = new AtomicBoolean(false);
+    private final AtomicLong deliveredCount = new AtomicLong();
+    private final List<byte[]> batch = new ArrayList<>();
+    private boolean drained = false;
+    private long lastDrainAt = 0L;
+
+    public SpoolDrainer(FrameSpool spool, Sink sink, SpoolPolicy policy) {
+        this.spool = spool;
+        this.sink = sink;
+        this.policy = policy;
+    }
+
+    /**
+     * Sends the next batch unless one is still in flight or the drain interval
+     * has not passed yet. Returns how many frames went out. Call it from one
+     * thread only.
+     */
+    public int drain(long nowMs) {
+        if (inFlight.get() || spool.isEmpty()) return 0;
+        if (drained && nowMs - lastDrainAt < policy.drainIntervalMs) return 0;
+
+        batch.clear();
+        long first = spool.peek(policy.drainBatchSize, batch);
+        int count = batch.size();
+        if (count == 0) return 0;
+
+        inFlight.set(true);
+        drained = true;
+        lastDrainAt = nowMs;
+
+        CompletableFuture<?>[] acks = new CompletableFuture<?>[count];
+        for (int i = 0; i < count; i++) {
+            try {
+                acks[i] = sink.send(batch.get(i));
+            } catch (RuntimeException e) {
+                CompletableFuture<Void> failed = new CompletableFuture<>();
+                failed.completeExceptionally(e);
+                acks[i] = failed;
+            }
+        }
+        batch.clear();
+
+        CompletableFuture.allOf(acks).whenComplete((ignored, throwable) -> {
+            int delivered = 0;
+            while (delivered < count && !acks[delivered].isCompletedExceptionally()) {
+                delivered++;
+            }
+            spool.commit(first + delivered);
+            deliveredCount.addAndGet(delivered);
+            inFlight.set(false);
+        });
+        return count;
+    }
+
+    public boolean isDraining() {
+        return inFlight.get();
+    }
+
+    /** Spooled frames acknowledged by the sink so far. */
+    public long getDeliveredCount() {
+        return deliveredCount.get();
+    }
+}
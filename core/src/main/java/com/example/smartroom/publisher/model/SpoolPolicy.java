@@ -0,0 +1,49 @@
+package com.example.smartroom.publisher.model;
+
+/**
+ * Size and drain limits of the offline {@link FrameSpool}.
+ *
+ * The spool holds at most {@code maxSegments} files of {@code segmentBytes}
+ * each. When it is full, {@code overflow} decides which frames give way.
+ * On reconnect it is drained {@code drainBatchSize} frames at a time, at
+ * most once per {@code drainIntervalMs}, so a long backlog does not starve
+ * live frames or flood the broker.
+ */
+public final class SpoolPolicy {
+
+    public enum Overflow {
+        // Evict the oldest segment: the broker gets the most recent history
+        DROP_OLDEST,
+        // Refuse new frames: the oldest history is kept, the producer sees append() fail
+        DROP_NEWEST
+    }
+
+    public final int segmentBytes;
+    public final int maxSegments;
+    public final Overflow overflow;
+    public final int drainBatchSize;
+    public final long drainIntervalMs;
+
+    public SpoolPolicy(int segmentBytes, int maxSegments, Overflow overflow,
+                       int drainBatchSize, long drainIntervalMs) {
+        if (segmentBytes < 1024 || maxSegments < 2 || overflow == null
+                || drainBatchSize <= 0 || drainIntervalMs < 0) {
+            throw new IllegalArgumentException("Invalid spool policy");
+        }
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = maxSegments;
+        this.overflow = overflow;
+        this.drainBatchSize = drainBatchSize;
+        this.drainIntervalMs = drainIntervalMs;
+    }
+
+    /** 8 x 256 KiB (hours of aggregate frames), newest data wins, 50 frames per 250 ms. */
+    public static SpoolPolicy defaults() {
+        return new SpoolPolicy(256 * 1024, 8, Overflow.DROP_OLDEST, 50, 250);
+    }
+
+    /** Largest frame that fits in one segment. */
+    public int maxFrameBytes() {
+        return segmentBytes - FrameSpool.HEADER_SIZE - FrameSpool.RECORD_HEADER_SIZE;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.smartroom.publisher.model;
+
+/**
+ * STA/LTA trigger on the gravity-removed accelerometer magnitude; see
+ * {@link VibrationPolicy}. Door slams and footsteps show up as short events,
+ * running machinery as a long one that then fades into the background.
+ *
+ * Filter coefficients follow the actual sample spacing, so jittered or
+ * resampled streams work alike. Not thread-safe; nothing is allocated except
+ * the reported events.
+ */
+public final class VibrationDetector {
+
+    public interface Listener {
+        void onEvent(VibrationEvent event);
+    }
+
+    // Floor for the LTA, so a perfectly still start cannot divide by zero
+    private static final float MIN_LTA = 1e-4f;
+
+    private final VibrationPolicy policy;
+    private final Listener listener;
+
+    private boolean primed = false;
+    private long firstAt;
+    private long lastAt;
+    private float gx, gy, gz;
+    private float sta;
+    private float lta;
+
+    // Current event
+    private boolean triggered = false;
+    private long eventStart;
+    private float peak;
+    private float peakRatio;
+    // Ended by maxEventMs: no new event until the ratio has come down once
+    private boolean rearmPending = false;
+
+    private float magnitude;
+
+    public VibrationDetector(VibrationPolicy policy, Listener listener) {
+        if (policy == null || listener == null) throw new IllegalArgumentException("Invalid detector");
+        this.policy = policy;
+        this.listener = listener;
+    }
+
+    public void add(long timestampMs, float ax, float ay, float az) {
+        if (!primed) {
+            gx = ax;
+            gy = ay;
+            gz = az;
+            firstAt = lastAt = timestampMs;
+            sta = lta = 0f;
+            primed = true;
+            return;
+        }
+        long dt = timestampMs - lastAt;
+        if (dt <= 0) return;
+        lastAt = timestampMs;
+
+        // Gravity low-pass, then what is left of each axis
+        float kg = (float) dt / (policy.gravityTauMs + dt);
+        gx += kg * (ax - gx);
+        gy += kg * (ay - gy);
+        gz += kg * (az - gz);
+        float lx = ax - gx;
+        float ly = ay - gy;
+        float lz = az - gz;
+        magnitude = (float) Math.sqrt(lx * lx + ly * ly + lz * lz);
+
+        // Until a full window has passed, both are plain running means rather
+        // than averages still pulled toward their zero start
+        long elapsed = timestampMs - firstAt;
+        long staSpan = Math.min(policy.staMs, elapsed);
+        long ltaSpan = Math.min(policy.ltaMs, elapsed);
+        sta += (float) dt / (staSpan + dt) * (magnitude - sta);
+        if (!triggered) {
+            lta += (float) dt / (ltaSpan + dt) * (magnitude - lta);
+        }
+        float ratio = sta / Math.max(lta, MIN_LTA);
+
+        if (!triggered) {
+            if (rearmPending && ratio < policy.detriggerRatio) rearmPending = false;
+            if (!rearmPending && elapsed >= policy.warmupMs
+                    && sta >= policy.minLevel && ratio >= policy.triggerRatio) {
+                triggered = true;
+                eventStart = timestampMs;
+                peak = magnitude;
+                peakRatio = ratio;
+            }
+            return;
+        }
+
+        if (magnitude > peak) peak = magnitude;
+        if (ratio > peakRatio) peakRatio = ratio;
+        long duration = timestampMs - eventStart;
+        if (ratio < policy.detriggerRatio || duration >= policy.maxEventMs) {
+            // Past maxEventMs the LTA runs again and absorbs whatever keeps going
+            triggered = false;
+            rearmPending = duration >= policy.maxEventMs;
+            listener.onEvent(new VibrationEvent(eventStart, duration, peak, peakRatio));
+        }
+    }
+
+    /** Forgets gravity and both averages; the next sample starts over (and warms up again). */
+    public void reset() {
+        primed = false;
+        triggered = false;
+        rearmPending = false;
+    }
+
+    public boolean isTriggered() { return triggered; }
+
+    /** Gravity-removed magnitude of the last sample, m/s². */
+    public float getMagnitude() { return magnitude; }
+}
@@ -0,0 +1,16 @@
+package com.example.smartroom.publisher.model;
+
+/** One detected vibration: when it started, how long it lasted, how strong it got. */
+public final class VibrationEvent {
+    public final long startMs;     // timestamp of the triggering sample
+    public final long durationMs;
+    public final float peak;       // largest gravity-removed magnitude, m/s²
+    public final float peakRatio;  // largest STA/LTA seen
+
+    public VibrationEvent(long startMs, long durationMs, float peak, float peakRatio) {
+        this.startMs = startMs;
+        this.durationMs = durationMs;
+        this.peak = peak;
+        this.peakRatio = peakRatio;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.smartroom.publisher.model;
+
+/**
+ * Tuning of the {@link VibrationDetector}.
+ *
+ * Gravity is tracked per axis with a low-pass of {@code gravityTauMs} and
+ * subtracted, leaving the magnitude of what moves the device. Its short-term
+ * average (STA, {@code staMs}) is compared with the long-term average (LTA,
+ * {@code ltaMs}): an event starts when STA rises above {@code triggerRatio}
+ * times LTA and above {@code minLevel}, and ends when it falls back below
+ * {@code detriggerRatio} times LTA, or after {@code maxEventMs}. The LTA is
+ * frozen during an event so the event does not raise its own background.
+ */
+public final class VibrationPolicy {
+    public final int samplePeriodMs;   // accel sampling while detecting; transients are short
+    public final long gravityTauMs;    // high-pass: slower changes count as gravity / tilt
+    public final long staMs;
+    public final long ltaMs;
+    public final float triggerRatio;
+    public final float detriggerRatio;
+    public final float minLevel;       // m/s²; keeps sensor noise in a dead-still room quiet
+    public final long maxEventMs;      // a longer one is reported and becomes background
+    public final long warmupMs;        // no events until the LTA has settled
+
+    public VibrationPolicy(int samplePeriodMs, long gravityTauMs, long staMs, long ltaMs,
+                           float triggerRatio, float detriggerRatio, float minLevel,
+                           long maxEventMs, long warmupMs) {
+        if (samplePeriodMs <= 0 || gravityTauMs <= 0 || staMs <= 0 || ltaMs <= staMs
+                || detriggerRatio <= 0f || triggerRatio <= detriggerRatio || minLevel < 0f
+                || maxEventMs <= 0 || warmupMs < 0) {
+            throw new IllegalArgumentException("Invalid vibration policy");
+        }
+        this.samplePeriodMs = samplePeriodMs;
+        this.gravityTauMs = gravityTauMs;
+        this.staMs = staMs;
+        this.ltaMs = ltaMs;
+        this.triggerRatio = triggerRatio;
+        this.detriggerRatio = detriggerRatio;
+        this.minLevel = minLevel;
+        this.maxEventMs = maxEventMs;
+        this.warmupMs = warmupMs;
+    }
+
+    /** 50 Hz, 0.5 s STA over a 30 s LTA, trigger at 4x and 0.05 m/s², 10 s warm-up. */
+    public static VibrationPolicy defaults() {
+        return new VibrationPolicy(20, 1_000, 500, 30_000, 4f, 1.5f, 0.05f, 10_000, 10_000);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.smartroom.publisher.model;
+
+/**
+ * Running min / max / mean / RMS / count per {@link SensorChannel} over one
+ * publish window. The accelerometer is folded into its magnitude.
+ *
+ * Sound arrives as levels in dB, and averaging decibels is meaningless: for
+ * {@link SensorChannel#SOUND} the window sums linear power, and mean and RMS
+ * both report the energy average back in dB (the window's Leq). Min and max
+ * stay in dB.
+ *
+ * Everything lives in primitive arrays indexed by channel ordinal, so adding
+ * a sample never allocates. Not thread-safe.
+ */
+public final class WindowAggregator {
+
+    private static final int CHANNELS = SensorChannel.values().length;
+    private static final int SOUND = SensorChannel.SOUND.ordinal();
+
+    private final int[] count = new int[CHANNELS];
+    private final float[] min = new float[CHANNELS];
+    private final float[] max = new float[CHANNELS];
+    private final double[] sum = new double[CHANNELS];
+    private final double[] sumSquares = new double[CHANNELS];
+
+    private long windowStart;
+
+    public WindowAggregator() {
+        reset(0L);
+    }
+
+    /** Starts a new window at {@code startMs}, dropping all statistics. */
+    public void reset(long startMs) {
+        windowStart = startMs;
+        for (int c = 0; c < CHANNELS; c++) {
+            count[c] = 0;
+            min[c] = Float.POSITIVE_INFINITY;
+            max[c] = Float.NEGATIVE_INFINITY;
+            sum[c] = 0.0;
+            sumSquares[c] = 0.0;
+        }
+    }
+
+    public void add(SensorChannel channel, float value) {
+        if (Float.isNaN(value)) return;
+        int c = channel.ordinal();
+        count[c]++;
+        if (value < min[c]) min[c] = value;
+        if (value > max[c]) max[c] = value;
+        if (c == SOUND) {
+            sum[c] += Math.pow(10.0, value / 10.0);
+        } else {
+            sum[c] += value;
+            sumSquares[c] += (double) value * value;
+        }
+    }
+
+    public void addAccel(float x, float y, float z) {
+        add(SensorChannel.ACCEL, (float) Math.sqrt(x * x + y * y + z * z));
+    }
+
+    // ---- Statistics (0 for a channel without samples) ----
+
+    public int count(SensorChannel channel) {
+        return count[channel.ordinal()];
+    }
+
+    public float min(SensorChannel channel) {
+        int c = channel.ordinal();
+        return count[c] > 0 ? min[c] : 0f;
+    }
+
+    public float max(SensorChannel channel) {
+        int c = channel.ordinal();
+        return count[c] > 0 ? max[c] : 0f;
+    }
+
+    public float mean(SensorChannel channel) {
+        int c = channel.ordinal();
+        if (count[c] == 0) return 0f;
+        if (c == SOUND) return leq();
+        return (float) (sum[c] / count[c]);
+    }
+
+    public float rms(SensorChannel channel) {
+        int c = channel.ordinal();
+        if (count[c] == 0) return 0f;
+        if (c == SOUND) return leq();
+        return (float) Math.sqrt(sumSquares[c] / count[c]);
+    }
+
+    // Mean power of the sound levels, back in dB
+    private float leq() {
+        return (float) (10.0 * Math.log10(sum[SOUND] / count[SOUND]));
+    }
+
+    public boolean isEmpty() {
+        for (int c = 0; c < CHANNELS; c++) {
+            if (count[c] > 0) return false;
+        }
+        return true;
+    }
+
+    public long getWindowStart() {
+        return windowStart;
+    }
+}
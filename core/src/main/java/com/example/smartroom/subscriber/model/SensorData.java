@@ -0,0 +1,46 @@
+package com.example.smartroom.subscriber.model;
+
+import com.example.smartroom.audio.AcousticLevels;
+
+public class SensorData {
+    public float light;
+    public float ax;
+    public float ay;
+    public float az;
+    public float sound;
+
+    // Publisher clock of the reading (0 if the payload did not carry one)
+    public long timestamp;
+    // How many samples the frame carried (batches show their newest one)
+    public int sampleCount = 1;
+
+    // Aggregate frames only: window length (0 otherwise) and per-channel
+    // statistics indexed by SensorChannel ordinal. light and sound hold the means.
+    public long windowMs;
+    public final int[] statCount = new int[3];
+    public final float[] statMin = new float[3];
+    public final float[] statMax = new float[3];
+    public final float[] statMean = new float[3];
+    public final float[] statRms = new float[3];
+
+    // Frames from a publisher with the microphone on: A-weighted Leq and
+    // octave-band levels (dB re full scale); bandCount is 0 otherwise
+    public float laeq;
+    public int bandCount;
+    public final float[] bands = new float[AcousticLevels.BAND_COUNT];
+
+    // Vibration event frames only: the publisher's detector fired at timestamp.
+    // The sensor fields are not set by them.
+    public boolean event;
+    public long eventDurationMs;
+    public float eventPeak;   // m/s², gravity removed
+    public float eventRatio;  // peak STA/LTA
+
+    public boolean isAggregate() {
+        return windowMs > 0;
+    }
+
+    public boolean hasAcoustics() {
+        return bandCount > 0;
+    }
+}
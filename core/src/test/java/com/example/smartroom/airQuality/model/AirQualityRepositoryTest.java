@@ -0,0 +1,242 @@
+package com.example.smartroom.airQuality.model;
+
+import com.example.smartroom.helpers.CancellationToken;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class AirQualityRepositoryTest {
+
+    private static final String ETAG = "\"calair-v1\"";
+    private static final String LAST_MODIFIED = "Thu, 20 Nov 2025 13:00:00 GMT";
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private HttpServer server;
+    private byte[] body;
+    private final AtomicInteger fullResponses = new AtomicInteger();
+    private final AtomicInteger notModified = new AtomicInteger();
+    private final AtomicReference<String> lastIfNoneMatch = new AtomicReference<>();
+    private volatile int forcedStatus = 0;
+
+    @Before
+    public void startStub() throws IOException {
+        body = readResource("calair_tiemporeal_sample.json");
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/calair", exchange -> {
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            String ifModifiedSince = exchange.getRequestHeaders().getFirst("If-Modified-Since");
+            lastIfNoneMatch.set(ifNoneMatch);
+
+            if (forcedStatus != 0) {
+                exchange.sendResponseHeaders(forcedStatus, -1);
+            } else if (ETAG.equals(ifNoneMatch) || LAST_MODIFIED.equals(ifModifiedSince)) {
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                fullResponses.incrementAndGet();
+                exchange.getResponseHeaders().set("ETag", ETAG);
+                exchange.getResponseHeaders().set("Last-Modified", LAST_MODIFIED);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @After
+    public void stopStub() {
+        server.stop(0);
+    }
+
+    private String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/calair";
+    }
+
+    private AirQualityRepository newRepository(File snapshot) {
+        return new AirQualityRepository(url(), new AirQualitySnapshotStore(snapshot));
+    }
+
+    @Test
+    public void downloadsThenRevalidatesWith304() throws IOException {
+        File snapshot = new File(tmp.getRoot(), "aq.bin");
+        AirQualityRepository repository = newRepository(snapshot);
+        assertNull(repository.getCached());
+
+        List<AirQualityItem> streamed = new ArrayList<>();
+        assertEquals(AirQualityRepository.Outcome.UPDATED, repository.refresh(streamed::add));
+        assertEquals(4, streamed.size());
+        assertTrue(snapshot.isFile());
+
+        List<AirQualityItem> again = new ArrayList<>();
+        assertEquals(AirQualityRepository.Outcome.NOT_MODIFIED, repository.refresh(again::add));
+        assertTrue(again.isEmpty());
+        assertEquals(ETAG, lastIfNoneMatch.get());
+        assertEquals(1, fullResponses.get());
+        assertEquals(1, notModified.get());
+    }
+
+    @Test
+    public void coldStartServesSnapshotFromDisk() throws IOException {
+        File snapshot = new File(tmp.getRoot(), "aq.bin");
+        newRepository(snapshot).refresh(item -> { });
+
+        // New process: nothing in memory, only the file
+        AirQualityRepository coldStart = newRepository(snapshot);
+        List<AirQualityItem> cached = coldStart.getCached();
+        assertNotNull(cached);
+        assertEquals(4, cached.size());
+        assertEquals(new AirQualityItem(4, 8, 24f, 1763640000L), cached.get(0));
+
+        // ... and it revalidates with the stored validators
+        assertEquals(AirQualityRepository.Outcome.NOT_MODIFIED, coldStart.refresh(item -> { }));
+        assertEquals(1, fullResponses.get());
+    }
+
+    @Test
+    public void snapshotIsSmallerThanResponse() throws IOException {
+        File snapshot = new File(tmp.getRoot(), "aq.bin");
+        newRepository(snapshot).refresh(item -> { });
+        assertTrue(snapshot.length() < body.length / 4);
+    }
+
+    @Test
+    public void httpErrorKeepsSnapshot() throws IOException {
+        File snapshot = new File(tmp.getRoot(), "aq.bin");
+        AirQualityRepository repository = newRepository(snapshot);
+        repository.refresh(item -> { });
+
+        forcedStatus = 503;
+        try {
+            repository.refresh(item -> { });
+            fail("expected HttpStatusException");
+        } catch (AirQualityRepository.HttpStatusException e) {
+            assertEquals(503, e.code);
+        }
+        assertEquals(4, newRepository(snapshot).getCached().size());
+    }
+
+    @Test
+    public void cancelAbortsStalledDownload() throws Exception {
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch releaseStub = new CountDownLatch(1);
+        // Server that accepts the request and then hangs before answering
+        server.createContext("/stall", exchange -> {
+            stalled.countDown();
+            try {
+                releaseStub.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+
+        File snapshot = new File(tmp.getRoot(), "aq.bin");
+        AirQualityRepository repository = new AirQualityRepository(
+                url().replace("/calair", "/stall"), new AirQualitySnapshotStore(snapshot));
+        CancellationToken token = new CancellationToken();
+
+        Thread canceller = new Thread(() -> {
+            try {
+                stalled.await();
+                Thread.sleep(100);
+            } catch (InterruptedException ignored) {
+            }
+            token.cancel();
+        });
+        canceller.start();
+
+        long start = System.nanoTime();
+        try {
+            repository.refresh(item -> { }, token);
+            fail("expected CancellationException");
+        } catch (CancellationException expected) {
+            // ok
+        } finally {
+            releaseStub.countDown();
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 5);
+        assertFalse(snapshot.exists());
+    }
+
+    @Test
+    public void corruptSnapshotIsIgnored() throws IOException {
+        File snapshot = new File(tmp.getRoot(), "aq.bin");
+        try (OutputStream out = new java.io.FileOutputStream(snapshot)) {
+            out.write(new byte[]{1, 2, 3});
+        }
+        AirQualityRepository repository = newRepository(snapshot);
+        assertNull(repository.getCached());
+        assertEquals(AirQualityRepository.Outcome.UPDATED, repository.refresh(item -> { }));
+        assertNull(lastIfNoneMatch.get());
+    }
+
+    @Test
+    public void snapshotWithImpossibleRowCountIsIgnored() throws IOException {
+        File snapshot = new File(tmp.getRoot(), "aq.bin");
+        try (java.io.DataOutputStream out = new java.io.DataOutputStream(new java.io.FileOutputStream(snapshot))) {
+            out.writeInt(0x53524151);
+            out.writeInt(2);
+            out.writeBoolean(false);
+            out.writeBoolean(false);
+            out.writeLong(0L);
+            out.writeInt(Integer.MAX_VALUE); // would be a 2^31 element list
+        }
+        assertNull(new AirQualitySnapshotStore(snapshot).load());
+    }
+
+    @Test
+    public void loadedSnapshotIsUnmodifiable() throws IOException {
+        File snapshot = new File(tmp.getRoot(), "aq.bin");
+        AirQualitySnapshotStore store = new AirQualitySnapshotStore(snapshot);
+        List<AirQualityItem> items = new ArrayList<>();
+        items.add(new AirQualityItem(4, 8, 31.5f, 1_700_000_000L));
+        store.save(new AirQualitySnapshotStore.Snapshot(items, ETAG, null, 1L));
+
+        List<AirQualityItem> loaded = store.load().items;
+        assertEquals(1, loaded.size());
+        try {
+            loaded.clear();
+            fail("snapshot rows must be read-only");
+        } catch (UnsupportedOperationException expected) {
+            // like the list refresh() returns
+        }
+    }
+
+    private static byte[] readResource(String name) throws IOException {
+        try (InputStream in = AirQualityRepositoryTest.class.getClassLoader().getResourceAsStream(name)) {
+            assertNotNull("missing test resource", in);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buf = new byte[4096];
+            int n;
+            while ((n = in.read(buf)) > 0) out.write(buf, 0, n);
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.smartroom.airQuality.model;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class AirQualityStreamParserTest {
+
+    private static InputStream recordedResponse() {
+        InputStream in = AirQualityStreamParserTest.class.getClassLoader()
+                .getResourceAsStream("calair_tiemporeal_sample.json");
+        assertNotNull("missing test resource", in);
+        return in;
+    }
+
+    @Test
+    public void parsesRecordedResponse() throws IOException {
+        List<AirQualityItem> items = AirQualityStreamParser.parseAll(recordedResponse());
+
+        // Unknown station and record without a validated hour are dropped
+        assertEquals(4, items.size());
+
+        AirQualityFormatter format = new AirQualityFormatter();
+
+        AirQualityItem espana = items.get(0);
+        assertEquals(4, espana.getStationId());
+        assertEquals(8, espana.getPollutantId());
+        assertEquals(24f, espana.getValue(), 0f);
+        // 13:00 CET
+        assertEquals(1763640000L, espana.getTimestamp());
+        assertEquals("Pza. de España", format.station(espana));
+        assertEquals("NO₂ (Dióxido de Nitrógeno)", format.pollutant(espana));
+        assertEquals("24 µg/m³", format.value(espana));
+        assertEquals("2025-11-20 13:00", format.timestamp(espana));
+
+        // Numeric JSON values work too
+        AirQualityItem castilla = items.get(1);
+        assertEquals("Pza. Castilla", format.station(castilla));
+        assertEquals(19f, castilla.getValue(), 0f);
+        assertEquals("2025-11-05 08:00", format.timestamp(castilla));
+
+        // Nested / escaped extra fields do not get in the way
+        AirQualityItem aguirre = items.get(2);
+        assertEquals("Escuelas Aguirre", format.station(aguirre));
+        assertEquals("34 µg/m³", format.value(aguirre));
+        assertEquals("2025-11-20 23:00", format.timestamp(aguirre));
+
+        assertEquals("Magnitud 99", format.pollutant(items.get(3)));
+    }
+
+    @Test
+    public void emitsRowsIncrementally() throws IOException {
+        List<AirQualityItem> seen = new ArrayList<>();
+        // Stream that fails once the first record has been consumed: the first row
+        // must already have been delivered by then
+        byte[] bytes = readAll(recordedResponse());
+        int cut = indexOf(bytes, "\"ESTACION\": \"11\"");
+        InputStream truncated = new ByteArrayInputStream(bytes, 0, cut);
+
+        try {
+            new AirQualityStreamParser().parse(truncated, seen::add);
+            fail("expected the truncated stream to fail");
+        } catch (IOException expected) {
+            // ok
+        }
+        assertEquals(1, seen.size());
+        assertEquals(4, seen.get(0).getStationId());
+    }
+
+    @Test
+    public void handlesEmptyAndMissingRecords() throws IOException {
+        assertTrue(parse("{\"records\":[]}").isEmpty());
+        assertTrue(parse("{\"totalRecords\":0}").isEmpty());
+        assertTrue(parse("{\"records\":[null, 1, \"x\"]}").isEmpty());
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsMalformedJson() throws IOException {
+        parse("{\"records\":[{\"PROVINCIA\" \"28\"}]}");
+    }
+
+    @Test
+    public void catalogLooksUpCodes() {
+        assertEquals("Pza. de España", AirQualityCatalog.stationName(28, 79, 4));
+        assertNull(AirQualityCatalog.stationName(28, 79, 11));
+        assertNull(AirQualityCatalog.stationName(28, 80, 4));
+        assertEquals("O₃ (Ozono)", AirQualityCatalog.pollutantName(14));
+        assertEquals("Magnitud 99", AirQualityCatalog.pollutantName(99));
+        assertEquals("07", AirQualityCatalog.twoDigits(7));
+        assertEquals("", AirQualityCatalog.twoDigits(-1));
+        assertSame("H01", AirQualityCatalog.HOUR_KEYS[1]);
+        assertSame("V24", AirQualityCatalog.VALID_KEYS[24]);
+    }
+
+    @Test
+    public void matchesFieldNamesWithoutHourLookalikes() throws IOException {
+        // H25/H00 are not hour keys and must be skipped, not mistaken for H02/H01
+        List<AirQualityItem> items = parse("{\"records\":[{\"PROVINCIA\":\"28\","
+                + "\"MUNICIPIO\":\"079\",\"ESTACION\":\"4\",\"MAGNITUD\":\"8\","
+                + "\"ANO\":\"2025\",\"MES\":\"1\",\"DIA\":\"2\","
+                + "\"H00\":\"99\",\"H01\":\"12\",\"V01\":\"V\",\"H25\":\"88\",\"V25\":\"V\"}]}");
+
+        AirQualityFormatter format = new AirQualityFormatter();
+        assertEquals(1, items.size());
+        assertEquals("12 µg/m³", format.value(items.get(0)));
+        assertEquals("2025-01-02 00:00", format.timestamp(items.get(0)));
+        assertEquals("NO₂ (Dióxido de Nitrógeno)", format.pollutant(items.get(0)));
+    }
+
+    @Test
+    public void timestampsFollowMadridSummerTime() {
+        // 12:00 CEST = 10:00 UTC
+        assertEquals(1751364000L, AirQualityCatalog.epochSeconds(2025, 7, 1, 12));
+        // 13:00 CET = 12:00 UTC
+        assertEquals(1763640000L, AirQualityCatalog.epochSeconds(2025, 11, 20, 13));
+    }
+
+    @Test
+    public void formatsFractionalValues() {
+        AirQualityItem item = new AirQualityItem(4, 8, 19.5f, 0L);
+        assertEquals("19.5 µg/m³", new AirQualityFormatter().value(item));
+    }
+
+    private static List<AirQualityItem> parse(String json) throws IOException {
+        return AirQualityStreamParser.parseAll(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream();
+        byte[] buf = new byte[4096];
+        int n;
+        while ((n = in.read(buf)) > 0) out.write(buf, 0, n);
+        return out.toByteArray();
+    }
+
+    private static int indexOf(byte[] haystack, String needle) {
+        byte[] n = needle.getBytes(StandardCharsets.UTF_8);
+        outer:
+        for (int i = 0; i + n.length <= haystack.length; i++) {
+            for (int j = 0; j < n.length; j++) {
+                if (haystack[i + j] != n[j]) continue outer;
+            }
+            return i;
+        }
+        throw new AssertionError("not found: " + needle);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.smartroom.airQuality.model;
+
+import org.junit.Test;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+public class JsonStreamReaderTest {
+
+    private static final String ESCAPES =
+            "{\"skipped\":\"a\\\"b\\\\c\\u00e9\\n\",\"nested\":{\"s\":[\"\\\"]\\\\\",{\"t\":\"\\/\"}]},"
+                    + "\"kept\":\"x\\\"y\\u00E9\\tz\"}";
+
+    // Hands out one char per read, so every escape straddles a buffer refill
+    private static Reader oneCharAtATime(String json) {
+        return new FilterReader(new StringReader(json)) {
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                return super.read(buffer, offset, Math.min(1, length));
+            }
+        };
+    }
+
+    private static String readKept(Reader in) throws IOException {
+        JsonStreamReader reader = new JsonStreamReader(in);
+        String kept = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("kept")) {
+                kept = reader.nextString();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        assertEquals(JsonStreamReader.Token.END_DOCUMENT, reader.peek());
+        return kept;
+    }
+
+    @Test
+    public void escapesSurviveOneCharReads() throws IOException {
+        assertEquals("x\"y\u00e9\tz", readKept(oneCharAtATime(ESCAPES)));
+        assertEquals("x\"y\u00e9\tz", readKept(new StringReader(ESCAPES)));
+    }
+
+    @Test
+    public void skippedEscapeAtTheEndOfTheBuffer() throws IOException {
+        // The backslash of the skipped value is the last char of the first 8192-char fill
+        StringBuilder json = new StringBuilder("{\"skipped\":\"");
+        while (json.length() < 8191) json.append('a');
+        json.append("\\\"b\",\"kept\":\"ok\"}");
+        assertEquals('\\', json.charAt(8191));
+
+        assertEquals("ok", readKept(new StringReader(json.toString())));
+    }
+
+    @Test
+    public void badEscapesAreSyntaxErrors() {
+        for (String json : new String[]{"{\"kept\":\"\\u00zz\"}", "{\"kept\":\"\\u12\"}", "{\"s\":\"\\"}) {
+            try {
+                readKept(oneCharAtATime(json));
+                fail(json);
+            } catch (IOException expected) {
+                assertTrue(expected.getMessage(), expected.getMessage().startsWith("Malformed JSON"));
+            }
+        }
+    }
+}
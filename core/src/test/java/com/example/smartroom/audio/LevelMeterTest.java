@@ -0,0 +1,70 @@
+package com.example.smartroom.audio;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LevelMeterTest {
+
+    private static final int SAMPLE_RATE = 44_100;
+
+    private static short[] sine(double amplitude, double hz, int length) {
+        short[] pcm = new short[length];
+        for (int i = 0; i < length; i++) {
+            pcm[i] = (short) Math.round(amplitude * 32767 * Math.sin(2 * Math.PI * hz * i / SAMPLE_RATE));
+        }
+        return pcm;
+    }
+
+    @Test
+    public void sineReadsThreeDecibelsBelowItsPeak() {
+        LevelMeter meter = new LevelMeter();
+        // Whole number of periods: 441 Hz repeats every 100 samples
+        meter.process(sine(0.5, 441, 4410), 4410);
+
+        assertEquals(0.5f, meter.getBlockPeak(), 1e-3f);
+        assertEquals(0.5f / (float) Math.sqrt(2), meter.getBlockRms(), 1e-3f);
+        assertEquals(-6.02f, meter.getPeakDbfs(), 0.05f);
+        assertEquals(-9.03f, meter.getRmsDbfs(), 0.05f);
+    }
+
+    @Test
+    public void fullScaleSquareIsZeroDbfs() {
+        short[] square = new short[256];
+        for (int i = 0; i < square.length; i++) square[i] = (i / 32) % 2 == 0 ? Short.MAX_VALUE : Short.MIN_VALUE;
+        LevelMeter meter = new LevelMeter();
+        meter.process(square, square.length);
+
+        assertEquals(0f, meter.getPeakDbfs(), 0.01f);
+        assertEquals(0f, meter.getRmsDbfs(), 0.01f);
+    }
+
+    @Test
+    public void silenceReadsTheFloor() {
+        LevelMeter meter = new LevelMeter();
+        assertEquals(LevelMeter.FLOOR_DBFS, meter.getRmsDbfs(), 0f); // nothing metered yet
+        meter.process(new short[1024], 1024);
+        assertEquals(LevelMeter.FLOOR_DBFS, meter.getRmsDbfs(), 0f);
+        assertEquals(LevelMeter.FLOOR_DBFS, meter.getPeakDbfs(), 0f);
+    }
+
+    @Test
+    public void periodSpansBlocksUntilReset() {
+        LevelMeter meter = new LevelMeter();
+        short[] loud = sine(0.5, 441, 1000);
+        short[] quiet = new short[1000];
+        meter.process(loud, 1000);
+        meter.process(quiet, 1000);
+
+        // Half the energy of the loud block, the peak of the loud block
+        assertEquals(0.0f, meter.getBlockRms(), 0f);
+        assertEquals(0.25f, meter.getRms(), 1e-3f);
+        assertEquals(0.5f, meter.getPeak(), 1e-3f);
+        assertEquals(2000, meter.getSampleCount());
+
+        meter.reset();
+        meter.process(quiet, 500); // only the first 500 samples count
+        assertEquals(0f, meter.getPeak(), 0f);
+        assertEquals(500, meter.getSampleCount());
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.smartroom.audio;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SpectrumAnalyzerTest {
+
+    private static final int SAMPLE_RATE = 44_100;
+    private static final int FFT_SIZE = 4096;
+
+    private static short[] sine(double amplitude, double hz, int length) {
+        short[] pcm = new short[length];
+        for (int i = 0; i < length; i++) {
+            pcm[i] = (short) Math.round(amplitude * 32767 * Math.sin(2 * Math.PI * hz * i / SAMPLE_RATE));
+        }
+        return pcm;
+    }
+
+    private static AcousticLevels analyze(short[] pcm) {
+        SpectrumAnalyzer analyzer = new SpectrumAnalyzer(SAMPLE_RATE, FFT_SIZE);
+        // Blocks the size the microphone delivers
+        short[] block = new short[1024];
+        for (int i = 0; i < pcm.length; i += block.length) {
+            int n = Math.min(block.length, pcm.length - i);
+            System.arraycopy(pcm, i, block, 0, n);
+            analyzer.process(block, n);
+        }
+        AcousticLevels levels = new AcousticLevels();
+        analyzer.getLevels(levels);
+        return levels;
+    }
+
+    @Test
+    public void fftMatchesDirectDft() {
+        int n = 64;
+        float[] frame = new float[n];
+        Random random = new Random(7);
+        for (int i = 0; i < n; i++) frame[i] = (float) random.nextGaussian();
+
+        float[] power = new float[n / 2 + 1];
+        new RealFft(n).powerSpectrum(frame, power);
+
+        for (int k = 0; k <= n / 2; k++) {
+            double re = 0, im = 0;
+            for (int i = 0; i < n; i++) {
+                re += frame[i] * Math.cos(2 * Math.PI * k * i / n);
+                im -= frame[i] * Math.sin(2 * Math.PI * k * i / n);
+            }
+            assertEquals("bin " + k, re * re + im * im, power[k], 1e-3 * (1 + re * re + im * im));
+        }
+    }
+
+    @Test
+    public void oneKilohertzToneIsUnweightedAndLandsInItsBand() {
+        AcousticLevels levels = analyze(sine(0.5, 1000, 8 * FFT_SIZE));
+
+        // Same -9.03 dBFS a LevelMeter reads: the A curve is 0 dB at 1 kHz
+        assertEquals(-9.03f, levels.laeq, 0.2f);
+        assertEquals(-9.03f, levels.bands[4], 0.2f);
+        assertEquals(1000, AcousticLevels.bandCenterHz(4));
+        assertTrue(levels.bands[3] < -50f);
+        assertTrue(levels.bands[5] < -50f);
+    }
+
+    @Test
+    public void lowToneIsWeightedDown() {
+        AcousticLevels levels = analyze(sine(0.5, 100, 8 * FFT_SIZE));
+
+        // A(100 Hz) = -19.1 dB; the 125 Hz band is unweighted
+        assertEquals(-9.03f - 19.1f, levels.laeq, 0.5f);
+        assertEquals(-9.03f, levels.bands[1], 0.3f);
+    }
+
+    @Test
+    public void silenceAndPartialFramesReadTheFloor() {
+        SpectrumAnalyzer analyzer = new SpectrumAnalyzer(SAMPLE_RATE, FFT_SIZE);
+        AcousticLevels levels = new AcousticLevels();
+
+        analyzer.process(sine(0.5, 1000, 1024), 1024); // a quarter frame
+        assertEquals(0, analyzer.getFrameCount());
+        analyzer.getLevels(levels);
+        assertEquals(LevelMeter.FLOOR_DBFS, levels.laeq, 0f);
+
+        analyzer.process(new short[FFT_SIZE], FFT_SIZE);
+        assertEquals(1, analyzer.getFrameCount());
+        analyzer.reset();
+        analyzer.process(new short[FFT_SIZE], FFT_SIZE);
+        analyzer.getLevels(levels);
+        assertEquals(LevelMeter.FLOOR_DBFS, levels.laeq, 0f);
+        assertEquals(LevelMeter.FLOOR_DBFS, levels.bands[0], 0f);
+    }
+
+    @Test
+    public void leqAveragesEnergyNotDecibels() {
+        AcousticLevels loud = new AcousticLevels();
+        loud.laeq = -20f;
+        AcousticLevels quiet = new AcousticLevels();
+        quiet.laeq = -60f;
+
+        LeqAverager averager = new LeqAverager();
+        averager.add(loud);
+        averager.add(quiet);
+
+        AcousticLevels out = new AcousticLevels();
+        averager.getAverage(out);
+        // Half the energy of the loud period: 3 dB down, not the -40 dB mean
+        assertEquals(-23.01f, out.laeq, 0.05f);
+        assertEquals(LevelMeter.FLOOR_DBFS, out.bands[0], 0f);
+        assertEquals(2, averager.getCount());
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.smartroom.helpers;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class BackgroundExecutorTest {
+
+    private final BackgroundExecutor executor = new BackgroundExecutor(1, 1, 2);
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void singleFlightDropsConcurrentStarts() throws Exception {
+        SingleFlight flight = new SingleFlight(executor, "load");
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        assertTrue(flight.start(token -> {
+            runs.incrementAndGet();
+            release.await();
+        }));
+        assertFalse(flight.start(token -> runs.incrementAndGet()));
+        assertFalse(flight.start(token -> runs.incrementAndGet()));
+
+        release.countDown();
+        awaitIdle(flight);
+        assertEquals(1, runs.get());
+
+        // Once finished, a new run is accepted
+        assertTrue(flight.start(token -> runs.incrementAndGet()));
+        awaitIdle(flight);
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    public void cancelRunsHookAndStopsJob() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch hookRan = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+
+        BackgroundExecutor.Task task = executor.submit("blocking", token -> {
+            // Stand-in for a socket read that ignores interrupts
+            token.setOnCancel(hookRan::countDown);
+            started.countDown();
+            try {
+                hookRan.await();
+                token.throwIfCancelled();
+                fail("should have been cancelled");
+            } finally {
+                finished.countDown();
+            }
+        });
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        task.cancel();
+        assertTrue(hookRan.await(5, TimeUnit.SECONDS));
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertTrue(task.isCancelled());
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (executor.getMetrics().cancelled < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, executor.getMetrics().cancelled);
+        assertEquals(0, executor.getMetrics().failed);
+    }
+
+    @Test
+    public void hookRegisteredAfterCancelRunsImmediately() {
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+        AtomicInteger calls = new AtomicInteger();
+        token.setOnCancel(calls::incrementAndGet);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void rejectsWhenQueueIsFullAndReportsMetrics() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit("running", token -> release.await());
+        executor.submit("queued-1", token -> { });
+        executor.submit("queued-2", token -> { });
+
+        try {
+            executor.submit("overflow", token -> { });
+            fail("expected RejectedExecutionException");
+        } catch (RejectedExecutionException expected) {
+            // ok
+        }
+
+        BackgroundExecutor.Metrics busy = executor.getMetrics();
+        assertEquals(2, busy.queueDepth);
+        assertEquals(3, busy.submitted);
+        assertEquals(1, busy.rejected);
+
+        release.countDown();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (executor.getMetrics().completed < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        BackgroundExecutor.Metrics idle = executor.getMetrics();
+        assertEquals(3, idle.completed);
+        assertEquals(0, idle.queueDepth);
+    }
+
+    private static void awaitIdle(SingleFlight flight) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (flight.isRunning() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertFalse(flight.isRunning());
+    }
+}
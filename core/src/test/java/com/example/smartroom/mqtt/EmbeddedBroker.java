@@ -0,0 +1,51 @@
+package com.example.smartroom.mqtt;
+
+import io.moquette.broker.Server;
+import io.moquette.broker.config.IConfig;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.Properties;
+
+/** In-memory Moquette broker on a free localhost port, restartable on the same port. */
+public final class EmbeddedBroker {
+
+    private final File dataDir;
+    private final int port;
+    private Server server;
+
+    public EmbeddedBroker(File dataDir) throws IOException {
+        this.dataDir = dataDir;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public void start() throws IOException {
+        Properties props = new Properties();
+        props.setProperty(IConfig.HOST_PROPERTY_NAME, "127.0.0.1");
+        props.setProperty(IConfig.PORT_PROPERTY_NAME, String.valueOf(port));
+        props.setProperty(IConfig.ALLOW_ANONYMOUS_PROPERTY_NAME, "true");
+        // Sessions do not survive a restart, like a broker that lost its state
+        props.setProperty(IConfig.PERSISTENCE_ENABLED_PROPERTY_NAME, "false");
+        props.setProperty(IConfig.DATA_PATH_PROPERTY_NAME, dataDir.getAbsolutePath());
+        props.setProperty(IConfig.ENABLE_TELEMETRY_NAME, "false");
+        server = new Server();
+        server.startServer(props);
+    }
+
+    public void stop() {
+        if (server == null) return;
+        server.stopServer();
+        server = null;
+    }
+
+    public int connectedClients() {
+        return server != null ? server.listConnectedClients().size() : 0;
+    }
+}
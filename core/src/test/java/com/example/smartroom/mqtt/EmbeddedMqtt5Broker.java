@@ -0,0 +1,56 @@
+package com.example.smartroom.mqtt;
+
+import com.hivemq.embedded.EmbeddedHiveMQ;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/** In-memory HiveMQ CE on a free localhost port, for MQTT 5 features Moquette lacks. */
+public final class EmbeddedMqtt5Broker implements AutoCloseable {
+
+    private final int port;
+    private final EmbeddedHiveMQ hivemq;
+
+    public EmbeddedMqtt5Broker(File dir) throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        File conf = new File(dir, "conf");
+        File data = new File(dir, "data");
+        File extensions = new File(dir, "extensions");
+        if (!conf.mkdirs() || !data.mkdirs() || !extensions.mkdirs()) {
+            throw new IOException("Cannot create broker folders in " + dir);
+        }
+        String config = "<?xml version=\"1.0\"?>\n"
+                + "<hivemq>\n"
+                + "  <listeners><tcp-listener>\n"
+                + "    <port>" + port + "</port><bind-address>127.0.0.1</bind-address>\n"
+                + "  </tcp-listener></listeners>\n"
+                + "  <anonymous-usage-statistics><enabled>false</enabled></anonymous-usage-statistics>\n"
+                + "</hivemq>\n";
+        Files.write(new File(conf, "config.xml").toPath(), config.getBytes(StandardCharsets.UTF_8));
+
+        hivemq = EmbeddedHiveMQ.builder()
+                .withConfigurationFolder(conf.toPath())
+                .withDataFolder(data.toPath())
+                .withExtensionsFolder(extensions.toPath())
+                .build();
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public void start() {
+        hivemq.start().join();
+    }
+
+    @Override
+    public void close() throws Exception {
+        hivemq.stop().join();
+        hivemq.close();
+    }
+}
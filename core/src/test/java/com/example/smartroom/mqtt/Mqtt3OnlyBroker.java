@@ -0,0 +1,112 @@
+package com.example.smartroom.mqtt;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Just enough of an old MQTT 3.1.1 broker to test the version fallback: an
+ * MQTT 5 CONNECT gets "unacceptable protocol version", a 3.1.1 one is
+ * accepted and then only PINGREQ and SUBSCRIBE are answered.
+ */
+final class Mqtt3OnlyBroker implements AutoCloseable {
+
+    private static final int LEVEL_3_1_1 = 4;
+
+    private final ServerSocket server;
+    private final AtomicInteger rejected = new AtomicInteger();
+    private final AtomicInteger accepted = new AtomicInteger();
+
+    Mqtt3OnlyBroker() throws IOException {
+        server = new ServerSocket(0);
+        Thread acceptor = new Thread(this::acceptLoop, "mqtt3-only-broker");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int getPort() {
+        return server.getLocalPort();
+    }
+
+    int rejectedCount() {
+        return rejected.get();
+    }
+
+    int acceptedCount() {
+        return accepted.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+    }
+
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                Thread session = new Thread(() -> serve(socket), "mqtt3-only-session");
+                session.setDaemon(true);
+                session.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (Socket s = socket) {
+            DataInputStream in = new DataInputStream(s.getInputStream());
+            OutputStream out = s.getOutputStream();
+
+            byte[] connect = readPacket(in);
+            // Variable header: protocol name "MQTT" (2 + 4 bytes), then the level
+            if (connect[6] != LEVEL_3_1_1) {
+                rejected.incrementAndGet();
+                out.write(new byte[]{0x20, 0x02, 0x00, 0x01});
+                out.flush();
+                return;
+            }
+            accepted.incrementAndGet();
+            out.write(new byte[]{0x20, 0x02, 0x00, 0x00});
+            out.flush();
+
+            while (true) {
+                int type = in.readUnsignedByte() >> 4;
+                byte[] body = readBody(in);
+                if (type == 12) {                 // PINGREQ
+                    out.write(new byte[]{(byte) 0xD0, 0x00});
+                } else if (type == 8) {           // SUBSCRIBE: grant QoS 1
+                    out.write(new byte[]{(byte) 0x90, 0x03, body[0], body[1], 0x01});
+                } else if (type == 14) {          // DISCONNECT
+                    return;
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            // Client went away
+        }
+    }
+
+    private static byte[] readPacket(DataInputStream in) throws IOException {
+        in.readUnsignedByte();
+        return readBody(in);
+    }
+
+    private static byte[] readBody(DataInputStream in) throws IOException {
+        int length = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            length |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        byte[] body = new byte[length];
+        in.readFully(body);
+        return body;
+    }
+}
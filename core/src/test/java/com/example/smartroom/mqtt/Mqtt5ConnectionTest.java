@@ -0,0 +1,129 @@
+package com.example.smartroom.mqtt;
+
+import com.hivemq.client.mqtt.MqttVersion;
+import com.hivemq.client.mqtt.datatypes.MqttQos;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+
+/** MQTT 5 properties against HiveMQ CE, and the fallback for brokers without MQTT 5. */
+public class Mqtt5ConnectionTest {
+
+    private static final long TIMEOUT_MS = 10_000;
+    private static final long LINGER_MS = 100;
+
+    @ClassRule
+    public static TemporaryFolder tmp = new TemporaryFolder();
+
+    // Starting HiveMQ takes a few seconds; share it between the tests
+    private static EmbeddedMqtt5Broker broker;
+
+    @BeforeClass
+    public static void startBroker() throws Exception {
+        broker = new EmbeddedMqtt5Broker(tmp.newFolder());
+        broker.start();
+    }
+
+    @AfterClass
+    public static void stopBroker() throws Exception {
+        broker.close();
+    }
+
+    private static MqttConnectionManager manager(int port, String clientId) {
+        return new MqttConnectionManager("127.0.0.1", port, clientId,
+                new ReconnectBackoff(50, 200, new Random(7)), LINGER_MS, MqttVersion.MQTT_5_0);
+    }
+
+    @Test
+    public void carriesTheContentTypeAndUsesTopicAliases() throws Exception {
+        String topic = "smartroom/test/v5/type";
+        MqttConnectionManager mqtt = manager(broker.getPort(), "smartroom-test-v5");
+        MqttConnectionManager.Handle handle = mqtt.acquire();
+        List<String> types = new CopyOnWriteArrayList<>();
+        mqtt.subscribe(topic, MqttQos.AT_LEAST_ONCE, (t, payload, type) -> types.add(type));
+        await(mqtt::isConnected);
+
+        assertEquals(MqttVersion.MQTT_5_0, mqtt.getVersion());
+        assertTrue(mqtt.getTopicAliasMaximum() > 0);
+
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (types.size() < 3) {
+            if (System.currentTimeMillis() > deadline) fail("Never received");
+            mqtt.publish(topic, new byte[]{1}, MqttQos.AT_LEAST_ONCE, "application/x-test", 60)
+                    .get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            Thread.sleep(20);
+        }
+        // Later frames went out with the alias only; the broker still routed them
+        for (String type : types) assertEquals("application/x-test", type);
+        handle.close();
+    }
+
+    @Test
+    public void expiredFramesAreNotDeliveredLate() throws Exception {
+        String topic = "smartroom/test/v5/expiry";
+        MqttConnectionManager subscriber = manager(broker.getPort(), "smartroom-test-v5-sub");
+        MqttConnectionManager publisher = manager(broker.getPort(), "smartroom-test-v5-pub");
+        List<String> received = new CopyOnWriteArrayList<>();
+        subscriber.subscribe(topic, MqttQos.AT_LEAST_ONCE,
+                (t, payload, type) -> received.add(new String(payload, StandardCharsets.UTF_8)));
+
+        // Subscribe, then go away; the persistent session queues for us
+        MqttConnectionManager.Handle away = subscriber.acquire();
+        await(subscriber::isConnected);
+        Thread.sleep(200); // let the SUBACK arrive
+        away.close();
+        await(() -> !subscriber.isConnected());
+
+        MqttConnectionManager.Handle pub = publisher.acquire();
+        await(publisher::isConnected);
+        publisher.publish(topic, bytes("stale"), MqttQos.AT_LEAST_ONCE, null, 1)
+                .get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        publisher.publish(topic, bytes("kept"), MqttQos.AT_LEAST_ONCE, null, 0)
+                .get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        pub.close();
+        Thread.sleep(2_500);
+
+        MqttConnectionManager.Handle back = subscriber.acquire();
+        await(() -> received.contains("kept"));
+        assertFalse(received.contains("stale"));
+        back.close();
+    }
+
+    @Test
+    public void fallsBackToMqtt3WhenTheBrokerRefusesMqtt5() throws Exception {
+        try (Mqtt3OnlyBroker old = new Mqtt3OnlyBroker()) {
+            MqttConnectionManager mqtt = manager(old.getPort(), "smartroom-test-fallback");
+            MqttConnectionManager.Handle handle = mqtt.acquire();
+            await(mqtt::isConnected);
+
+            assertEquals(MqttVersion.MQTT_3_1_1, mqtt.getVersion());
+            assertEquals(1, old.rejectedCount());
+            assertEquals(1, old.acceptedCount());
+            handle.close();
+        }
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) fail("Timed out");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.smartroom.mqtt;
+
+import com.hivemq.client.mqtt.datatypes.MqttQos;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+
+public class MqttConnectionManagerTest {
+
+    private static final String TOPIC = "smartroom/test/shared";
+    private static final long TIMEOUT_MS = 10_000;
+    private static final long LINGER_MS = 300;
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private EmbeddedBroker broker;
+    private MqttConnectionManager manager;
+    private final AtomicInteger connects = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        broker = new EmbeddedBroker(tmp.newFolder());
+        broker.start();
+        manager = new MqttConnectionManager("127.0.0.1", broker.getPort(), "smartroom-test",
+                new ReconnectBackoff(50, 200, new Random(7)), LINGER_MS);
+        manager.addConnectionListener(new MqttConnectionManager.ConnectionListener() {
+            @Override
+            public void onConnected(ConnectionMetrics metrics) {
+                connects.incrementAndGet();
+            }
+
+            @Override
+            public void onDisconnected(Throwable cause, long retryInMs) {
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        broker.stop();
+    }
+
+    @Test
+    public void sharesOneConnectionAndLingersAfterTheLastRelease() throws Exception {
+        MqttConnectionManager.Handle publisher = manager.acquire();
+        MqttConnectionManager.Handle subscriber = manager.acquire();
+        await(manager::isConnected);
+        assertEquals(1, broker.connectedClients());
+
+        publisher.close();
+        publisher.close(); // second close is ignored
+        assertEquals(1, manager.getRefCount());
+        subscriber.close();
+
+        // Screen switch inside the linger window: no new handshake
+        Thread.sleep(LINGER_MS / 3);
+        assertTrue(manager.isConnected());
+        MqttConnectionManager.Handle next = manager.acquire();
+        Thread.sleep(LINGER_MS * 2);
+        assertTrue(manager.isConnected());
+        assertEquals(1, connects.get());
+
+        // Nobody left: hang up once the linger expires
+        next.close();
+        await(() -> !manager.isConnected());
+        await(() -> broker.connectedClients() == 0);
+    }
+
+    @Test
+    public void fansOutOneSubscriptionToEveryListener() throws Exception {
+        MqttConnectionManager.Handle handle = manager.acquire();
+        List<String> first = new CopyOnWriteArrayList<>();
+        List<String> second = new CopyOnWriteArrayList<>();
+        MqttConnectionManager.Subscription a = manager.subscribe(TOPIC, MqttQos.AT_LEAST_ONCE,
+                (topic, payload, type) -> first.add(new String(payload, StandardCharsets.UTF_8)));
+        MqttConnectionManager.Subscription b = manager.subscribe(TOPIC, MqttQos.AT_LEAST_ONCE,
+                (topic, payload, type) -> second.add(new String(payload, StandardCharsets.UTF_8)));
+        await(manager::isConnected);
+
+        // Publisher and subscriber share the same connection
+        publishUntilReceived("one", first);
+        await(() -> second.contains("one"));
+
+        a.cancel();
+        publishUntilReceived("two", second);
+        assertFalse(first.contains("two"));
+
+        b.cancel();
+        handle.close();
+    }
+
+    @Test
+    public void reconnectsAndResubscribesAfterABrokerRestart() throws Exception {
+        MqttConnectionManager.Handle handle = manager.acquire();
+        List<String> received = new CopyOnWriteArrayList<>();
+        manager.subscribe(TOPIC, MqttQos.AT_LEAST_ONCE,
+                (topic, payload, type) -> received.add(new String(payload, StandardCharsets.UTF_8)));
+        await(manager::isConnected);
+        publishUntilReceived("before", received);
+
+        broker.stop();
+        await(() -> !manager.isConnected());
+        broker.start(); // fresh broker: our session and subscription are gone
+        await(manager::isConnected);
+
+        publishUntilReceived("after", received);
+        assertEquals(1, manager.getMetrics().getReconnectCount());
+        handle.close();
+    }
+
+    @Test
+    public void detachedSubscriptionQueuesFramesWhileAway() throws Exception {
+        MqttConnectionManager.Handle handle = manager.acquire();
+        List<String> received = new CopyOnWriteArrayList<>();
+        MqttConnectionManager.Subscription subscription = manager.subscribe(TOPIC, MqttQos.AT_LEAST_ONCE,
+                (topic, payload, type) -> received.add(new String(payload, StandardCharsets.UTF_8)));
+        await(manager::isConnected);
+        publishUntilReceived("before", received);
+
+        // Screen goes away: listener gone, connection closed, broker subscription kept
+        subscription.detach();
+        handle.close();
+        await(() -> !manager.isConnected());
+
+        MqttConnectionManager other = new MqttConnectionManager("127.0.0.1", broker.getPort(),
+                "smartroom-test-other", new ReconnectBackoff(50, 200, new Random(7)), LINGER_MS);
+        MqttConnectionManager.Handle otherHandle = other.acquire();
+        await(other::isConnected);
+        other.publish(TOPIC, "while away".getBytes(StandardCharsets.UTF_8), MqttQos.AT_LEAST_ONCE)
+                .get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        otherHandle.close();
+
+        // Back again: the session delivers what was published meanwhile
+        List<String> returned = new CopyOnWriteArrayList<>();
+        manager.subscribe(TOPIC, MqttQos.AT_LEAST_ONCE,
+                (topic, payload, type) -> returned.add(new String(payload, StandardCharsets.UTF_8)));
+        MqttConnectionManager.Handle back = manager.acquire();
+        await(() -> returned.contains("while away"));
+        back.close();
+    }
+
+    // ---- Helpers ----
+
+    // The SUBSCRIBE may still be in flight right after connecting, so retry a few times
+    private void publishUntilReceived(String message, List<String> received) throws Exception {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!received.contains(message)) {
+            if (System.currentTimeMillis() > deadline) fail("Never received " + message);
+            manager.publish(TOPIC, message.getBytes(StandardCharsets.UTF_8), MqttQos.AT_LEAST_ONCE)
+                    .get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            Thread.sleep(50);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) fail("Timed out");
+            Thread.sleep(5);
+        }
+    }
+}
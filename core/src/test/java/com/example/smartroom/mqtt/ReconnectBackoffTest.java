@@ -0,0 +1,58 @@
+package com.example.smartroom.mqtt;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ReconnectBackoffTest {
+
+    @Test
+    public void ceilingDoublesUpToTheMaximum() {
+        ReconnectBackoff backoff = new ReconnectBackoff(1_000, 60_000, new Random(1));
+        assertEquals(1_000, backoff.ceilingMs(0));
+        assertEquals(2_000, backoff.ceilingMs(1));
+        assertEquals(32_000, backoff.ceilingMs(5));
+        assertEquals(60_000, backoff.ceilingMs(6));
+        assertEquals(60_000, backoff.ceilingMs(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void delaysAreJitteredWithinTheUpperHalf() {
+        ReconnectBackoff backoff = new ReconnectBackoff(1_000, 60_000, new Random(42));
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < 1_000; i++) {
+            long delay = backoff.nextDelayMs(3);
+            min = Math.min(min, delay);
+            max = Math.max(max, delay);
+        }
+        assertTrue(min >= 4_000);
+        assertTrue(max <= 8_000);
+        // Actually spread out, not one fixed value
+        assertTrue(max - min > 3_000);
+    }
+
+    @Test
+    public void metricsCountReconnectsAndOutages() {
+        ConnectionMetrics metrics = new ConnectionMetrics();
+        metrics.onConnected(0L);
+        assertEquals(0, metrics.getReconnectCount());
+
+        metrics.onDisconnected(1_000L);
+        metrics.onDisconnected(2_000L); // failed attempt
+        assertTrue(metrics.isDown());
+        metrics.onConnected(4_500L);
+
+        assertFalse(metrics.isDown());
+        assertEquals(1, metrics.getReconnectCount());
+        assertEquals(1, metrics.getFailedAttempts());
+        assertEquals(3_500L, metrics.getLastReconnectMs());
+        assertEquals("reconnects: 1, last 3.5 s", metrics.summary());
+
+        metrics.onDisconnected(10_000L);
+        metrics.onConnected(10_500L);
+        assertEquals(4_000L, metrics.getTotalDowntimeMs());
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.smartroom.payload;
+
+import com.example.smartroom.audio.AcousticLevels;
+import com.example.smartroom.publisher.model.SensorChannel;
+import com.example.smartroom.publisher.model.SensorSampleBuffer;
+import com.example.smartroom.publisher.model.VibrationEvent;
+import com.example.smartroom.publisher.model.WindowAggregator;
+import com.example.smartroom.subscriber.model.SensorData;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class SensorBinaryCodecTest {
+
+    private final SensorBinaryCodec codec = new SensorBinaryCodec();
+
+    private static SensorData decode(byte[] frame) {
+        SensorData d = new SensorData();
+        assertTrue(SensorBinaryCodec.decode(frame, d));
+        return d;
+    }
+
+    private static AcousticLevels acoustics() {
+        AcousticLevels acoustics = new AcousticLevels();
+        acoustics.laeq = -42.5f;
+        for (int b = 0; b < AcousticLevels.BAND_COUNT; b++) acoustics.bands[b] = -30f - b;
+        return acoustics;
+    }
+
+    private static SensorSampleBuffer samples() {
+        SensorSampleBuffer samples = new SensorSampleBuffer(4);
+        samples.add(1_000L, 1f, 0.1f, 0.2f, 9.8f, -40f);
+        samples.add(1_250L, 2f, 0.3f, 0.4f, 9.7f, -35f);
+        return samples;
+    }
+
+    private static WindowAggregator window() {
+        WindowAggregator window = new WindowAggregator();
+        window.reset(5_000L);
+        window.add(SensorChannel.LIGHT, 100f);
+        window.add(SensorChannel.LIGHT, 300f);
+        window.addAccel(0f, 3f, 4f);
+        window.add(SensorChannel.SOUND, -30f);
+        return window;
+    }
+
+    @Test
+    public void snapshotRoundTrips() {
+        byte[] v1 = codec.encodeSnapshot(1_700_000_000_123L, 120.5f, 0.12f, -9.81f, 0f, -35f);
+        assertEquals(SensorBinaryCodec.SCHEMA_SNAPSHOT_V1, v1[0]);
+        assertEquals(SensorBinaryCodec.SNAPSHOT_SIZE, v1.length);
+        SensorData d = decode(v1);
+        assertEquals(1_700_000_000_123L, d.timestamp);
+        assertEquals(120.5f, d.light, 0f);
+        assertEquals(0.12f, d.ax, 0f);
+        assertEquals(-9.81f, d.ay, 0f);
+        assertEquals(0f, d.az, 0f);
+        assertEquals(-35f, d.sound, 0f);
+        assertEquals(1, d.sampleCount);
+        assertFalse(d.hasAcoustics());
+
+        byte[] v2 = codec.encodeSnapshot(1_700_000_000_123L, 120.5f, 0.12f, -9.81f, 0f, -35f, acoustics());
+        assertEquals(SensorBinaryCodec.SCHEMA_SNAPSHOT_V2, v2[0]);
+        assertEquals(SensorBinaryCodec.SNAPSHOT_SIZE + SensorBinaryCodec.ACOUSTIC_SIZE, v2.length);
+        d = decode(v2);
+        assertEquals(-35f, d.sound, 0f);
+        assertTrue(d.hasAcoustics());
+        assertEquals(-42.5f, d.laeq, 0f);
+        assertEquals(AcousticLevels.BAND_COUNT, d.bandCount);
+        assertEquals(-37f, d.bands[7], 0f);
+    }
+
+    @Test
+    public void batchRoundTripsToItsNewestRow() {
+        byte[] v1 = codec.encodeBatch(samples());
+        assertEquals(SensorBinaryCodec.SCHEMA_BATCH_V1, v1[0]);
+        assertEquals(SensorBinaryCodec.BATCH_HEADER_SIZE + 2 * SensorBinaryCodec.BATCH_ROW_SIZE, v1.length);
+        SensorData d = decode(v1);
+        assertEquals(1_250L, d.timestamp);
+        assertEquals(2, d.sampleCount);
+        assertEquals(2f, d.light, 0f);
+        assertEquals(0.3f, d.ax, 0f);
+        assertEquals(0.4f, d.ay, 0f);
+        assertEquals(9.7f, d.az, 0f);
+        assertEquals(-35f, d.sound, 0f);
+        assertFalse(d.hasAcoustics());
+
+        byte[] v2 = codec.encodeBatch(samples(), acoustics());
+        assertEquals(SensorBinaryCodec.SCHEMA_BATCH_V2, v2[0]);
+        d = decode(v2);
+        assertEquals(1_250L, d.timestamp);
+        assertEquals(-42.5f, d.laeq, 0f);
+        assertEquals(-30f, d.bands[0], 0f);
+    }
+
+    @Test
+    public void emptyBatchIsRejected() {
+        byte[] frame = codec.encodeBatch(new SensorSampleBuffer(4));
+        assertFalse(SensorBinaryCodec.decode(frame, new SensorData()));
+    }
+
+    @Test
+    public void aggregateRoundTrips() {
+        byte[] v1 = codec.encodeAggregate(window(), 5_000L);
+        assertEquals(SensorBinaryCodec.SCHEMA_AGGREGATE_V1, v1[0]);
+        assertEquals(SensorBinaryCodec.AGGREGATE_SIZE, v1.length);
+        SensorData d = decode(v1);
+        assertTrue(d.isAggregate());
+        assertEquals(5_000L, d.timestamp);
+        assertEquals(5_000L, d.windowMs);
+        assertEquals(4, d.sampleCount);
+        assertEquals(2, d.statCount[0]);
+        assertEquals(100f, d.statMin[0], 0f);
+        assertEquals(300f, d.statMax[0], 0f);
+        assertEquals(200f, d.light, 0f);
+        assertEquals(5f, d.statMean[1], 0f);
+        assertEquals(-30f, d.sound, 1e-4f);
+        assertFalse(d.hasAcoustics());
+
+        byte[] v2 = codec.encodeAggregate(window(), 5_000L, acoustics());
+        assertEquals(SensorBinaryCodec.SCHEMA_AGGREGATE_V2, v2[0]);
+        d = decode(v2);
+        assertEquals(4, d.sampleCount);
+        assertEquals(-42.5f, d.laeq, 0f);
+    }
+
+    @Test
+    public void eventRoundTrips() {
+        byte[] frame = codec.encodeEvent(new VibrationEvent(1_700_000_000_000L, 640L, 2.5f, 7.25f));
+        assertEquals(SensorBinaryCodec.SCHEMA_EVENT_V1, frame[0]);
+        assertEquals(SensorBinaryCodec.EVENT_SIZE, frame.length);
+        SensorData d = decode(frame);
+        assertTrue(d.event);
+        assertEquals(1_700_000_000_000L, d.timestamp);
+        assertEquals(640L, d.eventDurationMs);
+        assertEquals(2.5f, d.eventPeak, 0f);
+        assertEquals(7.25f, d.eventRatio, 0f);
+    }
+
+    @Test
+    public void rejectsUnknownSchemasAndEmptyFrames() {
+        byte[] frame = codec.encodeSnapshot(1L, 1f, 2f, 3f, 4f, 5f);
+        for (byte schema : new byte[]{0x00, 0x08, 0x7F, (byte) 0xFF, '{'}) {
+            frame[0] = schema;
+            assertFalse("schema " + schema, SensorBinaryCodec.decode(frame, new SensorData()));
+        }
+        assertFalse(SensorBinaryCodec.decode(new byte[0], new SensorData()));
+        assertFalse(SensorBinaryCodec.decode(null, new SensorData()));
+    }
+
+    @Test
+    public void rejectsTruncatedFramesOfEverySchema() {
+        byte[][] frames = {
+                codec.encodeSnapshot(1L, 1f, 2f, 3f, 4f, 5f),
+                codec.encodeBatch(samples()),
+                codec.encodeAggregate(window(), 5_000L),
+                codec.encodeSnapshot(1L, 1f, 2f, 3f, 4f, 5f, acoustics()),
+                codec.encodeBatch(samples(), acoustics()),
+                codec.encodeAggregate(window(), 5_000L, acoustics()),
+                codec.encodeEvent(new VibrationEvent(1L, 2L, 3f, 4f)),
+        };
+        for (byte[] frame : frames) {
+            // Every cut, from the bare schema byte to one byte short
+            for (int length = 1; length < frame.length; length++) {
+                assertFalse("schema " + frame[0] + " cut at " + length,
+                        SensorBinaryCodec.decode(Arrays.copyOf(frame, length), new SensorData()));
+            }
+        }
+    }
+}
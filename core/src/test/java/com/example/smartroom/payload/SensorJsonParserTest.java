@@ -0,0 +1,170 @@
+package com.example.smartroom.payload;
+
+import com.example.smartroom.audio.AcousticLevels;
+import com.example.smartroom.publisher.model.SensorChannel;
+import com.example.smartroom.publisher.model.SensorSampleBuffer;
+import com.example.smartroom.publisher.model.VibrationEvent;
+import com.example.smartroom.publisher.model.WindowAggregator;
+import com.example.smartroom.subscriber.model.SensorData;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class SensorJsonParserTest {
+
+    private final SensorJsonParser parser = new SensorJsonParser();
+
+    private SensorData parse(String json) {
+        SensorData data = new SensorData();
+        assertTrue(json, parser.parse(json.getBytes(StandardCharsets.UTF_8), data));
+        return data;
+    }
+
+    @Test
+    public void parsesSnapshot() {
+        SensorData d = parse("{\"light\":120.5,\"ax\":0.12,\"ay\":-9.81,\"az\":0.0,\"sound\":842.0}");
+        assertEquals(120.5f, d.light, 0f);
+        assertEquals(0.12f, d.ax, 0f);
+        assertEquals(-9.81f, d.ay, 0f);
+        assertEquals(0f, d.az, 0f);
+        assertEquals(842f, d.sound, 0f);
+        assertEquals(1, d.sampleCount);
+    }
+
+    @Test
+    public void matchesFloatToStringOutput() {
+        float[] values = {1.0E-5f, -3.4028235E38f, 1.17549435E-38f, 123456.79f, -0.001f, 9.80665f};
+        for (float v : values) {
+            SensorData d = parse("{\"light\":" + v + "}");
+            assertEquals(v, d.light, Math.ulp(v));
+        }
+    }
+
+    @Test
+    public void handlesExponentsWhitespaceAndNonFinite() {
+        SensorData d = parse(" {\n \"ax\" : 2.5e-3 ,\t\"ay\":-1E+2, \"az\": NaN, \"sound\": -Infinity }");
+        assertEquals(0.0025f, d.ax, 0f);
+        assertEquals(-100f, d.ay, 0f);
+        assertTrue(Float.isNaN(d.az));
+        assertEquals(Float.NEGATIVE_INFINITY, d.sound, 0f);
+    }
+
+    @Test
+    public void skipsUnknownKeysWithAwkwardValues() {
+        SensorData d = parse("{\"room\":\"lab:1, {north}\",\"meta\":{\"a\":[1,{\"b\":\"]\"}]},"
+                + "\"ok\":true,\"light\":3.0,\"note\":null,\"sound\":4.0}");
+        assertEquals(3f, d.light, 0f);
+        assertEquals(4f, d.sound, 0f);
+    }
+
+    @Test
+    public void newestSampleOfBatchWins() {
+        SensorData d = parse("{\"count\":2,\"samples\":["
+                + "{\"t\":1000,\"light\":1.0,\"ax\":1.0,\"ay\":1.0,\"az\":1.0,\"sound\":1.0},"
+                + "{\"t\":1500,\"light\":2.0,\"ax\":2.0,\"ay\":2.0,\"az\":2.0,\"sound\":2.0}]}");
+        assertEquals(2, d.sampleCount);
+        assertEquals(1500L, d.timestamp);
+        assertEquals(2f, d.light, 0f);
+    }
+
+    @Test
+    public void roundTripsEncoderOutput() {
+        SensorJsonEncoder encoder = new SensorJsonEncoder();
+        SensorData d = new SensorData();
+        assertTrue(parser.parse(encoder.encodeSnapshot(1_700_000_000_123L, 1f, -2f, 3.5f, -4.25f, 5e-7f), d));
+        assertEquals(1_700_000_000_123L, d.timestamp);
+        assertEquals(-4.25f, d.az, 0f);
+        assertEquals(5e-7f, d.sound, 0f);
+    }
+
+    @Test
+    public void readsAggregateStats() {
+        WindowAggregator window = new WindowAggregator();
+        window.reset(1000L);
+        window.add(SensorChannel.LIGHT, 100f);
+        window.add(SensorChannel.LIGHT, 300f);
+        window.addAccel(0f, 3f, 4f);
+        window.add(SensorChannel.SOUND, 50f);
+
+        SensorData d = new SensorData();
+        assertTrue(parser.parse(new SensorJsonEncoder().encodeAggregate(window, 5000L), d));
+        assertTrue(d.isAggregate());
+        assertEquals(1000L, d.timestamp);
+        assertEquals(5000L, d.windowMs);
+        assertEquals(4, d.sampleCount);
+        assertEquals(200f, d.light, 0f);
+        assertEquals(2, d.statCount[0]);
+        assertEquals(100f, d.statMin[0], 0f);
+        assertEquals(300f, d.statMax[0], 0f);
+        assertEquals(5f, d.statMean[1], 0f);
+        assertEquals(50f, d.statRms[2], 1e-4f);
+
+        // The binary frame carries the same numbers
+        SensorData b = new SensorData();
+        assertTrue(SensorBinaryCodec.decode(new SensorBinaryCodec().encodeAggregate(window, 5000L), b));
+        assertEquals(5000L, b.windowMs);
+        assertEquals(4, b.sampleCount);
+        assertEquals(d.statRms[0], b.statRms[0], 0f);
+        assertEquals(200f, b.light, 0f);
+    }
+
+    @Test
+    public void carriesAcousticLevelsInBothFormats() {
+        AcousticLevels acoustics = new AcousticLevels();
+        acoustics.laeq = -42.5f;
+        for (int b = 0; b < AcousticLevels.BAND_COUNT; b++) acoustics.bands[b] = -30f - b;
+
+        SensorData d = new SensorData();
+        assertTrue(parser.parse(new SensorJsonEncoder().encodeSnapshot(1000L, 1f, 0f, 0f, 9.8f, -35f, acoustics), d));
+        assertTrue(d.hasAcoustics());
+        assertEquals(-35f, d.sound, 0f);
+        assertEquals(-42.5f, d.laeq, 0f);
+        assertEquals(AcousticLevels.BAND_COUNT, d.bandCount);
+        assertEquals(-37f, d.bands[7], 0f);
+
+        SensorSampleBuffer samples = new SensorSampleBuffer(4);
+        samples.add(1000L, 1f, 0f, 0f, 9.8f, -40f);
+        samples.add(1100L, 2f, 0f, 0f, 9.8f, -35f);
+        SensorData b = new SensorData();
+        assertTrue(SensorBinaryCodec.decode(new SensorBinaryCodec().encodeBatch(samples, acoustics), b));
+        assertEquals(1100L, b.timestamp);
+        assertEquals(-35f, b.sound, 0f);
+        assertEquals(-42.5f, b.laeq, 0f);
+        assertEquals(-30f, b.bands[0], 0f);
+
+        // v1 frames leave the acoustic fields alone
+        SensorData v1 = new SensorData();
+        assertTrue(SensorBinaryCodec.decode(new SensorBinaryCodec().encodeBatch(samples), v1));
+        assertFalse(v1.hasAcoustics());
+    }
+
+    @Test
+    public void carriesVibrationEventsInBothFormats() {
+        VibrationEvent event = new VibrationEvent(1_700_000_000_000L, 640L, 2.5f, 7.25f);
+
+        SensorData d = new SensorData();
+        assertTrue(parser.parse(new SensorJsonEncoder().encodeEvent(event), d));
+        SensorData b = new SensorData();
+        assertTrue(SensorBinaryCodec.decode(new SensorBinaryCodec().encodeEvent(event), b));
+
+        for (SensorData e : new SensorData[]{d, b}) {
+            assertTrue(e.event);
+            assertEquals(1_700_000_000_000L, e.timestamp);
+            assertEquals(640L, e.eventDurationMs);
+            assertEquals(2.5f, e.eventPeak, 0f);
+            assertEquals(7.25f, e.eventRatio, 0f);
+            assertFalse(e.isAggregate());
+        }
+    }
+
+    @Test
+    public void rejectsMalformedInput() {
+        String[] bad = {"", "{", "{\"light\":}", "{\"light\" 1}", "{\"light\":1.0", "[1,2]", "{\"a\":\"x}"};
+        for (String json : bad) {
+            assertFalse(json, parser.parse(json.getBytes(StandardCharsets.UTF_8), new SensorData()));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.smartroom.publisher.model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AdaptiveRateControllerTest {
+
+    private final ChannelPolicy policy = new ChannelPolicy(100, 250, 4000, 1f);
+
+    @Test
+    public void firstValueIsDueRightAway() {
+        AdaptiveRateController rate = new AdaptiveRateController(policy);
+        assertFalse(rate.isDue(0));
+        rate.observe(10f);
+        assertTrue(rate.isDue(0));
+    }
+
+    @Test
+    public void changesInsideDeadbandWaitForHeartbeat() {
+        AdaptiveRateController rate = new AdaptiveRateController(policy);
+        rate.observe(10f);
+        rate.onReported(0);
+
+        rate.observe(10.5f);
+        assertFalse(rate.hasChanged());
+        assertFalse(rate.isDue(200));
+        assertTrue(rate.isDue(250)); // heartbeat
+        rate.onReported(250);
+        assertEquals(500, rate.getIntervalMs()); // static: backing off
+    }
+
+    @Test
+    public void changesPastDeadbandRespectMinInterval() {
+        AdaptiveRateController rate = new AdaptiveRateController(policy);
+        rate.observe(10f);
+        rate.onReported(0);
+
+        rate.observe(12f);
+        assertTrue(rate.hasChanged());
+        assertFalse(rate.isDue(100));
+        assertTrue(rate.isDue(250));
+    }
+
+    @Test
+    public void backsOffWhileStaticAndSnapsBackOnChange() {
+        AdaptiveRateController rate = new AdaptiveRateController(policy);
+        rate.observe(10f);
+        long now = 0;
+        rate.onReported(now);
+
+        // 250 -> 500 -> 1000 -> 2000 -> 4000 (cap)
+        for (int i = 0; i < 6; i++) {
+            now += rate.getIntervalMs();
+            assertTrue(rate.isDue(now));
+            rate.onReported(now);
+        }
+        assertEquals(4000, rate.getIntervalMs());
+
+        rate.observe(20f);
+        assertTrue(rate.isDue(now + 250));
+        rate.onReported(now + 250);
+        assertEquals(250, rate.getIntervalMs());
+    }
+
+    @Test
+    public void anyAxisPastDeadbandCounts() {
+        AdaptiveRateController rate = new AdaptiveRateController(policy);
+        rate.observe(0f, 0f, 9.8f);
+        rate.onReported(0);
+
+        rate.observe(0.5f, -0.5f, 9.8f);
+        assertFalse(rate.hasChanged());
+        rate.observe(0f, 0f, 8.5f);
+        assertTrue(rate.hasChanged());
+    }
+
+    @Test
+    public void idleRoomPublishesAnOrderOfMagnitudeLess() {
+        PublishPolicy defaults = PublishPolicy.defaults();
+        AdaptiveRateController light = new AdaptiveRateController(defaults.get(SensorChannel.LIGHT));
+        int reports = 0;
+        // 10 minutes of a constant reading, checked every tick
+        for (long now = 0; now <= 600_000; now += defaults.tickMs()) {
+            light.observe(300f);
+            if (light.isDue(now)) {
+                light.onReported(now);
+                reports++;
+            }
+        }
+        // The fixed 2 s rate would have sent 300
+        assertTrue("reports: " + reports, reports <= 30);
+    }
+}
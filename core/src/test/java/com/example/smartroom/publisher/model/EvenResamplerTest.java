@@ -0,0 +1,74 @@
+package com.example.smartroom.publisher.model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class EvenResamplerTest {
+
+    private static final long MS = 1_000_000L;
+
+    private final List<Long> times = new ArrayList<>();
+    private final List<Float> values = new ArrayList<>();
+
+    private EvenResampler resampler(long periodMs, long maxGapMs) {
+        return new EvenResampler(1, periodMs * MS, maxGapMs * MS, (t, v) -> {
+            times.add(t);
+            values.add(v[0]);
+        });
+    }
+
+    @Test
+    public void jitteredEventsComeOutOnAnEvenGrid() {
+        EvenResampler r = resampler(10, 1000);
+        // A ramp of 1 per ms, sampled with jitter around 10 ms
+        long[] at = {0, 7, 21, 29, 43, 50};
+        for (long t : at) r.add(t * MS, new float[]{t});
+
+        assertEquals(6, times.size()); // 0, 10, 20, 30, 40, 50
+        for (int i = 0; i < times.size(); i++) {
+            assertEquals(i * 10 * MS, (long) times.get(i));
+            assertEquals(i * 10f, values.get(i), 1e-3f); // interpolation recovers the ramp
+        }
+    }
+
+    @Test
+    public void gapsRestartTheGridInsteadOfInventingSamples() {
+        EvenResampler r = resampler(10, 100);
+        r.add(0, new float[]{1f});
+        r.add(10 * MS, new float[]{1f});
+        r.add(5_003 * MS, new float[]{5f}); // five seconds of lost events
+        r.add(5_013 * MS, new float[]{6f});
+
+        assertEquals(4, times.size());
+        assertEquals(5_003 * MS, (long) times.get(2));
+        assertEquals(5f, values.get(2), 0f);
+        assertEquals(6f, values.get(3), 0f);
+    }
+
+    @Test
+    public void dropsOutOfOrderEvents() {
+        EvenResampler r = resampler(10, 1000);
+        r.add(20 * MS, new float[]{2f});
+        r.add(15 * MS, new float[]{9f});
+        r.add(20 * MS, new float[]{9f});
+        r.add(30 * MS, new float[]{3f});
+
+        assertEquals(2, times.size());
+        assertEquals(3f, values.get(1), 0f);
+        assertEquals(2L, r.getDroppedCount());
+    }
+
+    @Test
+    public void fifoLatencyFitsTheReservedEvents() {
+        assertEquals(0L, CaptureMode.DIRECT.reportLatencyUs(20, 3000));
+        assertEquals(0L, CaptureMode.HARDWARE_FIFO.reportLatencyUs(20, 0));
+        // 100 events at 20 ms hold 2 s; leave 10% headroom
+        assertEquals(1_800_000L, CaptureMode.HARDWARE_FIFO.reportLatencyUs(20, 100));
+        assertEquals(CaptureMode.MAX_REPORT_LATENCY_MS * 1000L,
+                CaptureMode.HARDWARE_FIFO.reportLatencyUs(20, 3000));
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.smartroom.publisher.model;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class FrameSpoolTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    // A 1 KiB segment holds 20 frames of 46 bytes (+ 4 length bytes)
+    private static final int FRAME_BYTES = 46;
+
+    private static SpoolPolicy policy(int maxSegments, SpoolPolicy.Overflow overflow) {
+        return new SpoolPolicy(1024, maxSegments, overflow, 10, 0);
+    }
+
+    private static byte[] frame(int index) {
+        return ByteBuffer.allocate(FRAME_BYTES).putInt(0, index).array();
+    }
+
+    private static int index(byte[] frame) {
+        return ByteBuffer.wrap(frame).getInt(0);
+    }
+
+    private static List<Integer> peekAll(FrameSpool spool) {
+        List<byte[]> frames = new ArrayList<>();
+        spool.peek(Integer.MAX_VALUE, frames);
+        List<Integer> indices = new ArrayList<>();
+        for (byte[] f : frames) indices.add(index(f));
+        return indices;
+    }
+
+    @Test
+    public void peeksInOrderAndCommitsBatches() throws IOException {
+        FrameSpool spool = new FrameSpool(tmp.newFolder(), policy(4, SpoolPolicy.Overflow.DROP_OLDEST));
+        for (int i = 0; i < 30; i++) assertTrue(spool.append(frame(i)));
+        assertEquals(30, spool.size());
+
+        List<byte[]> batch = new ArrayList<>();
+        long first = spool.peek(10, batch);
+        assertEquals(10, batch.size());
+        assertEquals(0, index(batch.get(0)));
+        assertEquals(9, index(batch.get(9)));
+
+        spool.commit(first + batch.size());
+        assertEquals(20, spool.size());
+        assertEquals(10, (int) peekAll(spool).get(0));
+
+        // Reading across the segment boundary (20 frames per segment)
+        batch.clear();
+        first = spool.peek(15, batch);
+        assertEquals(10L, first);
+        assertEquals(24, index(batch.get(14)));
+        spool.commit(first + batch.size());
+        assertEquals(5, spool.size());
+        spool.close();
+    }
+
+    @Test
+    public void keepsPendingFramesAcrossRestarts() throws IOException {
+        File dir = tmp.newFolder();
+        SpoolPolicy policy = policy(4, SpoolPolicy.Overflow.DROP_OLDEST);
+
+        FrameSpool spool = new FrameSpool(dir, policy);
+        for (int i = 0; i < 25; i++) spool.append(frame(i));
+        spool.commit(spool.peek(3, new ArrayList<>()) + 3);
+        spool.close();
+
+        FrameSpool reopened = new FrameSpool(dir, policy);
+        assertEquals(22, reopened.size());
+        List<Integer> indices = peekAll(reopened);
+        assertEquals(3, (int) indices.get(0));
+        assertEquals(24, (int) indices.get(21));
+
+        // Appends continue after the recovered frames
+        reopened.append(frame(25));
+        assertEquals(25, (int) peekAll(reopened).get(22));
+        reopened.close();
+    }
+
+    @Test
+    public void dropOldestEvictsWholeSegments() throws IOException {
+        FrameSpool spool = new FrameSpool(tmp.newFolder(), policy(2, SpoolPolicy.Overflow.DROP_OLDEST));
+        for (int i = 0; i < 45; i++) assertTrue(spool.append(frame(i)));
+
+        // Frames 0..19 filled the first segment and gave way to 40..44
+        assertEquals(25, spool.size());
+        assertEquals(20, spool.getDroppedCount());
+        assertEquals(20, (int) peekAll(spool).get(0));
+        spool.close();
+    }
+
+    @Test
+    public void dropNewestRefusesFramesWhenFull() throws IOException {
+        FrameSpool spool = new FrameSpool(tmp.newFolder(), policy(2, SpoolPolicy.Overflow.DROP_NEWEST));
+        for (int i = 0; i < 40; i++) assertTrue(spool.append(frame(i)));
+        assertFalse(spool.append(frame(40)));
+        assertEquals(1, spool.getDroppedCount());
+        assertEquals(0, (int) peekAll(spool).get(0));
+
+        // Room again once the oldest segment is delivered
+        spool.commit(spool.peek(20, new ArrayList<>()) + 20);
+        assertTrue(spool.append(frame(41)));
+        spool.close();
+    }
+
+    @Test
+    public void lateCommitDoesNotRemoveNewerFrames() throws IOException {
+        FrameSpool spool = new FrameSpool(tmp.newFolder(), policy(2, SpoolPolicy.Overflow.DROP_OLDEST));
+        for (int i = 0; i < 20; i++) spool.append(frame(i));
+        long first = spool.peek(10, new ArrayList<>());
+
+        // The batch in flight gets evicted before its acknowledgement arrives
+        for (int i = 20; i < 41; i++) spool.append(frame(i));
+        spool.commit(first + 10);
+
+        assertEquals(21, spool.size());
+        assertEquals(20, (int) peekAll(spool).get(0));
+        spool.close();
+    }
+
+    @Test
+    public void refusesFramesThatDoNotFit() throws IOException {
+        FrameSpool spool = new FrameSpool(tmp.newFolder(), policy(2, SpoolPolicy.Overflow.DROP_OLDEST));
+        assertFalse(spool.append(new byte[0]));
+        assertFalse(spool.append(new byte[1024]));
+        assertTrue(spool.append(new byte[1024 - FrameSpool.HEADER_SIZE - FrameSpool.RECORD_HEADER_SIZE]));
+        assertEquals(2, spool.getDroppedCount());
+        spool.close();
+    }
+}
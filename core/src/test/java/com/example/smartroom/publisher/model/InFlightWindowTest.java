@@ -0,0 +1,94 @@
+package com.example.smartroom.publisher.model;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class InFlightWindowTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void rejectsSendsBeyondTheCapacity() {
+        InFlightWindow window = new InFlightWindow(3);
+        List<CompletableFuture<Void>> acks = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            window.submit(() -> {
+                CompletableFuture<Void> ack = new CompletableFuture<>();
+                acks.add(ack);
+                return ack;
+            });
+        }
+        assertTrue(window.isFull());
+
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<Void> rejected = window.submit(() -> {
+            calls.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+        assertEquals(0, calls.get()); // never handed to the client
+        assertTrue(rejected.isCompletedExceptionally());
+        try {
+            rejected.join();
+            fail();
+        } catch (Exception e) {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+        assertEquals(1, window.getRejectedCount());
+
+        // An ack (or a failure) frees the slot
+        acks.get(0).complete(null);
+        acks.get(1).completeExceptionally(new IllegalStateException());
+        assertEquals(1, window.size());
+        assertFalse(window.isFull());
+    }
+
+    @Test
+    public void givesTheSlotBackWhenTheSendThrows() {
+        InFlightWindow window = new InFlightWindow(1);
+        try {
+            window.submit(() -> {
+                throw new IllegalStateException("client gone");
+            });
+            fail();
+        } catch (IllegalStateException expected) {
+            // propagated to the caller
+        }
+        assertEquals(0, window.size());
+        assertTrue(window.tryAcquire());
+        assertFalse(window.tryAcquire());
+    }
+
+    @Test
+    public void drainerKeepsFramesTheWindowTurnedAway() throws Exception {
+        SpoolPolicy policy = new SpoolPolicy(4096, 2, SpoolPolicy.Overflow.DROP_OLDEST, 10, 0);
+        FrameSpool spool = new FrameSpool(tmp.newFolder(), policy);
+        for (int i = 0; i < 10; i++) spool.append(new byte[]{(byte) i});
+
+        InFlightWindow window = new InFlightWindow(4);
+        List<CompletableFuture<Void>> acks = new ArrayList<>();
+        SpoolDrainer drainer = new SpoolDrainer(spool, frame -> window.submit(() -> {
+            CompletableFuture<Void> ack = new CompletableFuture<>();
+            acks.add(ack);
+            return ack;
+        }), policy);
+
+        assertEquals(10, drainer.drain(0L));
+        assertEquals(4, acks.size());
+        for (CompletableFuture<Void> ack : acks) ack.complete(null);
+
+        // Only the four that fit were committed; the rest go out next time
+        assertEquals(6, spool.size());
+        assertFalse(drainer.isDraining());
+        spool.close();
+    }
+}
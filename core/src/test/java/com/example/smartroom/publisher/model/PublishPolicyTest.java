@@ -0,0 +1,71 @@
+package com.example.smartroom.publisher.model;
+
+import com.hivemq.client.mqtt.datatypes.MqttQos;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PublishPolicyTest {
+
+    @Test
+    public void qosFollowsTheStrongestReportedChannel() {
+        PublishPolicy policy = PublishPolicy.defaults();
+        assertEquals(MqttQos.AT_MOST_ONCE, policy.qosFor(SensorChannel.ACCEL));
+        assertEquals(MqttQos.AT_LEAST_ONCE, policy.qosFor(SensorChannel.LIGHT));
+        assertEquals(MqttQos.AT_LEAST_ONCE, policy.qosFor(SensorChannel.ACCEL, SensorChannel.SOUND));
+        assertEquals(MqttQos.AT_MOST_ONCE, policy.qosFor());
+    }
+
+    @Test
+    public void buildsOnePolicyPerChannel() {
+        ChannelPolicy light = new ChannelPolicy(100, 1_000, 60_000, 10f);
+        ChannelPolicy accel = new ChannelPolicy(20, 300, 30_000, 0.5f, MqttQos.AT_MOST_ONCE);
+        ChannelPolicy sound = new ChannelPolicy(250, 750, 10_000, 3f, MqttQos.EXACTLY_ONCE);
+        PublishPolicy policy = new PublishPolicy(light, accel, sound);
+
+        assertSame(light, policy.get(SensorChannel.LIGHT));
+        assertSame(accel, policy.get(SensorChannel.ACCEL));
+        assertSame(sound, policy.get(SensorChannel.SOUND));
+        assertEquals(MqttQos.AT_LEAST_ONCE, light.qos); // the default QoS
+        assertEquals(300L, policy.tickMs());
+        assertEquals(MqttQos.EXACTLY_ONCE, policy.qosFor(SensorChannel.values()));
+    }
+
+    @Test
+    public void tuningOneChannelKeepsTheOthers() {
+        PublishPolicy defaults = PublishPolicy.defaults();
+        ChannelPolicy quietLight = ChannelPolicy.fixed(1_000, 60_000);
+        PublishPolicy tuned = defaults.with(SensorChannel.LIGHT, quietLight);
+
+        assertSame(quietLight, tuned.get(SensorChannel.LIGHT));
+        assertSame(defaults.get(SensorChannel.ACCEL), tuned.get(SensorChannel.ACCEL));
+        assertSame(defaults.get(SensorChannel.SOUND), tuned.get(SensorChannel.SOUND));
+        assertNotSame(quietLight, defaults.get(SensorChannel.LIGHT));
+
+        assertEquals(60_000L, quietLight.minPublishIntervalMs);
+        assertEquals(60_000L, quietLight.maxPublishIntervalMs);
+        assertEquals(0f, quietLight.deadband, 0f);
+    }
+
+    @Test
+    public void rejectsInvalidChannelPolicies() {
+        Runnable[] invalid = {
+                () -> new ChannelPolicy(0, 500, 30_000, 1f),                 // no sample period
+                () -> new ChannelPolicy(200, 0, 30_000, 1f),                 // no min interval
+                () -> new ChannelPolicy(200, 1_000, 500, 1f),                // max below min
+                () -> new ChannelPolicy(200, 500, 30_000, -1f),              // negative deadband
+                () -> new ChannelPolicy(200, 500, 30_000, 1f, null),         // no QoS
+                () -> new PublishPolicy(null, ChannelPolicy.fixed(200, 500), ChannelPolicy.fixed(200, 500)),
+                () -> PublishPolicy.defaults().with(SensorChannel.SOUND, null),
+        };
+        for (int i = 0; i < invalid.length; i++) {
+            try {
+                invalid[i].run();
+                fail("case " + i);
+            } catch (IllegalArgumentException expected) {
+                // ok
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.smartroom.publisher.model;
+
+import com.example.smartroom.payload.SensorBinaryCodec;
+import com.example.smartroom.subscriber.model.SensorData;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.Assert.*;
+
+public class SampleReorderBufferTest {
+
+    private static final long HOLDBACK_MS = 5_250;
+
+    // What the engine does with a released sample: update the channel, record a row
+    private final SensorSampleBuffer batch = new SensorSampleBuffer(1024);
+    private float lux, ax, ay, az, sound;
+    private final SampleReorderBuffer reorder = new SampleReorderBuffer(1024, (t, channel, x, y, z) -> {
+        switch (channel) {
+            case LIGHT: lux = x; break;
+            case ACCEL: ax = x; ay = y; az = z; break;
+            case SOUND: sound = x; break;
+        }
+        batch.add(t, lux, ax, ay, az, sound);
+    });
+
+    @Test
+    public void delayedFifoBurstKeepsTheBatchOrdered() {
+        long base = 1_700_000_000_000L;
+        // Five seconds of live light and sound while the accel burst sits in the hub
+        for (long t = 0; t <= 5_000; t += 250) {
+            reorder.add(base + t, SensorChannel.LIGHT, 100f + t, 0f, 0f);
+            reorder.add(base + t + 10, SensorChannel.SOUND, -40f, 0f, 0f);
+            reorder.drain(base + t - HOLDBACK_MS);
+        }
+        assertEquals(0, batch.size()); // all still held back
+
+        // Then the burst arrives: 250 accel samples, 20 ms apart, dated in the past
+        long arrival = base + 5_020;
+        for (long t = 0; t < 5_000; t += 20) {
+            reorder.add(base + t, SensorChannel.ACCEL, t, 0f, 9.81f);
+        }
+        reorder.drain(arrival - HOLDBACK_MS);
+        reorder.flush(); // publishing stopped
+
+        assertEquals(21 + 21 + 250, batch.size());
+        for (int i = 1; i < batch.size(); i++) {
+            assertTrue("row " + i, batch.getTimestamp(i) >= batch.getTimestamp(i - 1));
+        }
+        assertEquals(0L, reorder.getLateCount());
+
+        // No negative deltas on the wire, and the last row is the newest
+        byte[] frame = new SensorBinaryCodec().encodeBatch(batch);
+        ByteBuffer in = ByteBuffer.wrap(frame).order(ByteOrder.LITTLE_ENDIAN);
+        in.position(1 + 8 + 2);
+        int previous = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            int delta = in.getInt();
+            assertTrue(delta >= previous);
+            previous = delta;
+            in.position(in.position() + 5 * 4);
+        }
+        SensorData d = new SensorData();
+        assertTrue(SensorBinaryCodec.decode(frame, d));
+        assertEquals(base + 5_010, d.timestamp);
+        assertEquals(-40f, d.sound, 0f);
+    }
+
+    @Test
+    public void lateSamplesGoOutAtTheLastReleasedTime() {
+        reorder.add(1_000, SensorChannel.LIGHT, 1f, 0f, 0f);
+        reorder.drain(1_000);
+        reorder.add(400, SensorChannel.ACCEL, 1f, 2f, 3f); // older than what is already out
+        reorder.flush();
+
+        assertEquals(2, batch.size());
+        assertEquals(1_000L, batch.getTimestamp(1));
+        assertEquals(2f, batch.getAy(1), 0f);
+        assertEquals(1L, reorder.getLateCount());
+    }
+
+    @Test
+    public void fullBufferReleasesTheOldestEarly() {
+        SampleReorderBuffer small = new SampleReorderBuffer(2, (t, channel, x, y, z) ->
+                batch.add(t, x, 0f, 0f, 0f, 0f));
+        small.add(30, SensorChannel.LIGHT, 3f, 0f, 0f);
+        small.add(10, SensorChannel.LIGHT, 1f, 0f, 0f);
+        small.add(20, SensorChannel.LIGHT, 2f, 0f, 0f);
+
+        assertEquals(1, batch.size());
+        assertEquals(10L, batch.getTimestamp(0));
+        small.flush();
+        assertEquals(20L, batch.getTimestamp(1));
+        assertEquals(30L, batch.getTimestamp(2));
+    }
+}
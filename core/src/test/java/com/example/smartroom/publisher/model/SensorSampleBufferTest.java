@@ -0,0 +1,72 @@
+package com.example.smartroom.publisher.model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SensorSampleBufferTest {
+
+    private static void addRow(SensorSampleBuffer buffer, long t) {
+        buffer.add(t, t, t + 0.1f, t + 0.2f, t + 0.3f, -t);
+    }
+
+    @Test
+    public void readsRowsOldestFirst() {
+        SensorSampleBuffer buffer = new SensorSampleBuffer(4);
+        assertTrue(buffer.isEmpty());
+        for (long t = 1; t <= 3; t++) addRow(buffer, t);
+
+        assertEquals(3, buffer.size());
+        for (int i = 0; i < 3; i++) {
+            long t = i + 1;
+            assertEquals(t, buffer.getTimestamp(i));
+            assertEquals(t, buffer.getLight(i), 0f);
+            assertEquals(t + 0.1f, buffer.getAx(i), 0f);
+            assertEquals(t + 0.2f, buffer.getAy(i), 0f);
+            assertEquals(t + 0.3f, buffer.getAz(i), 0f);
+            assertEquals(-t, buffer.getSound(i), 0f);
+        }
+        assertEquals(0L, buffer.getDroppedCount());
+    }
+
+    @Test
+    public void overflowEvictsTheOldestAndKeepsOrderAcrossTheWrap() {
+        SensorSampleBuffer buffer = new SensorSampleBuffer(4);
+        for (long t = 1; t <= 10; t++) addRow(buffer, t);
+
+        assertEquals(4, buffer.size());
+        assertEquals(6L, buffer.getDroppedCount());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(7L + i, buffer.getTimestamp(i));
+            assertEquals(-(7f + i), buffer.getSound(i), 0f);
+        }
+    }
+
+    @Test
+    public void clearStartsOverWithoutForgettingDrops() {
+        SensorSampleBuffer buffer = new SensorSampleBuffer(3);
+        for (long t = 1; t <= 5; t++) addRow(buffer, t); // head is mid-array now
+        buffer.clear();
+        assertTrue(buffer.isEmpty());
+        assertEquals(2L, buffer.getDroppedCount());
+
+        // The next window drains in insertion order again
+        addRow(buffer, 20);
+        addRow(buffer, 21);
+        assertEquals(2, buffer.size());
+        assertEquals(20L, buffer.getTimestamp(0));
+        assertEquals(21L, buffer.getTimestamp(1));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rejectsIndexPastSize() {
+        SensorSampleBuffer buffer = new SensorSampleBuffer(4);
+        addRow(buffer, 1);
+        buffer.getTimestamp(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsZeroCapacity() {
+        new SensorSampleBuffer(0);
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.smartroom.publisher.model;
+
+import com.example.smartroom.mqtt.EmbeddedBroker;
+import com.hivemq.client.mqtt.MqttClient;
+import com.hivemq.client.mqtt.datatypes.MqttQos;
+import com.hivemq.client.mqtt.mqtt3.Mqtt3AsyncClient;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * Store-and-forward against a real broker on localhost that is stopped and
+ * restarted while frames keep coming.
+ */
+public class SpoolDrainerBrokerTest {
+
+    private static final String TOPIC = "smartroom/test/spool";
+    private static final long TIMEOUT_MS = 10_000;
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private EmbeddedBroker broker;
+    private Mqtt3AsyncClient publisher;
+    private Mqtt3AsyncClient subscriber;
+    private final Set<Integer> received = ConcurrentHashMap.newKeySet();
+
+    @Before
+    public void setUp() throws Exception {
+        broker = new EmbeddedBroker(tmp.newFolder());
+        broker.start();
+        publisher = client("spool-publisher");
+        subscriber = client("spool-subscriber");
+        connectClients();
+    }
+
+    @After
+    public void tearDown() {
+        publisher.disconnect();
+        subscriber.disconnect();
+        broker.stop();
+    }
+
+    @Test
+    public void deliversEveryFrameAcrossABrokerRestart() throws Exception {
+        SpoolPolicy policy = new SpoolPolicy(4096, 8, SpoolPolicy.Overflow.DROP_OLDEST, 20, 0);
+        FrameSpool spool = new FrameSpool(tmp.newFolder(), policy);
+        SpoolDrainer drainer = new SpoolDrainer(spool, this::publish, policy);
+
+        // Online: frames flow straight through
+        for (int i = 0; i < 100; i++) {
+            spool.append(frame(i));
+            drainer.drain(System.currentTimeMillis());
+        }
+        drainUntilEmpty(spool, drainer);
+        await(() -> received.size() == 100);
+
+        // Broker goes away mid-stream: frames pile up on disk, none are lost
+        broker.stop();
+        await(() -> !publisher.getState().isConnected());
+        for (int i = 100; i < 150; i++) {
+            spool.append(frame(i));
+            drainer.drain(System.currentTimeMillis());
+            await(() -> !drainer.isDraining());
+        }
+        assertEquals(50, spool.size());
+
+        // Back online: the backlog drains first, then the live frames follow
+        broker.start();
+        connectClients();
+        for (int i = 150; i < 200; i++) {
+            spool.append(frame(i));
+            drainer.drain(System.currentTimeMillis());
+        }
+        drainUntilEmpty(spool, drainer);
+        await(() -> received.size() == 200);
+
+        for (int i = 0; i < 200; i++) {
+            assertTrue("missing frame " + i, received.contains(i));
+        }
+        assertEquals(0, spool.getDroppedCount());
+        spool.close();
+    }
+
+    @Test
+    public void drainIsRateLimited() throws Exception {
+        SpoolPolicy policy = new SpoolPolicy(4096, 8, SpoolPolicy.Overflow.DROP_OLDEST, 5, 1000);
+        FrameSpool spool = new FrameSpool(tmp.newFolder(), policy);
+        SpoolDrainer drainer = new SpoolDrainer(spool, this::publish, policy);
+        for (int i = 0; i < 20; i++) spool.append(frame(i));
+
+        assertEquals(5, drainer.drain(0L));
+        await(() -> !drainer.isDraining());
+        assertEquals(0, drainer.drain(500L));   // too soon
+        assertEquals(5, drainer.drain(1000L));
+        await(() -> !drainer.isDraining());
+        assertEquals(10, spool.size());
+        spool.close();
+    }
+
+    // ---- Helpers ----
+
+    private CompletableFuture<?> publish(byte[] frame) {
+        return publisher.publishWith()
+                .topic(TOPIC)
+                .qos(MqttQos.AT_LEAST_ONCE)
+                .payload(frame)
+                .send();
+    }
+
+    private static byte[] frame(int index) {
+        return ByteBuffer.allocate(4).putInt(index).array();
+    }
+
+    private Mqtt3AsyncClient client(String id) {
+        return MqttClient.builder()
+                .useMqttVersion3()
+                .identifier(id)
+                .serverHost("127.0.0.1")
+                .serverPort(broker.getPort())
+                .buildAsync();
+    }
+
+    private void connectClients() throws Exception {
+        publisher.connect().get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        subscriber.connect().get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        subscriber.subscribeWith()
+                .topicFilter(TOPIC)
+                .qos(MqttQos.AT_LEAST_ONCE)
+                .callback(publish -> received.add(ByteBuffer.wrap(publish.getPayloadAsBytes()).getInt()))
+                .send()
+                .get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private static void drainUntilEmpty(FrameSpool spool, SpoolDrainer drainer) throws InterruptedException {
+        await(() -> {
+            drainer.drain(System.currentTimeMillis());
+            return spool.isEmpty() && !drainer.isDraining();
+        });
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) fail("Timed out");
+            Thread.sleep(5);
+        }
+    }
+}
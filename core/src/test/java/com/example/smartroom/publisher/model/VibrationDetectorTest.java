@@ -0,0 +1,71 @@
+package com.example.smartroom.publisher.model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class VibrationDetectorTest {
+
+    private static final int PERIOD_MS = 20;
+    private static final float G = 9.81f;
+
+    private final List<VibrationEvent> events = new ArrayList<>();
+    private final VibrationDetector detector = new VibrationDetector(VibrationPolicy.defaults(), events::add);
+    private final Random noise = new Random(3);
+    private long now = 0L;
+
+    // Phone flat on a table: gravity on z plus a little sensor noise, and x on top
+    private void feed(long durationMs, java.util.function.LongToDoubleFunction x) {
+        for (long end = now + durationMs; now < end; now += PERIOD_MS) {
+            detector.add(now,
+                    (float) (x.applyAsDouble(now) + 0.01 * noise.nextGaussian()),
+                    (float) (0.01 * noise.nextGaussian()),
+                    (float) (G + 0.01 * noise.nextGaussian()));
+        }
+    }
+
+    @Test
+    public void stillRoomStaysQuiet() {
+        feed(120_000, t -> 0);
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void doorSlamIsOneShortEvent() {
+        feed(20_000, t -> 0);
+        long slamAt = now;
+        feed(3 * PERIOD_MS, t -> (t / PERIOD_MS) % 2 == 0 ? 2.0 : -2.0);
+        feed(10_000, t -> 0);
+
+        assertEquals(1, events.size());
+        VibrationEvent e = events.get(0);
+        assertTrue(e.startMs >= slamAt && e.startMs < slamAt + 3 * PERIOD_MS);
+        assertEquals(2f, e.peak, 0.2f);
+        assertTrue("duration " + e.durationMs, e.durationMs > 0 && e.durationMs < 2_000);
+        assertTrue(e.peakRatio >= VibrationPolicy.defaults().triggerRatio);
+    }
+
+    @Test
+    public void nothingTriggersDuringWarmup() {
+        feed(1_000, t -> 0);
+        feed(3 * PERIOD_MS, t -> 2.0);
+        feed(5_000, t -> 0);
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void runningMachineIsCappedAndBecomesBackground() {
+        feed(20_000, t -> 0);
+        // 10 Hz hum for a minute
+        feed(60_000, t -> 0.5 * Math.sin(2 * Math.PI * 10 * t / 1000.0));
+        feed(10_000, t -> 0);
+
+        assertEquals(1, events.size());
+        assertEquals(VibrationPolicy.defaults().maxEventMs, events.get(0).durationMs);
+        assertFalse(detector.isTriggered());
+    }
+}
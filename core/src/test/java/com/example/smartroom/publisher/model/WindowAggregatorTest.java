@@ -0,0 +1,72 @@
+package com.example.smartroom.publisher.model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class WindowAggregatorTest {
+
+    @Test
+    public void computesWindowStatistics() {
+        WindowAggregator window = new WindowAggregator();
+        window.reset(42L);
+        for (float v : new float[]{1f, -1f, 3f, -3f}) {
+            window.add(SensorChannel.LIGHT, v);
+        }
+
+        assertEquals(42L, window.getWindowStart());
+        assertEquals(4, window.count(SensorChannel.LIGHT));
+        assertEquals(-3f, window.min(SensorChannel.LIGHT), 0f);
+        assertEquals(3f, window.max(SensorChannel.LIGHT), 0f);
+        assertEquals(0f, window.mean(SensorChannel.LIGHT), 0f);
+        assertEquals((float) Math.sqrt(5.0), window.rms(SensorChannel.LIGHT), 1e-6f);
+    }
+
+    @Test
+    public void averagesSoundLevelsAsPower() {
+        WindowAggregator window = new WindowAggregator();
+        window.add(SensorChannel.SOUND, -20f);
+        window.add(SensorChannel.SOUND, -60f);
+
+        // Half the energy of the loud level: 3 dB down, not the -40 dB mean
+        assertEquals(2, window.count(SensorChannel.SOUND));
+        assertEquals(-23.01f, window.mean(SensorChannel.SOUND), 0.01f);
+        assertEquals(-23.01f, window.rms(SensorChannel.SOUND), 0.01f);
+        assertEquals(-60f, window.min(SensorChannel.SOUND), 0f);
+        assertEquals(-20f, window.max(SensorChannel.SOUND), 0f);
+
+        // A steady level averages to itself
+        window.reset(0L);
+        for (int i = 0; i < 10; i++) window.add(SensorChannel.SOUND, -35f);
+        assertEquals(-35f, window.mean(SensorChannel.SOUND), 1e-4f);
+    }
+
+    @Test
+    public void foldsAccelIntoMagnitude() {
+        WindowAggregator window = new WindowAggregator();
+        window.addAccel(3f, 4f, 0f);
+        window.addAccel(0f, 0f, -9f);
+
+        assertEquals(2, window.count(SensorChannel.ACCEL));
+        assertEquals(5f, window.min(SensorChannel.ACCEL), 0f);
+        assertEquals(9f, window.max(SensorChannel.ACCEL), 0f);
+        assertEquals(7f, window.mean(SensorChannel.ACCEL), 0f);
+    }
+
+    @Test
+    public void emptyChannelsReportZeroAndResetClears() {
+        WindowAggregator window = new WindowAggregator();
+        assertTrue(window.isEmpty());
+        assertEquals(0f, window.min(SensorChannel.LIGHT), 0f);
+        assertEquals(0f, window.rms(SensorChannel.LIGHT), 0f);
+
+        window.add(SensorChannel.LIGHT, 12f);
+        window.add(SensorChannel.LIGHT, Float.NaN); // ignored
+        assertEquals(1, window.count(SensorChannel.LIGHT));
+        assertFalse(window.isEmpty());
+
+        window.reset(100L);
+        assertTrue(window.isEmpty());
+        assertEquals(0, window.count(SensorChannel.LIGHT));
+    }
+}